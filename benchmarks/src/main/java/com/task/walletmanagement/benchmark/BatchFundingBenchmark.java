@@ -0,0 +1,95 @@
+package com.task.walletmanagement.benchmark;
+
+import com.task.walletmanagement.dto.BatchFundingItem;
+import com.task.walletmanagement.dto.BatchFundingResponse;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.service.BatchFundingService;
+import com.task.walletmanagement.service.PaymentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rounds per second of funding {@code items} credits spread over 100 wallets,
+ * one {@link PaymentService#fundWallet} call at a time versus one
+ * {@link BatchFundingService#fundWallets} call. Stub gateways with no latency,
+ * so this measures the service and database work only.
+ *
+ * Run with: {@code mvn -q compile exec:exec -Dbenchmark=BatchFunding}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class BatchFundingBenchmark {
+
+    private static final int WALLETS = 100;
+
+    @Param({ "100", "1000" })
+    public int items;
+
+    @Param({ "pessimistic", "ledger" })
+    public String strategy;
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private BatchFundingService batchFundingService;
+    private List<BatchFundingItem> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("wallet.balance.strategy=" + strategy);
+        paymentService = context.getBean(PaymentService.class);
+        batchFundingService = context.getBean(BatchFundingService.class);
+        List<Long> walletIds = BenchmarkApplication.createWallets(context, WALLETS);
+
+        batch = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            Long walletId = walletIds.get(i % WALLETS);
+            batch.add(new BatchFundingItem(walletId, BenchmarkApplication.accountNumber(walletId),
+                    new BigDecimal("10.00"), PaymentGateway.FLUTTERWAVE));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Every item through the single-item path.
+     */
+    @Benchmark
+    public void singleItems(Blackhole blackhole) {
+        for (BatchFundingItem item : batch) {
+            blackhole.consume(paymentService.fundWallet(item.getWalletId(), item));
+        }
+    }
+
+    /**
+     * Every item in one batch call.
+     */
+    @Benchmark
+    public BatchFundingResponse batch() {
+        return batchFundingService.fundWallets(batch);
+    }
+}
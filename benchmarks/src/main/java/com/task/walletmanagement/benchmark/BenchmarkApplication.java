@@ -0,0 +1,86 @@
+package com.task.walletmanagement.benchmark;
+
+import com.task.walletmanagement.WalletmanagementApplication;
+import com.task.walletmanagement.dto.CreateWalletRequest;
+import com.task.walletmanagement.dto.LinkBankAccountRequest;
+import com.task.walletmanagement.service.BankAccountService;
+import com.task.walletmanagement.service.WalletService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Boots the wallet application for benchmarks: no web server, a private
+ * in-memory H2 database (optionally with a simulated network round trip per
+ * statement), quiet logging and stub payment gateways.
+ */
+public final class BenchmarkApplication {
+
+    public static final String ACCOUNT_NUMBER_PREFIX = "ACC";
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Start a context with the given extra properties (key=value). Properties
+     * are passed as command-line arguments so they override
+     * application.properties.
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        Map<String, String> defaults = new LinkedHashMap<>();
+        defaults.put("spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        defaults.put("spring.jpa.show-sql", "false");
+        defaults.put("spring.jpa.properties.hibernate.format_sql", "false");
+        defaults.put("spring.h2.console.enabled", "false");
+        defaults.put("spring.datasource.hikari.maximum-pool-size", "20");
+        defaults.put("logging.level.root", "WARN");
+        defaults.put("logging.level.com.task.walletmanagement", "WARN");
+        defaults.put("logging.level.org.hibernate.SQL", "WARN");
+        defaults.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+
+        for (String property : properties) {
+            int separator = property.indexOf('=');
+            defaults.put(property.substring(0, separator), property.substring(separator + 1));
+        }
+
+        String[] args = defaults.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+
+        return new SpringApplicationBuilder(WalletmanagementApplication.class, StubPaymentGatewayConfig.class,
+                DatabaseLatencyConfig.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+    }
+
+    /**
+     * Create wallets, each with one linked bank account numbered
+     * {@code ACC<walletId>}. Returns the wallet IDs.
+     */
+    public static List<Long> createWallets(ConfigurableApplicationContext context, int count) {
+        WalletService walletService = context.getBean(WalletService.class);
+        BankAccountService bankAccountService = context.getBean(BankAccountService.class);
+        String run = UUID.randomUUID().toString().substring(0, 8);
+
+        List<Long> walletIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Long walletId = walletService
+                    .createWallet(new CreateWalletRequest("bench-" + run + "-" + i + "@example.com", "+2340000000"))
+                    .getId();
+            bankAccountService.linkBankAccount(walletId,
+                    new LinkBankAccountRequest(accountNumber(walletId), "Benchmark User", "BENCH-" + run));
+            walletIds.add(walletId);
+        }
+        return walletIds;
+    }
+
+    public static String accountNumber(Long walletId) {
+        return ACCOUNT_NUMBER_PREFIX + walletId;
+    }
+}
@@ -0,0 +1,89 @@
+package com.task.walletmanagement.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files and reports each benchmark's change.
+ * Exits with status 1 when any benchmark is worse than the baseline by more
+ * than the threshold (default 10%), so it can gate a release build.
+ *
+ * Throughput scores are better when higher; time-based scores (average,
+ * sample, single-shot) are better when lower.
+ *
+ * Run with: {@code mvn -q compile exec:exec@compare -Dbaseline=results/0.0.1.json},
+ * which compares the last run's {@code target/jmh-result.json}.
+ */
+public final class BenchmarkComparison {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %-8s %9s%n", "Benchmark", "Baseline", "Current", "Unit", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %-8s %9s%n", entry.getKey(), "-", now.value, now.unit, "new");
+                continue;
+            }
+            double change = (now.value - before.value) / before.value * 100.0;
+            double worsening = now.higherIsBetter ? -change : change;
+            boolean regression = worsening > threshold;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %-8s %+8.1f%% %s%n", entry.getKey(), before.value, now.value,
+                    now.unit, change, regression ? "REGRESSION" : "");
+        }
+
+        System.out.printf("%n%d of %d benchmarks regressed by more than %.1f%%%n",
+                regressions, current.size(), threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Primary scores of a JMH JSON result file, keyed by benchmark name, mode
+     * and parameters.
+     */
+    private static Map<String, Score> read(File file) throws IOException {
+        JsonNode results = new ObjectMapper().readTree(file);
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            String mode = result.path("mode").asText();
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+
+            String key = result.path("benchmark").asText().replaceFirst("^.*\\.benchmark\\.", "")
+                    + " [" + mode + "]" + (params.isEmpty() ? "" : " " + params);
+            JsonNode metric = result.path("primaryMetric");
+            scores.put(key, new Score(metric.path("score").asDouble(), metric.path("scoreUnit").asText(),
+                    "thrpt".equals(mode)));
+        }
+        return scores;
+    }
+
+    private record Score(double value, String unit, boolean higherIsBetter) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.task.walletmanagement.benchmark;
+
+import com.task.walletmanagement.entity.Transaction;
+import com.task.walletmanagement.entity.Wallet;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.enums.TransactionStatus;
+import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.repository.WalletRepository;
+import com.task.walletmanagement.service.TransactionService;
+import com.task.walletmanagement.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second of inserting {@value #ROWS} transactions through
+ * {@link TransactionService#createTransactions}, spread over 100 wallets.
+ *
+ * {@code jdbcBatchSize=1} sends one INSERT round trip per row, as every
+ * insert did with IDENTITY keys; {@code 50} is the configured batch size,
+ * where pooled sequence IDs let Hibernate group the inserts into JDBC
+ * batches. The table is truncated after each iteration so every run inserts
+ * into the same volume.
+ *
+ * Run with: {@code mvn -q compile exec:exec -Dbenchmark=BulkInsert}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BulkInsertBenchmark {
+
+    static final int ROWS = 100_000;
+    private static final int WALLETS = 100;
+
+    @Param({ "1", "50" })
+    public int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private JdbcTemplate jdbcTemplate;
+    private List<Wallet> wallets;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+        transactionService = context.getBean(TransactionService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Long> walletIds = BenchmarkApplication.createWallets(context, WALLETS);
+        wallets = context.getBean(WalletRepository.class).findAllById(walletIds);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        jdbcTemplate.update("DELETE FROM transaction_summaries");
+        jdbcTemplate.update("DELETE FROM transactions");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Transaction> createTransactions() {
+        List<Transaction> transactions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setWallet(wallets.get(i % WALLETS));
+            transaction.setAmount(Money.ofMinor(1_000));
+            transaction.setType(TransactionType.CREDIT);
+            transaction.setDescription("Benchmark credit");
+            transaction.setPaymentGateway(PaymentGateway.PAYSTACK);
+            transaction.setStatus(TransactionStatus.SUCCESS);
+            transactions.add(transaction);
+        }
+        return transactionService.createTransactions(transactions);
+    }
+}
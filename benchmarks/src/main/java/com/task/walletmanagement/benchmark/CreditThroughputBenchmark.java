@@ -0,0 +1,100 @@
+package com.task.walletmanagement.benchmark;
+
+import com.task.walletmanagement.dto.FundWalletRequest;
+import com.task.walletmanagement.entity.Wallet;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.repository.WalletRepository;
+import com.task.walletmanagement.service.PaymentService;
+import com.task.walletmanagement.service.balance.BalanceUpdateStrategy;
+import com.task.walletmanagement.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Credits per second through {@link PaymentService#fundWallet} with a
+ * zero-latency gateway, comparing {@code wallet.balance.strategy=pessimistic}
+ * (wallet row lock per credit), {@code optimistic} (versioned update with
+ * retries, row lock once a wallet is contended) and {@code ledger} (sharded
+ * in-memory ledger, write-behind to {@code wallets.balance}).
+ *
+ * {@code wallets=1} puts every credit on one hot wallet; {@code wallets=1000}
+ * spreads them so only shard and connection-pool contention remain. The
+ * trial fails if the total balance is not the sum of the completed credits.
+ *
+ * Run with: {@code mvn -q compile exec:exec -Dbenchmark=CreditThroughput}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CreditThroughputBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    @Param({ "pessimistic", "optimistic", "ledger" })
+    public String strategy;
+
+    @Param({ "1", "1000" })
+    public int wallets;
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private List<Long> walletIds;
+    private final AtomicLong credits = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("wallet.balance.strategy=" + strategy);
+        paymentService = context.getBean(PaymentService.class);
+        walletIds = BenchmarkApplication.createWallets(context, wallets);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        try {
+            Money expected = Money.ofMinor(Money.of(AMOUNT).getMinorUnits() * credits.get());
+            Money total = Money.ZERO;
+            BalanceUpdateStrategy balanceUpdateStrategy = context.getBean(BalanceUpdateStrategy.class);
+            for (Wallet wallet : context.getBean(WalletRepository.class).findAllById(walletIds)) {
+                total = total.plus(balanceUpdateStrategy.getBalance(wallet));
+            }
+            System.out.printf("%,d credits, total balance %s%n", credits.get(), total);
+            if (!total.equals(expected)) {
+                throw new IllegalStateException("Total balance " + total + " does not match " + expected + " credited");
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Object credit() {
+        Long walletId = walletIds.get(ThreadLocalRandom.current().nextInt(walletIds.size()));
+        Object response = paymentService.fundWallet(walletId,
+                new FundWalletRequest(BenchmarkApplication.accountNumber(walletId), AMOUNT, PaymentGateway.PAYSTACK));
+        credits.incrementAndGet();
+        return response;
+    }
+}
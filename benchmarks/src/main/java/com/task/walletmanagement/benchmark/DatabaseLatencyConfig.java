@@ -0,0 +1,78 @@
+package com.task.walletmanagement.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Makes the in-memory database behave like one across a network: every
+ * statement execution and every commit blocks for
+ * {@code -Dbenchmark.db.round-trip-micros} (default 0, no delay) before
+ * reaching H2. Row locks are then held for real round trips, as they would be
+ * against a database server, instead of for a few microseconds of CPU.
+ */
+@Configuration
+public class DatabaseLatencyConfig {
+
+    static final String ROUND_TRIP_PROPERTY = "benchmark.db.round-trip-micros";
+    private static final Set<String> ROUND_TRIPS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch",
+            "executeLargeBatch", "commit");
+
+    @Bean
+    public static BeanPostProcessor databaseLatencyPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                long roundTripMicros = Long.getLong(ROUND_TRIP_PROPERTY, 0L);
+                if (roundTripMicros <= 0 || !(bean instanceof DataSource dataSource)
+                        || bean instanceof DelegatingDataSource) {
+                    return bean;
+                }
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        return (Connection) delayed(super.getConnection(), Connection.class, roundTripMicros);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Proxy that delays round-trip methods and wraps the statements a
+     * connection creates.
+     */
+    private static Object delayed(Object target, Class<?> type, long roundTripMicros) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (ROUND_TRIPS.contains(method.getName())) {
+                        LockSupport.parkNanos(roundTripMicros * 1_000);
+                    }
+                    Object result = invoke(target, method, args);
+                    if (result instanceof Statement statement && !(result instanceof Proxy)) {
+                        return delayed(statement, method.getReturnType(), roundTripMicros);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
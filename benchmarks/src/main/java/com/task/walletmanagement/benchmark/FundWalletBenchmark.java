@@ -0,0 +1,84 @@
+package com.task.walletmanagement.benchmark;
+
+import com.task.walletmanagement.dto.FundWalletRequest;
+import com.task.walletmanagement.dto.TransactionResponse;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.service.PaymentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-caller latency of {@link PaymentService#fundWallet} with stub
+ * gateways, i.e. the cost of the service and database work alone, and of
+ * {@link PaymentService#initiateFunding} (validation plus the PENDING insert).
+ *
+ * Run with: {@code mvn -q compile exec:exec -Dbenchmark=FundWallet}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class FundWalletBenchmark {
+
+    private static final int WALLETS = 100;
+
+    @Param({ "pessimistic", "ledger" })
+    public String strategy;
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private List<Long> walletIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("wallet.balance.strategy=" + strategy);
+        paymentService = context.getBean(PaymentService.class);
+        walletIds = BenchmarkApplication.createWallets(context, WALLETS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionResponse fundWallet() {
+        Long walletId = nextWallet();
+        return paymentService.fundWallet(walletId, request(walletId));
+    }
+
+    @Benchmark
+    public TransactionResponse initiateFunding() {
+        Long walletId = nextWallet();
+        return paymentService.initiateFunding(walletId, request(walletId));
+    }
+
+    private Long nextWallet() {
+        next = (next + 1) % WALLETS;
+        return walletIds.get(next);
+    }
+
+    private FundWalletRequest request(Long walletId) {
+        return new FundWalletRequest(BenchmarkApplication.accountNumber(walletId), new BigDecimal("10.00"),
+                PaymentGateway.FLUTTERWAVE);
+    }
+}
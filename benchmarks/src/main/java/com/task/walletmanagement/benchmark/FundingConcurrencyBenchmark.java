@@ -0,0 +1,108 @@
+package com.task.walletmanagement.benchmark;
+
+import com.task.walletmanagement.dto.FundWalletRequest;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.service.PaymentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long one node needs to drain {@code inFlight} concurrent fundings when
+ * each gateway call blocks for {@code gatewayLatencyMs}.
+ *
+ * PLATFORM models the default request pipeline: a pool of 200 platform threads
+ * (Tomcat's default {@code server.tomcat.threads.max}). VIRTUAL models
+ * {@code spring.threads.virtual.enabled=true}: one virtual thread per request.
+ * The gateway bulkhead is sized to {@code inFlight} and the call timeout
+ * raised to a minute. Fundings per second = inFlight / score.
+ *
+ * Run with: {@code mvn -q compile exec:exec -Dbenchmark=FundingConcurrency}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g", "-Dbenchmark.gateway.latency-ms=500" })
+public class FundingConcurrencyBenchmark {
+
+    private static final int TOMCAT_DEFAULT_MAX_THREADS = 200;
+    private static final int WALLETS = 200;
+    // Far longer than the 500 ms gateway latency plus any scheduling delay
+    private static final long GATEWAY_WAIT_MS = 60_000;
+
+    public enum ThreadModel {
+        PLATFORM, VIRTUAL
+    }
+
+    @Param({ "PLATFORM", "VIRTUAL" })
+    public ThreadModel threadModel;
+
+    @Param({ "200", "1000", "5000" })
+    public int inFlight;
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private List<Long> walletIds;
+    private ExecutorService requestThreads;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Give every in-flight funding a gateway slot and all the time it
+        // needs, so the resilience layer never rejects or abandons a call and
+        // the thread model alone sets the pace
+        context = BenchmarkApplication.start(
+                "spring.threads.virtual.enabled=" + (threadModel == ThreadModel.VIRTUAL),
+                "wallet.gateway.resilience.max-concurrent-calls=" + inFlight,
+                "wallet.gateway.resilience.max-wait-ms=" + GATEWAY_WAIT_MS,
+                "wallet.gateway.resilience.timeout-ms=" + GATEWAY_WAIT_MS);
+        paymentService = context.getBean(PaymentService.class);
+        walletIds = BenchmarkApplication.createWallets(context, WALLETS);
+        requestThreads = threadModel == ThreadModel.VIRTUAL
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_DEFAULT_MAX_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        requestThreads.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public int fundConcurrently() throws Exception {
+        List<Future<?>> fundings = new ArrayList<>(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            Long walletId = walletIds.get(i % walletIds.size());
+            FundWalletRequest request = new FundWalletRequest(
+                    BenchmarkApplication.accountNumber(walletId),
+                    new BigDecimal("10.00"),
+                    i % 2 == 0 ? PaymentGateway.FLUTTERWAVE : PaymentGateway.PAYSTACK);
+            fundings.add(requestThreads.submit(() -> paymentService.fundWallet(walletId, request)));
+        }
+        for (Future<?> funding : fundings) {
+            funding.get();
+        }
+        return fundings.size();
+    }
+}
@@ -0,0 +1,99 @@
+package com.task.walletmanagement.benchmark;
+
+import com.task.walletmanagement.dto.FundWalletRequest;
+import com.task.walletmanagement.entity.Wallet;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.repository.WalletRepository;
+import com.task.walletmanagement.service.PaymentService;
+import com.task.walletmanagement.service.balance.BalanceUpdateStrategy;
+import com.task.walletmanagement.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fundings per second through {@link PaymentService#fundWallet} from 16
+ * threads with a zero-latency gateway, committing each funding's two
+ * transactions on its own thread ({@code groupCommit=false}) or through the
+ * group-commit writer with its default batch size and wait.
+ *
+ * {@code wallets=1} puts every credit on one wallet row; with
+ * {@code wallets=1000} they rarely meet. The trial fails if the total balance
+ * over all wallets is not the sum of the completed credits.
+ *
+ * Run with: {@code mvn -q compile exec:exec -Dbenchmark=GroupCommit}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class GroupCommitBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    @Param({ "false", "true" })
+    public boolean groupCommit;
+
+    @Param({ "1", "1000" })
+    public int wallets;
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private List<Long> walletIds;
+    private final AtomicLong credits = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("wallet.funding.group-commit.enabled=" + groupCommit);
+        paymentService = context.getBean(PaymentService.class);
+        walletIds = BenchmarkApplication.createWallets(context, wallets);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        try {
+            BalanceUpdateStrategy balanceUpdateStrategy = context.getBean(BalanceUpdateStrategy.class);
+            Money total = Money.ZERO;
+            for (Wallet wallet : context.getBean(WalletRepository.class).findAllById(walletIds)) {
+                total = total.plus(balanceUpdateStrategy.getBalance(wallet));
+            }
+            Money expected = Money.ofMinor(Money.of(AMOUNT).getMinorUnits() * credits.get());
+            System.out.printf("%,d credits, total balance %s%n", credits.get(), total);
+            if (!total.equals(expected)) {
+                throw new IllegalStateException("Total balance " + total + " does not match " + expected + " credited");
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Object fundWallet() {
+        Long walletId = walletIds.get(ThreadLocalRandom.current().nextInt(walletIds.size()));
+        Object response = paymentService.fundWallet(walletId,
+                new FundWalletRequest(BenchmarkApplication.accountNumber(walletId), AMOUNT, PaymentGateway.PAYSTACK));
+        credits.incrementAndGet();
+        return response;
+    }
+}
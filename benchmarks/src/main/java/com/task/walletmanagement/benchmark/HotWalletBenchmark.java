@@ -0,0 +1,97 @@
+package com.task.walletmanagement.benchmark;
+
+import com.task.walletmanagement.dto.FundWalletRequest;
+import com.task.walletmanagement.entity.Wallet;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.repository.WalletRepository;
+import com.task.walletmanagement.service.PaymentService;
+import com.task.walletmanagement.service.balance.BalanceShards;
+import com.task.walletmanagement.service.balance.BalanceUpdateStrategy;
+import com.task.walletmanagement.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Credits per second to one hot wallet through
+ * {@link PaymentService#fundWallet} from 16 threads with a zero-latency
+ * gateway, with the wallet's balance and summary deltas in one row each
+ * ({@code shards=0}) or spread over {@code shards} shard rows, compacted every
+ * second. Every statement and commit takes a 1 ms round trip, as against a
+ * database server, so a credit holds its row locks for several milliseconds
+ * and the rows it updates, not the CPU, bound throughput.
+ *
+ * The trial fails if the wallet's balance is not the sum of the completed
+ * credits.
+ *
+ * Run with: {@code mvn -q compile exec:exec -Dbenchmark=HotWallet}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g", "-Dbenchmark.db.round-trip-micros=1000" })
+public class HotWalletBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    @Param({ "0", "4", "16" })
+    public int shards;
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private Long walletId;
+    private FundWalletRequest request;
+    private final AtomicLong credits = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("wallet.balance.sharding.shards=" + Math.max(1, shards));
+        paymentService = context.getBean(PaymentService.class);
+        walletId = BenchmarkApplication.createWallets(context, 1).get(0);
+        if (shards > 0 && !context.getBean(BalanceShards.class).shard(walletId)) {
+            throw new IllegalStateException("Wallet " + walletId + " could not be sharded");
+        }
+        request = new FundWalletRequest(BenchmarkApplication.accountNumber(walletId), AMOUNT, PaymentGateway.PAYSTACK);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        try {
+            Wallet wallet = context.getBean(WalletRepository.class).findById(walletId).orElseThrow();
+            Money balance = context.getBean(BalanceUpdateStrategy.class).getBalance(wallet);
+            Money expected = Money.ofMinor(Money.of(AMOUNT).getMinorUnits() * credits.get());
+            System.out.printf("%,d credits, balance %s%n", credits.get(), balance);
+            if (!balance.equals(expected)) {
+                throw new IllegalStateException("Balance " + balance + " does not match " + expected + " credited");
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Object credit() {
+        Object response = paymentService.fundWallet(walletId, request);
+        credits.incrementAndGet();
+        return response;
+    }
+}
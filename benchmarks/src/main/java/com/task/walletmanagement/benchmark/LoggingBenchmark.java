@@ -0,0 +1,103 @@
+package com.task.walletmanagement.benchmark;
+
+import com.task.walletmanagement.dto.FundWalletRequest;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.service.PaymentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fundings per second through {@link PaymentService#fundWallet} from 16
+ * threads with a zero-latency gateway, under the default logging setup
+ * (SQL statements and bind parameters, DEBUG for the application, plain-text
+ * console) and under the {@code prod} profile (no SQL tracing, INFO,
+ * sampled structured JSON through an async appender).
+ *
+ * Console output goes to a temporary file, so the cost of writing it is
+ * measured without flooding the benchmark output.
+ *
+ * Run with: {@code mvn -q compile exec:exec -Dbenchmark=Logging}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 4, time = 5)
+@Measurement(iterations = 4, time = 5)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LoggingBenchmark {
+
+    private static final int WALLETS = 1000;
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    @Param({ "default", "prod" })
+    public String logging;
+
+    private PrintStream originalOut;
+    private Path logFile;
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private List<Long> walletIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        originalOut = System.out;
+        logFile = Files.createTempFile("logging-benchmark-", ".log");
+        System.setOut(new PrintStream(new FileOutputStream(logFile.toFile()), false));
+
+        // BenchmarkApplication quietens logging; put back each setup's levels
+        context = "prod".equals(logging)
+                ? BenchmarkApplication.start("spring.profiles.active=prod",
+                        "logging.level.root=INFO",
+                        "logging.level.com.task.walletmanagement=INFO",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+                : BenchmarkApplication.start("spring.jpa.show-sql=true",
+                        "spring.jpa.properties.hibernate.format_sql=true",
+                        "logging.level.root=INFO",
+                        "logging.level.com.task.walletmanagement=DEBUG",
+                        "logging.level.org.hibernate.SQL=DEBUG",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=TRACE");
+        paymentService = context.getBean(PaymentService.class);
+        walletIds = BenchmarkApplication.createWallets(context, WALLETS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        System.out.close();
+        System.setOut(originalOut);
+        System.out.printf("%s logging wrote %,d bytes%n", logging, Files.size(logFile));
+        Files.delete(logFile);
+    }
+
+    @Benchmark
+    public Object fundWallet() {
+        Long walletId = walletIds.get(ThreadLocalRandom.current().nextInt(walletIds.size()));
+        return paymentService.fundWallet(walletId,
+                new FundWalletRequest(BenchmarkApplication.accountNumber(walletId), AMOUNT, PaymentGateway.PAYSTACK));
+    }
+}
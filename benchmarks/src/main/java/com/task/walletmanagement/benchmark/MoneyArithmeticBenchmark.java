@@ -0,0 +1,92 @@
+package com.task.walletmanagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.walletmanagement.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BigDecimal vs {@link Money} for the balance arithmetic and amount
+ * serialization on the funding path: summing {@value #AMOUNTS} credits and
+ * writing {@value #AMOUNTS} amounts as JSON. Serialized values are created
+ * per operation, as when rows are read and written out once, so BigDecimal's
+ * cached string form does not flatter it.
+ *
+ * Run with the GC profiler to compare allocation rates:
+ * {@code mvn -q compile exec:exec -Dbenchmark=MoneyArithmetic -Djmh.args="-prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyArithmeticBenchmark {
+
+    private static final int AMOUNTS = 1000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private long[] minorUnits;
+    private BigDecimal[] decimalAmounts;
+    private Money[] moneyAmounts;
+
+    @Setup
+    public void setUp() {
+        minorUnits = new long[AMOUNTS];
+        decimalAmounts = new BigDecimal[AMOUNTS];
+        moneyAmounts = new Money[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            minorUnits[i] = ThreadLocalRandom.current().nextLong(1, 10_000_000);
+            decimalAmounts[i] = BigDecimal.valueOf(minorUnits[i], 2);
+            moneyAmounts[i] = Money.ofMinor(minorUnits[i]);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal sumBigDecimal() {
+        BigDecimal balance = BigDecimal.ZERO.setScale(2);
+        for (BigDecimal amount : decimalAmounts) {
+            balance = balance.add(amount);
+        }
+        return balance;
+    }
+
+    @Benchmark
+    public Money sumMoney() {
+        Money balance = Money.ZERO;
+        for (Money amount : moneyAmounts) {
+            balance = balance.plus(amount);
+        }
+        return balance;
+    }
+
+    @Benchmark
+    public byte[] serializeBigDecimal() throws Exception {
+        BigDecimal[] amounts = new BigDecimal[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            amounts[i] = BigDecimal.valueOf(minorUnits[i], 2);
+        }
+        return objectMapper.writeValueAsBytes(amounts);
+    }
+
+    @Benchmark
+    public byte[] serializeMoney() throws Exception {
+        Money[] amounts = new Money[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            amounts[i] = Money.ofMinor(minorUnits[i]);
+        }
+        return objectMapper.writeValueAsBytes(amounts);
+    }
+}
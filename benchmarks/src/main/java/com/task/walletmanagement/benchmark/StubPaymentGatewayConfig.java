@@ -0,0 +1,54 @@
+package com.task.walletmanagement.benchmark;
+
+import com.task.walletmanagement.service.payment.FlutterwavePaymentStrategy;
+import com.task.walletmanagement.service.payment.PaystackPaymentStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.math.BigDecimal;
+
+/**
+ * Replaces the simulated gateways with deterministic stubs: no random
+ * failures, no logging, and a blocking delay of
+ * {@code -Dbenchmark.gateway.latency-ms} (default 0).
+ */
+@Configuration
+public class StubPaymentGatewayConfig {
+
+    static final String LATENCY_PROPERTY = "benchmark.gateway.latency-ms";
+
+    @Bean
+    @Primary
+    public FlutterwavePaymentStrategy stubFlutterwavePaymentStrategy() {
+        return new FlutterwavePaymentStrategy() {
+            @Override
+            public void processPayment(String accountNumber, BigDecimal amount) {
+                simulateLatency();
+            }
+        };
+    }
+
+    @Bean
+    @Primary
+    public PaystackPaymentStrategy stubPaystackPaymentStrategy() {
+        return new PaystackPaymentStrategy() {
+            @Override
+            public void processPayment(String accountNumber, BigDecimal amount) {
+                simulateLatency();
+            }
+        };
+    }
+
+    static void simulateLatency() {
+        long latencyMs = Long.getLong(LATENCY_PROPERTY, 0L);
+        if (latencyMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
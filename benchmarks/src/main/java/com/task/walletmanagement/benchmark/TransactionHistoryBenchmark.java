@@ -0,0 +1,136 @@
+package com.task.walletmanagement.benchmark;
+
+import com.task.walletmanagement.dto.TransactionPageResponse;
+import com.task.walletmanagement.entity.Transaction;
+import com.task.walletmanagement.repository.TransactionRepository;
+import com.task.walletmanagement.service.TransactionService;
+import com.task.walletmanagement.util.TransactionCursor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction history reads against a wallet holding {@code rows}
+ * transactions on H2.
+ *
+ * {@code repositoryFirstPage} returns entities straight from the repository;
+ * the gap to {@code serviceFirstPage} is the service layer's own cost (wallet
+ * check, DTO mapping, cursor encoding). {@code serviceLastPage} reads the
+ * oldest page through a cursor and should cost the same as the first page at
+ * any depth. {@code export} streams the whole history as NDJSON.
+ *
+ * Run with: {@code mvn -q compile exec:exec -Dbenchmark=TransactionHistory}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TransactionHistoryBenchmark {
+
+    private static final int INSERT_BATCH_SIZE = 5_000;
+
+    @Param({ "10", "1000", "100000" })
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private TransactionRepository transactionRepository;
+    private Long walletId;
+    private String lastPageCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        transactionService = context.getBean(TransactionService.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        walletId = BenchmarkApplication.createWallets(context, 1).get(0);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        LocalDateTime start = LocalDateTime.now().minusDays(365);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[] { walletId, Timestamp.valueOf(start.plusSeconds(i)) });
+            if (batch.size() == INSERT_BATCH_SIZE || i == rows - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO transactions "
+                        + "(wallet_id, amount, type, description, payment_gateway, status, created_at) "
+                        + "VALUES (?, 10.00, 'CREDIT', 'Benchmark credit', 'PAYSTACK', 'SUCCESS', ?)", batch);
+                batch.clear();
+            }
+        }
+
+        // Cursor after which only the oldest page remains
+        int pageSize = TransactionService.DEFAULT_PAGE_SIZE;
+        int newerRows = Math.max(0, rows - pageSize);
+        if (newerRows > 0) {
+            Transaction boundary = transactionRepository
+                    .findPageByWalletId(walletId, Limit.of(newerRows))
+                    .get(newerRows - 1);
+            lastPageCursor = new TransactionCursor(boundary.getCreatedAt(), boundary.getId()).encode();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Transaction> repositoryFirstPage() {
+        return transactionRepository.findPageByWalletId(walletId, Limit.of(TransactionService.DEFAULT_PAGE_SIZE + 1));
+    }
+
+    @Benchmark
+    public TransactionPageResponse serviceFirstPage() {
+        return transactionService.getTransactionsByWalletId(walletId, null, TransactionService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public TransactionPageResponse serviceLastPage() {
+        return transactionService.getTransactionsByWalletId(walletId, lastPageCursor,
+                TransactionService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        transactionService.exportTransactions(walletId, out);
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.task.walletmanagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.walletmanagement.dto.TransactionPageResponse;
+import com.task.walletmanagement.dto.TransactionResponse;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.enums.TransactionStatus;
+import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of transaction history responses with the same
+ * ObjectMapper configuration Spring MVC uses: a list of {@code size}
+ * {@link TransactionResponse}s, and the same list wrapped in a
+ * {@link TransactionPageResponse}.
+ *
+ * Run with: {@code mvn -q compile exec:exec -Dbenchmark=TransactionSerialization}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionSerializationBenchmark {
+
+    @Param({ "10", "50", "500" })
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<TransactionResponse> transactions;
+    private TransactionPageResponse page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        transactions = new ArrayList<>(size);
+        LocalDateTime createdAt = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            transactions.add(new TransactionResponse(
+                    (long) (size - i),
+                    Money.ofMinor(100_000L + i),
+                    TransactionType.CREDIT,
+                    "Wallet funded via PAYSTACK from account 0123456789",
+                    PaymentGateway.PAYSTACK,
+                    TransactionStatus.SUCCESS,
+                    createdAt.minusSeconds(i)));
+        }
+        page = new TransactionPageResponse(transactions, "MjAyNi0wMS0xNVQxMDozMDowMHwx", true);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return objectMapper.writeValueAsBytes(transactions);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
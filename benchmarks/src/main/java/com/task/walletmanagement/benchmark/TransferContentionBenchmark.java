@@ -0,0 +1,134 @@
+package com.task.walletmanagement.benchmark;
+
+import com.task.walletmanagement.dto.FundWalletRequest;
+import com.task.walletmanagement.dto.TransferRequest;
+import com.task.walletmanagement.entity.Wallet;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.exception.InsufficientFundsException;
+import com.task.walletmanagement.repository.WalletRepository;
+import com.task.walletmanagement.service.PaymentService;
+import com.task.walletmanagement.service.TransferService;
+import com.task.walletmanagement.service.balance.BalanceUpdateStrategy;
+import com.task.walletmanagement.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.PessimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transfers per second through {@link TransferService#transfer} from 16
+ * threads, each moving 1.00 between two random distinct wallets. Half of
+ * the transfers run in descending ID order, so with unordered locking the
+ * threads would deadlock.
+ *
+ * {@code wallets=10} makes most transfers wait on a row lock; with
+ * {@code wallets=1000} few do. The trial fails if any transfer hit a
+ * deadlock or lock timeout, or if the total balance over all wallets
+ * changed; the number of completed transfers is printed at the end.
+ *
+ * Run with: {@code mvn -q compile exec:exec -Dbenchmark=TransferContention}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TransferContentionBenchmark {
+
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param({ "pessimistic", "ledger" })
+    public String strategy;
+
+    @Param({ "10", "1000" })
+    public int wallets;
+
+    private ConfigurableApplicationContext context;
+    private TransferService transferService;
+    private List<Long> walletIds;
+    private Money expectedTotal;
+    private final AtomicLong transfers = new AtomicLong();
+    private final AtomicLong insufficientFunds = new AtomicLong();
+    private final AtomicLong lockFailures = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("wallet.balance.strategy=" + strategy);
+        transferService = context.getBean(TransferService.class);
+        walletIds = BenchmarkApplication.createWallets(context, wallets);
+
+        PaymentService paymentService = context.getBean(PaymentService.class);
+        for (Long walletId : walletIds) {
+            paymentService.fundWallet(walletId,
+                    new FundWalletRequest(BenchmarkApplication.accountNumber(walletId), OPENING_BALANCE,
+                            PaymentGateway.PAYSTACK));
+        }
+        expectedTotal = totalBalance();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        try {
+            Money total = totalBalance();
+            System.out.printf("%,d transfers, %,d insufficient funds, %,d lock failures, total balance %s%n",
+                    transfers.get(), insufficientFunds.get(), lockFailures.get(), total);
+            if (lockFailures.get() > 0) {
+                throw new IllegalStateException(lockFailures.get() + " transfers failed on a deadlock or lock timeout");
+            }
+            if (!total.equals(expectedTotal)) {
+                throw new IllegalStateException("Total balance changed from " + expectedTotal + " to " + total);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Object transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(wallets);
+        int to = (from + 1 + random.nextInt(wallets - 1)) % wallets;
+        try {
+            Object response = transferService.transfer(walletIds.get(from),
+                    new TransferRequest(walletIds.get(to), AMOUNT));
+            transfers.incrementAndGet();
+            return response;
+        } catch (InsufficientFundsException e) {
+            insufficientFunds.incrementAndGet();
+            return e;
+        } catch (PessimisticLockingFailureException e) {
+            lockFailures.incrementAndGet();
+            return e;
+        }
+    }
+
+    private Money totalBalance() {
+        BalanceUpdateStrategy balanceUpdateStrategy = context.getBean(BalanceUpdateStrategy.class);
+        Money total = Money.ZERO;
+        for (Wallet wallet : context.getBean(WalletRepository.class).findAllById(walletIds)) {
+            total = total.plus(balanceUpdateStrategy.getBalance(wallet));
+        }
+        return total;
+    }
+}
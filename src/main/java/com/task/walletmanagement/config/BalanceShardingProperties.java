@@ -0,0 +1,22 @@
+package com.task.walletmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Set;
+
+/**
+ * Balance shard rows for hot wallets ({@code wallet.balance.sharding.*}).
+ *
+ * @param hotWalletIds         wallets whose credits are spread over shard
+ *                             rows; empty disables sharding
+ * @param shards               shard rows per hot wallet
+ * @param compactionIntervalMs how often shard balances are moved into
+ *                             {@code wallets.balance}
+ */
+@ConfigurationProperties(prefix = "wallet.balance.sharding")
+public record BalanceShardingProperties(
+        @DefaultValue Set<Long> hotWalletIds,
+        @DefaultValue("8") int shards,
+        @DefaultValue("1000") long compactionIntervalMs) {
+}
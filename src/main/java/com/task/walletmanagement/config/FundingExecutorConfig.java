@@ -0,0 +1,53 @@
+package com.task.walletmanagement.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor used to run payment gateway calls for asynchronous wallet funding.
+ * The executor is bounded in both thread modes; once it is full new
+ * submissions are rejected instead of piling up.
+ */
+@Configuration
+public class FundingExecutorConfig {
+
+    /**
+     * Platform-thread executor: bounded pool with a bounded queue.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor fundingExecutor(
+            @Value("${wallet.funding.async.core-pool-size:16}") int corePoolSize,
+            @Value("${wallet.funding.async.max-pool-size:64}") int maxPoolSize,
+            @Value("${wallet.funding.async.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("funding-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Virtual-thread executor (spring.threads.virtual.enabled=true): one virtual
+     * thread per funding, bounded by a concurrency limit instead of a pool.
+     */
+    @Bean(name = "fundingExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualFundingExecutor(
+            @Value("${wallet.funding.async.virtual-concurrency-limit:10000}") int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("funding-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setRejectTasksWhenLimitReached(true);
+        executor.setTaskTerminationTimeout(30_000);
+        return executor;
+    }
+}
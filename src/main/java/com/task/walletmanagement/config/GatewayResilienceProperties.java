@@ -0,0 +1,35 @@
+package com.task.walletmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limits applied to every payment gateway call
+ * ({@code wallet.gateway.resilience.*}). Each gateway gets its own bulkhead
+ * and circuit breaker with these settings.
+ *
+ * @param maxConcurrentCalls   calls allowed in flight per gateway
+ * @param maxWaitMs            how long a call may wait for a free slot before it
+ *                             is rejected
+ * @param timeoutMs            how long a caller waits for the gateway to answer
+ * @param failureRateThreshold failure percentage over the sliding window that
+ *                             opens the circuit
+ * @param slidingWindowSize    number of most recent calls the failure rate is
+ *                             computed over
+ * @param minimumCalls         calls recorded before the failure rate is evaluated
+ * @param openDurationMs       how long an open circuit rejects calls before
+ *                             letting trial calls through
+ * @param halfOpenCalls        trial calls that must all succeed to close the
+ *                             circuit again
+ */
+@ConfigurationProperties(prefix = "wallet.gateway.resilience")
+public record GatewayResilienceProperties(
+        @DefaultValue("32") int maxConcurrentCalls,
+        @DefaultValue("100") long maxWaitMs,
+        @DefaultValue("2000") long timeoutMs,
+        @DefaultValue("50") int failureRateThreshold,
+        @DefaultValue("20") int slidingWindowSize,
+        @DefaultValue("10") int minimumCalls,
+        @DefaultValue("30000") long openDurationMs,
+        @DefaultValue("3") int halfOpenCalls) {
+}
@@ -0,0 +1,20 @@
+package com.task.walletmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * How requests with {@code paymentGateway=AUTO} are routed
+ * ({@code wallet.gateway.routing.*}).
+ *
+ * @param ewmaAlpha          weight of the newest call in each gateway's moving
+ *                           averages; higher reacts faster, lower is steadier
+ * @param explorationPercent share of AUTO payments sent to a gateway other
+ *                           than the best one, so a gateway that has recovered
+ *                           gets fresh samples
+ */
+@ConfigurationProperties(prefix = "wallet.gateway.routing")
+public record GatewayRoutingProperties(
+        @DefaultValue("0.2") double ewmaAlpha,
+        @DefaultValue("5") int explorationPercent) {
+}
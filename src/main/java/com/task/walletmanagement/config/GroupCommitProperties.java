@@ -0,0 +1,25 @@
+package com.task.walletmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Group commit of funding transactions
+ * ({@code wallet.funding.group-commit.*}).
+ *
+ * @param enabled       queue the funding transactions to the group-commit
+ *                      writer instead of committing each one on its caller's
+ *                      thread
+ * @param maxBatchSize  most transactions committed together
+ * @param maxWaitMicros longest the writer waits after the first queued
+ *                      transaction for more to join its batch
+ * @param queueCapacity transactions that may wait for the writer; a caller
+ *                      that finds the queue full commits on its own thread
+ */
+@ConfigurationProperties(prefix = "wallet.funding.group-commit")
+public record GroupCommitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("64") int maxBatchSize,
+        @DefaultValue("500") long maxWaitMicros,
+        @DefaultValue("10000") int queueCapacity) {
+}
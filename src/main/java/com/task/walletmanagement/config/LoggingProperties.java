@@ -0,0 +1,16 @@
+package com.task.walletmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Logging of high-volume paths ({@code wallet.logging.*}).
+ *
+ * @param fundingSampleRate fraction (0 to 1) of successful fundings that log
+ *                          their {@code Funding completed} event; failures are
+ *                          always logged
+ */
+@ConfigurationProperties(prefix = "wallet.logging")
+public record LoggingProperties(
+        @DefaultValue("1.0") double fundingSampleRate) {
+}
@@ -0,0 +1,28 @@
+package com.task.walletmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Optimistic balance updates ({@code wallet.balance.optimistic.*}), used when
+ * {@code wallet.balance.strategy=optimistic}.
+ *
+ * @param maxAttempts             versioned update attempts before an update
+ *                                falls back to locking the wallet row
+ * @param initialBackoffMicros    upper bound of the random pause after the
+ *                                first conflict; doubles with each retry
+ * @param maxBackoffMicros        cap on the pause between attempts
+ * @param contendedAfterConflicts conflicts on one wallet within the window
+ *                                after which its updates lock the row up front
+ * @param contentionWindowMs      how long a wallet's conflicts are counted;
+ *                                a contended wallet returns to optimistic
+ *                                updates once its window expires
+ */
+@ConfigurationProperties(prefix = "wallet.balance.optimistic")
+public record OptimisticBalanceProperties(
+        @DefaultValue("4") int maxAttempts,
+        @DefaultValue("50") long initialBackoffMicros,
+        @DefaultValue("2000") long maxBackoffMicros,
+        @DefaultValue("8") int contendedAfterConflicts,
+        @DefaultValue("5000") long contentionWindowMs) {
+}
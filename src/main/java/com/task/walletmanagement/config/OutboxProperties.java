@@ -0,0 +1,24 @@
+package com.task.walletmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * How the outbox dispatcher drains {@code outbox_events}
+ * ({@code wallet.outbox.*}). The sink itself is chosen with
+ * {@code wallet.outbox.sink}.
+ *
+ * @param batchSize      events read and handed to the sink at a time
+ * @param lingerMs       pause after a batch that was not full, so the next
+ *                       one can fill up
+ * @param retryBackoffMs pause after the sink failed before the same batch is
+ *                       retried
+ * @param filePath       file the {@code file} sink appends to
+ */
+@ConfigurationProperties(prefix = "wallet.outbox")
+public record OutboxProperties(
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("50") long lingerMs,
+        @DefaultValue("1000") long retryBackoffMs,
+        @DefaultValue("./data/outbox.ndjson") String filePath) {
+}
@@ -0,0 +1,29 @@
+package com.task.walletmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Balance snapshots and startup checks of the wallet event journal
+ * ({@code wallet.journal.*}).
+ *
+ * @param snapshotEveryEvents journal events after the latest snapshot that
+ *                            trigger a new one
+ * @param checkIntervalMs     how often the journal is checked for a due
+ *                            snapshot
+ * @param snapshotLagMs       age an event must reach before a snapshot covers
+ *                            it, so transactions still in flight when the
+ *                            snapshot is taken are not skipped
+ * @param verifyOnStartup     rebuild balances at startup and compare them with
+ *                            {@code wallets.balance}
+ * @param repairOnStartup     overwrite mismatched {@code wallets.balance}
+ *                            values with the rebuilt balances
+ */
+@ConfigurationProperties(prefix = "wallet.journal")
+public record WalletJournalProperties(
+        @DefaultValue("10000") long snapshotEveryEvents,
+        @DefaultValue("10000") long checkIntervalMs,
+        @DefaultValue("5000") long snapshotLagMs,
+        @DefaultValue("true") boolean verifyOnStartup,
+        @DefaultValue("false") boolean repairOnStartup) {
+}
@@ -1,9 +1,13 @@
 package com.task.walletmanagement.controller;
 
 import com.task.walletmanagement.dto.*;
+import com.task.walletmanagement.enums.TransactionStatus;
+import com.task.walletmanagement.service.AsyncFundingService;
 import com.task.walletmanagement.service.BankAccountService;
+import com.task.walletmanagement.service.BatchFundingService;
 import com.task.walletmanagement.service.PaymentService;
 import com.task.walletmanagement.service.TransactionService;
+import com.task.walletmanagement.service.TransferService;
 import com.task.walletmanagement.service.WalletService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,12 +15,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -27,6 +38,9 @@ import java.util.List;
 @Tag(name = "Wallet Management", description = "APIs for managing wallets, bank accounts, and transactions")
 public class WalletController {
 
+        // Length of the transactions.idempotency_key column
+        static final int IDEMPOTENCY_KEY_MAX_LENGTH = 100;
+
         @Autowired
         private WalletService walletService;
         @Autowired
@@ -35,6 +49,12 @@ public class WalletController {
         private PaymentService paymentService;
         @Autowired
         private TransactionService transactionService;
+        @Autowired
+        private AsyncFundingService asyncFundingService;
+        @Autowired
+        private BatchFundingService batchFundingService;
+        @Autowired
+        private TransferService transferService;
 
         /**
          * Create a new wallet.
@@ -102,33 +122,141 @@ public class WalletController {
 
         /**
          * Fund a wallet from a linked bank account via payment gateway.
+         * In async mode the request is accepted with 202 and the returned PENDING
+         * transaction can be polled until it reaches SUCCESS or FAILED. A request
+         * repeating an earlier Idempotency-Key returns that request's transaction.
          */
         @PostMapping("/{walletId}/fund")
         @Operation(summary = "Fund wallet", description = "Fund a wallet from a linked bank account via payment gateway (Flutterwave or Paystack)")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Wallet funded successfully"),
-                        @ApiResponse(responseCode = "400", description = "Invalid input or payment failed"),
-                        @ApiResponse(responseCode = "404", description = "Wallet or bank account not found")
+                        @ApiResponse(responseCode = "202", description = "Funding accepted for asynchronous processing"),
+                        @ApiResponse(responseCode = "400", description = "Invalid input, Idempotency-Key longer than 100 characters or payment failed"),
+                        @ApiResponse(responseCode = "404", description = "Wallet or bank account not found"),
+                        @ApiResponse(responseCode = "409", description = "Idempotency-Key reused for a different request or still in progress"),
+                        @ApiResponse(responseCode = "503", description = "Payment gateway unavailable or asynchronous funding capacity exceeded")
         })
         public ResponseEntity<TransactionResponse> fundWallet(
                         @Parameter(description = "Wallet ID", required = true) @PathVariable Long walletId,
+                        @Parameter(description = "Processing mode: sync (default) or async") @RequestParam(defaultValue = "sync") String mode,
+                        @Parameter(description = "Client-generated key making retries of this request safe") @RequestHeader(value = "Idempotency-Key", required = false) @Size(max = IDEMPOTENCY_KEY_MAX_LENGTH, message = "Idempotency-Key must be at most " + IDEMPOTENCY_KEY_MAX_LENGTH + " characters") String idempotencyKey,
                         @Valid @RequestBody FundWalletRequest request) {
-                TransactionResponse response = paymentService.fundWallet(walletId, request);
+                TransactionResponse response = "async".equalsIgnoreCase(mode)
+                                ? asyncFundingService.fundWalletAsync(walletId, request, idempotencyKey)
+                                : paymentService.fundWallet(walletId, request, idempotencyKey);
+
+                if (response.getStatus() == TransactionStatus.PENDING) {
+                        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                                        .path("/api/wallets/{walletId}/transactions/{transactionId}")
+                                        .buildAndExpand(walletId, response.getId())
+                                        .toUri();
+                        return ResponseEntity.accepted().location(location).body(response);
+                }
+
                 return ResponseEntity.ok(response);
         }
 
         /**
-         * Get all transactions for a wallet.
+         * Fund many wallets in one call. Items succeed or fail individually; the
+         * response carries one result per item in request order.
+         */
+        @PostMapping("/fund/batch")
+        @Operation(summary = "Fund wallets in batch", description = "Fund many wallets in one call, with gateway calls made concurrently and credits applied in JDBC batches")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Batch processed; see the per-item results"),
+                        @ApiResponse(responseCode = "400", description = "Invalid input or batch could not be applied")
+        })
+        public ResponseEntity<BatchFundingResponse> fundWalletsBatch(
+                        @Valid @RequestBody BatchFundWalletRequest request) {
+                BatchFundingResponse response = batchFundingService.fundWallets(request.getItems());
+                return ResponseEntity.ok(response);
+        }
+
+        /**
+         * Transfer funds from this wallet to another wallet.
+         */
+        @PostMapping("/{walletId}/transfers")
+        @Operation(summary = "Transfer funds", description = "Debit this wallet and credit another atomically, recording a DEBIT and a CREDIT transaction")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "201", description = "Transfer completed"),
+                        @ApiResponse(responseCode = "400", description = "Invalid input or transfer to the same wallet"),
+                        @ApiResponse(responseCode = "404", description = "Source or destination wallet not found"),
+                        @ApiResponse(responseCode = "422", description = "Insufficient funds in the source wallet")
+        })
+        public ResponseEntity<TransferResponse> transfer(
+                        @Parameter(description = "Source wallet ID", required = true) @PathVariable Long walletId,
+                        @Valid @RequestBody TransferRequest request) {
+                TransferResponse response = transferService.transfer(walletId, request);
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+
+        /**
+         * Get a page of transactions for a wallet.
          */
         @GetMapping("/{walletId}/transactions")
-        @Operation(summary = "Get transactions", description = "Get all transactions for a wallet, ordered by date (newest first)")
+        @Operation(summary = "Get transactions", description = "Get a page of transactions for a wallet, ordered by date (newest first). Pass the returned nextCursor to fetch the following page.")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Transactions retrieved"),
+                        @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+                        @ApiResponse(responseCode = "404", description = "Wallet not found")
+        })
+        public ResponseEntity<TransactionPageResponse> getTransactions(
+                        @Parameter(description = "Wallet ID", required = true) @PathVariable Long walletId,
+                        @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+                        @Parameter(description = "Page size (max " + TransactionService.MAX_PAGE_SIZE + ")") @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int limit) {
+                TransactionPageResponse response = transactionService.getTransactionsByWalletId(walletId, cursor, limit);
+                return ResponseEntity.ok(response);
+        }
+
+        /**
+         * Export the full transaction history of a wallet as NDJSON.
+         */
+        @GetMapping(value = "/{walletId}/transactions/export", produces = "application/x-ndjson")
+        @Operation(summary = "Export transactions", description = "Stream the full transaction history of a wallet as newline-delimited JSON, newest first")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Transactions streamed"),
                         @ApiResponse(responseCode = "404", description = "Wallet not found")
         })
-        public ResponseEntity<List<TransactionResponse>> getTransactions(
+        public ResponseEntity<StreamingResponseBody> exportTransactions(
                         @Parameter(description = "Wallet ID", required = true) @PathVariable Long walletId) {
-                List<TransactionResponse> response = transactionService.getTransactionsByWalletId(walletId);
+                // Validate wallet exists before the response is committed
+                walletService.ensureWalletExists(walletId);
+
+                StreamingResponseBody body = outputStream -> transactionService.exportTransactions(walletId, outputStream);
+                return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+        }
+
+        /**
+         * Get a wallet's transaction totals per day, gateway, type and status.
+         */
+        @GetMapping("/{walletId}/transactions/summary")
+        @Operation(summary = "Get transaction summary", description = "Get the count and total amount of a wallet's transactions per day, payment gateway, type and status, plus totals over the range. Served from incrementally maintained summaries, so the cost does not grow with the transaction history.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Summary retrieved"),
+                        @ApiResponse(responseCode = "400", description = "Invalid date"),
+                        @ApiResponse(responseCode = "404", description = "Wallet not found")
+        })
+        public ResponseEntity<TransactionSummaryResponse> getTransactionSummary(
+                        @Parameter(description = "Wallet ID", required = true) @PathVariable Long walletId,
+                        @Parameter(description = "First day to include (ISO date), unbounded if omitted") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                        @Parameter(description = "Last day to include (ISO date), unbounded if omitted") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+                TransactionSummaryResponse response = transactionService.getTransactionSummary(walletId, from, to);
+                return ResponseEntity.ok(response);
+        }
+
+        /**
+         * Get a single transaction of a wallet, e.g. to poll an asynchronous funding.
+         */
+        @GetMapping("/{walletId}/transactions/{transactionId}")
+        @Operation(summary = "Get transaction", description = "Get a single transaction of a wallet, e.g. to poll the status of an asynchronous funding")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Transaction found"),
+                        @ApiResponse(responseCode = "404", description = "Transaction not found")
+        })
+        public ResponseEntity<TransactionResponse> getTransaction(
+                        @Parameter(description = "Wallet ID", required = true) @PathVariable Long walletId,
+                        @Parameter(description = "Transaction ID", required = true) @PathVariable Long transactionId) {
+                TransactionResponse response = transactionService.getTransaction(walletId, transactionId);
                 return ResponseEntity.ok(response);
         }
 }
@@ -0,0 +1,125 @@
+package com.task.walletmanagement.diagnostics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread.
+ *
+ * On Java 21 a virtual thread that blocks inside a {@code synchronized} block
+ * or a native frame cannot unmount, which is typical in JDBC driver code (H2
+ * synchronizes on its session). Pinned sections longer than the threshold are
+ * captured from the JFR {@code jdk.VirtualThreadPinned} event, logged with
+ * their stack and counted per call site.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "wallet.virtual-threads.pinning-monitor.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_LOGGED_FRAMES = 12;
+
+    private final Duration threshold;
+    private final Map<String, LongAdder> pinnedSites = new ConcurrentHashMap<>();
+    private volatile RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(
+            @Value("${wallet.virtual-threads.pinning-monitor.threshold-ms:20}") long thresholdMillis) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        recordingStream = stream;
+        logger.info("Virtual thread pinning monitor started (threshold {} ms)", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream stream = recordingStream;
+        if (stream != null) {
+            stream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    /**
+     * Number of pinned sections observed per call site, keyed by the innermost
+     * non-JDK frame (application or driver code).
+     */
+    public Map<String, Long> getPinnedSites() {
+        return pinnedSites.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().sum()));
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = frames(event.getStackTrace());
+        String site = frames.stream()
+                .filter(frame -> !isJdkFrame(frame))
+                .findFirst()
+                .or(() -> frames.stream().findFirst())
+                .map(this::describe)
+                .orElse("unknown");
+        pinnedSites.computeIfAbsent(site, key -> new LongAdder()).increment();
+
+        logger.warn("Virtual thread pinned for {} ms at {}\n\t{}",
+                event.getDuration().toMillis(),
+                site,
+                frames.stream()
+                        .limit(MAX_LOGGED_FRAMES)
+                        .map(this::describe)
+                        .collect(Collectors.joining("\n\t")));
+    }
+
+    /**
+     * Java frames of the pinned stack, skipping the JDK's own parking frames.
+     */
+    private List<RecordedFrame> frames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return List.of();
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .dropWhile(frame -> frame.getMethod().getType().getName().startsWith("java.lang.VirtualThread")
+                        || frame.getMethod().getType().getName().startsWith("jdk.internal."))
+                .collect(Collectors.toList());
+    }
+
+    private boolean isJdkFrame(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
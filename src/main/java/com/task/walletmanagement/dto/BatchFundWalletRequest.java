@@ -0,0 +1,26 @@
+package com.task.walletmanagement.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for funding many wallets in one call.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request to fund many wallets in one call")
+public class BatchFundWalletRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 1000, message = "At most 1000 items are allowed per batch")
+    @Schema(description = "Fundings to process; may target any number of wallets")
+    private List<@Valid BatchFundingItem> items;
+}
@@ -0,0 +1,30 @@
+package com.task.walletmanagement.dto;
+
+import com.task.walletmanagement.enums.PaymentGateway;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One credit in a batch funding request: a funding request plus the wallet
+ * it is for.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Schema(description = "Funding of one wallet within a batch")
+public class BatchFundingItem extends FundWalletRequest {
+
+    @NotNull(message = "Wallet ID is required")
+    @Schema(description = "Wallet to fund", example = "1")
+    private Long walletId;
+
+    public BatchFundingItem(Long walletId, String accountNumber, BigDecimal amount, PaymentGateway paymentGateway) {
+        super(accountNumber, amount, paymentGateway);
+        this.walletId = walletId;
+    }
+}
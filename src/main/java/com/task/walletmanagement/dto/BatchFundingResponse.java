@@ -0,0 +1,27 @@
+package com.task.walletmanagement.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for a batch funding request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Per-item outcome of a batch funding request")
+public class BatchFundingResponse {
+
+    @Schema(description = "Number of items credited", example = "998")
+    private int succeeded;
+
+    @Schema(description = "Number of items that failed", example = "2")
+    private int failed;
+
+    @Schema(description = "One result per request item, in request order")
+    private List<BatchFundingResult> results;
+}
@@ -0,0 +1,32 @@
+package com.task.walletmanagement.dto;
+
+import com.task.walletmanagement.enums.TransactionStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a batch funding request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of one batch item")
+public class BatchFundingResult {
+
+    @Schema(description = "Position of the item in the request", example = "0")
+    private int index;
+
+    @Schema(description = "Wallet the item was for", example = "1")
+    private Long walletId;
+
+    @Schema(description = "SUCCESS or FAILED", example = "SUCCESS")
+    private TransactionStatus status;
+
+    @Schema(description = "Recorded transaction; null if the item was rejected before one was recorded")
+    private TransactionResponse transaction;
+
+    @Schema(description = "Reason the item failed; null on success", example = "Wallet not found with ID: 1")
+    private String error;
+}
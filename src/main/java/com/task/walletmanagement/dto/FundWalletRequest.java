@@ -1,7 +1,10 @@
 package com.task.walletmanagement.dto;
 
 import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.util.Money;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -26,10 +29,19 @@ public class FundWalletRequest {
 
     @NotNull(message = "Amount is required")
     @Positive(message = "Amount must be greater than zero")
+    @DecimalMax(value = Money.MAX_AMOUNT, message = "Amount must not exceed " + Money.MAX_AMOUNT)
+    @Digits(integer = 17, fraction = 2, message = "Amount must have at most 2 decimal places")
     @Schema(description = "Amount to fund", example = "1000.00")
     private BigDecimal amount;
 
     @NotNull(message = "Payment gateway is required")
-    @Schema(description = "Payment gateway to use (FLUTTERWAVE or PAYSTACK)", example = "FLUTTERWAVE")
+    @Schema(description = "Payment gateway to use (FLUTTERWAVE or PAYSTACK), or AUTO to let the service pick the healthiest one", example = "FLUTTERWAVE")
     private PaymentGateway paymentGateway;
+
+    @Schema(description = "Whether the payment may be retried on another gateway when this one is unavailable", example = "false")
+    private boolean allowFailover;
+
+    public FundWalletRequest(String accountNumber, BigDecimal amount, PaymentGateway paymentGateway) {
+        this(accountNumber, amount, paymentGateway, false);
+    }
 }
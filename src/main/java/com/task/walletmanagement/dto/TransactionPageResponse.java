@@ -0,0 +1,27 @@
+package com.task.walletmanagement.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for one page of a wallet's transaction history.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A page of transactions, newest first")
+public class TransactionPageResponse {
+
+    @Schema(description = "Transactions on this page")
+    private List<TransactionResponse> transactions;
+
+    @Schema(description = "Cursor to pass as 'cursor' to fetch the next page; null on the last page", example = "MjAyNi0xMC0xN1QwMzoxODozNi45NjQ0NjV8NDI")
+    private String nextCursor;
+
+    @Schema(description = "Whether more transactions follow this page", example = "true")
+    private boolean hasMore;
+}
@@ -3,12 +3,12 @@ package com.task.walletmanagement.dto;
 import com.task.walletmanagement.enums.PaymentGateway;
 import com.task.walletmanagement.enums.TransactionStatus;
 import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.util.Money;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -23,8 +23,8 @@ public class TransactionResponse {
     @Schema(description = "Transaction ID", example = "1")
     private Long id;
 
-    @Schema(description = "Transaction amount", example = "1000.00")
-    private BigDecimal amount;
+    @Schema(description = "Transaction amount", type = "number", example = "1000.00")
+    private Money amount;
 
     @Schema(description = "Transaction type (CREDIT/DEBIT)", example = "CREDIT")
     private TransactionType type;
@@ -35,7 +35,7 @@ public class TransactionResponse {
     @Schema(description = "Payment gateway used", example = "FLUTTERWAVE")
     private PaymentGateway paymentGateway;
 
-    @Schema(description = "Transaction status (SUCCESS/FAILED)", example = "SUCCESS")
+    @Schema(description = "Transaction status (PENDING/SUCCESS/FAILED)", example = "SUCCESS")
     private TransactionStatus status;
 
     @Schema(description = "Transaction timestamp")
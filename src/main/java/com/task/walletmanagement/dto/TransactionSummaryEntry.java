@@ -0,0 +1,41 @@
+package com.task.walletmanagement.dto;
+
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.enums.TransactionStatus;
+import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.util.Money;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Count and total amount of a wallet's transactions sharing a gateway, type
+ * and status, on one day or over the whole requested range.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Transaction totals for one gateway, type and status")
+public class TransactionSummaryEntry {
+
+    @Schema(description = "Day the transactions were created; null for totals over the range", example = "2026-01-15")
+    private LocalDate date;
+
+    @Schema(description = "Payment gateway; null for transactions without one", example = "PAYSTACK")
+    private PaymentGateway paymentGateway;
+
+    @Schema(description = "Transaction type (CREDIT/DEBIT)", example = "CREDIT")
+    private TransactionType type;
+
+    @Schema(description = "Transaction status (PENDING/SUCCESS/FAILED)", example = "SUCCESS")
+    private TransactionStatus status;
+
+    @Schema(description = "Number of transactions", example = "12")
+    private long count;
+
+    @Schema(description = "Sum of the transaction amounts", type = "number", example = "12500.00")
+    private Money totalAmount;
+}
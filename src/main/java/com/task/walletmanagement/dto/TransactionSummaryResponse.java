@@ -0,0 +1,34 @@
+package com.task.walletmanagement.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Response DTO for a wallet's transaction summary.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Transaction totals of a wallet per day, gateway, type and status")
+public class TransactionSummaryResponse {
+
+    @Schema(description = "Wallet ID", example = "1")
+    private Long walletId;
+
+    @Schema(description = "First day included; null when unbounded", example = "2026-01-01")
+    private LocalDate from;
+
+    @Schema(description = "Last day included; null when unbounded", example = "2026-01-31")
+    private LocalDate to;
+
+    @Schema(description = "Totals over the whole range per gateway, type and status")
+    private List<TransactionSummaryEntry> totals;
+
+    @Schema(description = "Totals per day (newest first), gateway, type and status")
+    private List<TransactionSummaryEntry> days;
+}
@@ -0,0 +1,34 @@
+package com.task.walletmanagement.dto;
+
+import com.task.walletmanagement.util.Money;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Request DTO for a wallet-to-wallet transfer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request to move funds from this wallet to another wallet")
+public class TransferRequest {
+
+    @NotNull(message = "Destination wallet ID is required")
+    @Schema(description = "Wallet to credit", example = "2")
+    private Long toWalletId;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be greater than zero")
+    @DecimalMax(value = Money.MAX_AMOUNT, message = "Amount must not exceed " + Money.MAX_AMOUNT)
+    @Digits(integer = 17, fraction = 2, message = "Amount must have at most 2 decimal places")
+    @Schema(description = "Amount to transfer", example = "250.00")
+    private BigDecimal amount;
+}
@@ -0,0 +1,22 @@
+package com.task.walletmanagement.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for a wallet-to-wallet transfer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "The paired transactions recorded for a transfer")
+public class TransferResponse {
+
+    @Schema(description = "DEBIT transaction on the source wallet")
+    private TransactionResponse debit;
+
+    @Schema(description = "CREDIT transaction on the destination wallet")
+    private TransactionResponse credit;
+}
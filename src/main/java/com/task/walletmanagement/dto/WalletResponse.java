@@ -1,11 +1,11 @@
 package com.task.walletmanagement.dto;
 
+import com.task.walletmanagement.util.Money;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -26,8 +26,8 @@ public class WalletResponse {
     @Schema(description = "Phone number", example = "+1234567890")
     private String phoneNumber;
 
-    @Schema(description = "Current wallet balance", example = "1000.00")
-    private BigDecimal balance;
+    @Schema(description = "Current wallet balance", type = "number", example = "1000.00")
+    private Money balance;
 
     @Schema(description = "Wallet creation timestamp")
     private LocalDateTime createdAt;
@@ -1,11 +1,11 @@
 package com.task.walletmanagement.entity;
 
 import jakarta.persistence.*;
+import com.task.walletmanagement.util.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,7 +21,8 @@ import java.util.List;
 public class Wallet {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wallets_seq")
+    @SequenceGenerator(name = "wallets_seq", sequenceName = "wallets_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -31,7 +32,11 @@ public class Wallet {
     private String phoneNumber;
 
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal balance = BigDecimal.ZERO;
+    private Money balance = Money.ZERO;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,9 @@
+package com.task.walletmanagement.enums;
+
+/**
+ * Enum representing the transaction changes published through the outbox.
+ */
+public enum OutboxEventType {
+    TRANSACTION_CREATED,
+    TRANSACTION_COMPLETED
+}
@@ -6,5 +6,11 @@ package com.task.walletmanagement.enums;
  */
 public enum PaymentGateway {
     FLUTTERWAVE,
-    PAYSTACK
+    PAYSTACK,
+
+    /**
+     * Not a provider: the service picks the gateway with the best recent
+     * latency and success rate, and fails over automatically.
+     */
+    AUTO
 }
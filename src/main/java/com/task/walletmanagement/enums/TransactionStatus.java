@@ -4,6 +4,7 @@ package com.task.walletmanagement.enums;
  * Enum representing transaction status.
  */
 public enum TransactionStatus {
+    PENDING,
     SUCCESS,
     FAILED
 }
@@ -0,0 +1,20 @@
+package com.task.walletmanagement.event;
+
+import com.task.walletmanagement.dto.TransactionResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Application event published when processing of an asynchronous wallet
+ * funding ends. The transaction is SUCCESS or FAILED, or still PENDING when
+ * the outcome is unknown (gateway timeout, failed credit) and the funding is
+ * left for reconciliation.
+ */
+@Getter
+@AllArgsConstructor
+public class FundingCompletedEvent {
+
+    private final Long walletId;
+
+    private final TransactionResponse transaction;
+}
@@ -0,0 +1,40 @@
+package com.task.walletmanagement.event;
+
+import com.task.walletmanagement.enums.OutboxEventType;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.enums.TransactionStatus;
+import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.util.Money;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A transaction change read from the outbox and handed to an
+ * {@link com.task.walletmanagement.service.outbox.OutboxSink}. Delivery is at
+ * least once; {@code id} increases with every event and can be used to drop
+ * duplicates.
+ */
+@Getter
+@AllArgsConstructor
+public class OutboxEvent {
+
+    private final long id;
+
+    private final OutboxEventType eventType;
+
+    private final Long walletId;
+
+    private final Long transactionId;
+
+    private final Money amount;
+
+    private final TransactionType type;
+
+    private final TransactionStatus status;
+
+    private final PaymentGateway paymentGateway;
+
+    private final LocalDateTime occurredAt;
+}
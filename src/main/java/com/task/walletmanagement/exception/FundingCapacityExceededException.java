@@ -0,0 +1,11 @@
+package com.task.walletmanagement.exception;
+
+/**
+ * Exception thrown when the asynchronous funding executor cannot accept more
+ * work.
+ */
+public class FundingCapacityExceededException extends RuntimeException {
+    public FundingCapacityExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,24 @@
+package com.task.walletmanagement.exception;
+
+import com.task.walletmanagement.enums.PaymentGateway;
+
+/**
+ * Exception thrown when a payment gateway call was started but did not
+ * answer in time. The call may still complete, so whether the payment was
+ * taken is unknown: the transaction must be reconciled, not failed or
+ * retried elsewhere.
+ */
+public class GatewayTimeoutException extends PaymentProcessingException {
+
+    private final PaymentGateway paymentGateway;
+
+    public GatewayTimeoutException(PaymentGateway paymentGateway, long timeoutMillis) {
+        super(String.format("Payment gateway %s did not answer within %d ms; the payment outcome is unknown",
+                paymentGateway, timeoutMillis));
+        this.paymentGateway = paymentGateway;
+    }
+
+    public PaymentGateway getPaymentGateway() {
+        return paymentGateway;
+    }
+}
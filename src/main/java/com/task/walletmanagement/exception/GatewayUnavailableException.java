@@ -0,0 +1,23 @@
+package com.task.walletmanagement.exception;
+
+import com.task.walletmanagement.enums.PaymentGateway;
+
+/**
+ * Exception thrown when a payment gateway call is rejected before it starts
+ * because the gateway is unhealthy: its circuit is open or its concurrency
+ * limit is reached. The payment was not attempted, so it is safe to fail the
+ * transaction or retry on another gateway.
+ */
+public class GatewayUnavailableException extends PaymentProcessingException {
+
+    private final PaymentGateway paymentGateway;
+
+    public GatewayUnavailableException(PaymentGateway paymentGateway, String reason) {
+        super(String.format("Payment gateway %s is unavailable: %s", paymentGateway, reason));
+        this.paymentGateway = paymentGateway;
+    }
+
+    public PaymentGateway getPaymentGateway() {
+        return paymentGateway;
+    }
+}
@@ -7,9 +7,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
+import org.springframework.validation.method.ParameterErrors;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -110,6 +113,132 @@ public class GlobalExceptionHandler {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         }
 
+        /**
+         * Handle payment gateway timeouts. The transaction stays PENDING.
+         */
+        @ExceptionHandler(GatewayTimeoutException.class)
+        public ResponseEntity<ErrorResponse> handleGatewayTimeout(
+                        GatewayTimeoutException ex, HttpServletRequest request) {
+                logger.error("Payment gateway timed out: {}", ex.getMessage());
+
+                ErrorResponse errorResponse = new ErrorResponse(
+                                LocalDateTime.now(),
+                                HttpStatus.GATEWAY_TIMEOUT.value(),
+                                HttpStatus.GATEWAY_TIMEOUT.getReasonPhrase(),
+                                ex.getMessage(),
+                                request.getRequestURI());
+
+                return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(errorResponse);
+        }
+
+        /**
+         * Handle unavailable payment gateway exceptions.
+         */
+        @ExceptionHandler(GatewayUnavailableException.class)
+        public ResponseEntity<ErrorResponse> handleGatewayUnavailable(
+                        GatewayUnavailableException ex, HttpServletRequest request) {
+                logger.error("Payment gateway unavailable: {}", ex.getMessage());
+
+                ErrorResponse errorResponse = new ErrorResponse(
+                                LocalDateTime.now(),
+                                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                                ex.getMessage(),
+                                request.getRequestURI());
+
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        }
+
+        /**
+         * Handle transaction not found exceptions.
+         */
+        @ExceptionHandler(TransactionNotFoundException.class)
+        public ResponseEntity<ErrorResponse> handleTransactionNotFound(
+                        TransactionNotFoundException ex, HttpServletRequest request) {
+                logger.error("Transaction not found: {}", ex.getMessage());
+
+                ErrorResponse errorResponse = new ErrorResponse(
+                                LocalDateTime.now(),
+                                HttpStatus.NOT_FOUND.value(),
+                                HttpStatus.NOT_FOUND.getReasonPhrase(),
+                                ex.getMessage(),
+                                request.getRequestURI());
+
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+
+        /**
+         * Handle invalid pagination cursor exceptions.
+         */
+        @ExceptionHandler(InvalidCursorException.class)
+        public ResponseEntity<ErrorResponse> handleInvalidCursor(
+                        InvalidCursorException ex, HttpServletRequest request) {
+                logger.error("Invalid cursor: {}", ex.getMessage());
+
+                ErrorResponse errorResponse = new ErrorResponse(
+                                LocalDateTime.now(),
+                                HttpStatus.BAD_REQUEST.value(),
+                                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                                ex.getMessage(),
+                                request.getRequestURI());
+
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+
+        /**
+         * Handle funding capacity exceptions.
+         */
+        @ExceptionHandler(FundingCapacityExceededException.class)
+        public ResponseEntity<ErrorResponse> handleFundingCapacityExceeded(
+                        FundingCapacityExceededException ex, HttpServletRequest request) {
+                logger.error("Funding capacity exceeded: {}", ex.getMessage());
+
+                ErrorResponse errorResponse = new ErrorResponse(
+                                LocalDateTime.now(),
+                                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                                ex.getMessage(),
+                                request.getRequestURI());
+
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        }
+
+        /**
+         * Handle idempotency key conflicts.
+         */
+        @ExceptionHandler(IdempotencyKeyConflictException.class)
+        public ResponseEntity<ErrorResponse> handleIdempotencyKeyConflict(
+                        IdempotencyKeyConflictException ex, HttpServletRequest request) {
+                logger.error("Idempotency key conflict: {}", ex.getMessage());
+
+                ErrorResponse errorResponse = new ErrorResponse(
+                                LocalDateTime.now(),
+                                HttpStatus.CONFLICT.value(),
+                                HttpStatus.CONFLICT.getReasonPhrase(),
+                                ex.getMessage(),
+                                request.getRequestURI());
+
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        }
+
+        /**
+         * Handle debits the wallet balance does not cover.
+         */
+        @ExceptionHandler(InsufficientFundsException.class)
+        public ResponseEntity<ErrorResponse> handleInsufficientFunds(
+                        InsufficientFundsException ex, HttpServletRequest request) {
+                logger.warn("Insufficient funds: {}", ex.getMessage());
+
+                ErrorResponse errorResponse = new ErrorResponse(
+                                LocalDateTime.now(),
+                                HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                                HttpStatus.UNPROCESSABLE_ENTITY.getReasonPhrase(),
+                                ex.getMessage(),
+                                request.getRequestURI());
+
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponse);
+        }
+
         /**
          * Handle validation errors from @Valid annotations.
          */
@@ -135,6 +264,57 @@ public class GlobalExceptionHandler {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         }
 
+        /**
+         * Handle constraint violations on controller method parameters, e.g.
+         * an over-long header. Once a parameter carries a constraint, errors
+         * in a @Valid body of the same method are reported here too.
+         */
+        @ExceptionHandler(HandlerMethodValidationException.class)
+        public ResponseEntity<ErrorResponse> handleMethodValidationErrors(
+                        HandlerMethodValidationException ex, HttpServletRequest request) {
+                Map<String, String> errors = new HashMap<>();
+                ex.getParameterValidationResults().forEach(result -> {
+                        if (result instanceof ParameterErrors parameterErrors) {
+                                parameterErrors.getFieldErrors().forEach(
+                                                error -> errors.put(error.getField(), error.getDefaultMessage()));
+                        } else {
+                                result.getResolvableErrors().forEach(error -> errors.put(
+                                                result.getMethodParameter().getParameterName(),
+                                                error.getDefaultMessage()));
+                        }
+                });
+
+                logger.error("Validation failed: {}", errors);
+
+                ErrorResponse errorResponse = new ErrorResponse(
+                                LocalDateTime.now(),
+                                HttpStatus.BAD_REQUEST.value(),
+                                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                                "Validation failed: " + errors.toString(),
+                                request.getRequestURI());
+
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+
+        /**
+         * Handle path and query parameters that cannot be converted, e.g. a
+         * malformed date.
+         */
+        @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+        public ResponseEntity<ErrorResponse> handleTypeMismatch(
+                        MethodArgumentTypeMismatchException ex, HttpServletRequest request) {
+                logger.error("Invalid parameter {}: {}", ex.getName(), ex.getValue());
+
+                ErrorResponse errorResponse = new ErrorResponse(
+                                LocalDateTime.now(),
+                                HttpStatus.BAD_REQUEST.value(),
+                                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                                "Invalid value for parameter '" + ex.getName() + "': " + ex.getValue(),
+                                request.getRequestURI());
+
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+
         /**
          * Handle all other uncaught exceptions.
          */
@@ -0,0 +1,11 @@
+package com.task.walletmanagement.exception;
+
+/**
+ * Exception thrown when an Idempotency-Key is reused for a different funding
+ * request, or while the original request is still being recorded.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+    public IdempotencyKeyConflictException(String idempotencyKey, String reason) {
+        super(String.format("Idempotency-Key %s %s", idempotencyKey, reason));
+    }
+}
@@ -0,0 +1,12 @@
+package com.task.walletmanagement.exception;
+
+import com.task.walletmanagement.util.Money;
+
+/**
+ * Exception thrown when a wallet's balance does not cover a debit.
+ */
+public class InsufficientFundsException extends RuntimeException {
+    public InsufficientFundsException(Long walletId, Money amount) {
+        super(String.format("Wallet %d has insufficient funds for %s", walletId, amount));
+    }
+}
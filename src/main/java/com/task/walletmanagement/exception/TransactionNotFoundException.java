@@ -0,0 +1,14 @@
+package com.task.walletmanagement.exception;
+
+/**
+ * Exception thrown when a transaction is not found.
+ */
+public class TransactionNotFoundException extends RuntimeException {
+    public TransactionNotFoundException(Long transactionId) {
+        super(String.format("Transaction not found with ID: %d", transactionId));
+    }
+
+    public TransactionNotFoundException(Long walletId, Long transactionId) {
+        super(String.format("Transaction not found with ID %d for wallet ID %d", transactionId, walletId));
+    }
+}
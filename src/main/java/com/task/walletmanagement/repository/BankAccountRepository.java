@@ -2,6 +2,8 @@ package com.task.walletmanagement.repository;
 
 import com.task.walletmanagement.entity.BankAccount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -27,4 +29,11 @@ public interface BankAccountRepository extends JpaRepository<BankAccount, Long>
      * Find a bank account by account number, bank, and wallet ID.
      */
     Optional<BankAccount> findByAccountNumberAndBankAndWalletId(String accountNumber, String bank, Long walletId);
+
+    /**
+     * Find the account numbers linked to a wallet. Served entirely from the
+     * (wallet_id, account_number) index.
+     */
+    @Query("SELECT b.accountNumber FROM BankAccount b WHERE b.wallet.id = :walletId")
+    List<String> findAccountNumbersByWalletId(@Param("walletId") Long walletId);
 }
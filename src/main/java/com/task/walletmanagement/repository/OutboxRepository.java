@@ -0,0 +1,100 @@
+package com.task.walletmanagement.repository;
+
+import com.task.walletmanagement.entity.Transaction;
+import com.task.walletmanagement.enums.OutboxEventType;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.enums.TransactionStatus;
+import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.event.OutboxEvent;
+import com.task.walletmanagement.util.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC access to the transactional outbox ({@code outbox_events}). Callers
+ * append inside the transaction that makes the change, so an event exists
+ * exactly when the change committed.
+ */
+@Repository
+public class OutboxRepository {
+
+    static final String APPEND_SQL = """
+            INSERT INTO outbox_events
+                (event_type, wallet_id, transaction_id, amount, type, status, payment_gateway, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    static final String FIND_BATCH_SQL = """
+            SELECT id, event_type, wallet_id, transaction_id, amount, type, status, payment_gateway, created_at
+            FROM outbox_events
+            ORDER BY id
+            LIMIT ?
+            """;
+    static final String DELETE_SQL = "DELETE FROM outbox_events WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Append an event carrying the transaction's current state.
+     */
+    public void append(OutboxEventType eventType, Transaction transaction) {
+        jdbcTemplate.update(APPEND_SQL, args(eventType, transaction, Timestamp.valueOf(LocalDateTime.now())));
+    }
+
+    /**
+     * Append one event per transaction in a single JDBC batch.
+     */
+    public void appendAll(OutboxEventType eventType, List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            args.add(args(eventType, transaction, now));
+        }
+        jdbcTemplate.batchUpdate(APPEND_SQL, args);
+    }
+
+    /**
+     * The oldest undelivered events, in the order they were appended.
+     */
+    public List<OutboxEvent> findBatch(int limit) {
+        return jdbcTemplate.query(FIND_BATCH_SQL, (rs, rowNum) -> {
+            String paymentGateway = rs.getString("payment_gateway");
+            return new OutboxEvent(
+                    rs.getLong("id"),
+                    OutboxEventType.valueOf(rs.getString("event_type")),
+                    rs.getLong("wallet_id"),
+                    rs.getLong("transaction_id"),
+                    Money.of(rs.getBigDecimal("amount")),
+                    TransactionType.valueOf(rs.getString("type")),
+                    TransactionStatus.valueOf(rs.getString("status")),
+                    paymentGateway == null ? null : PaymentGateway.valueOf(paymentGateway),
+                    rs.getTimestamp("created_at").toLocalDateTime());
+        }, limit);
+    }
+
+    /**
+     * Delete delivered events in one JDBC batch.
+     */
+    public void deleteAll(List<OutboxEvent> events) {
+        List<Object[]> args = new ArrayList<>(events.size());
+        events.forEach(event -> args.add(new Object[] { event.getId() }));
+        jdbcTemplate.batchUpdate(DELETE_SQL, args);
+    }
+
+    private static Object[] args(OutboxEventType eventType, Transaction transaction, Timestamp now) {
+        return new Object[] { eventType.name(), transaction.getWallet().getId(), transaction.getId(),
+                transaction.getAmount().toBigDecimal(), transaction.getType().name(), transaction.getStatus().name(),
+                transaction.getPaymentGateway() == null ? null : transaction.getPaymentGateway().name(), now };
+    }
+}
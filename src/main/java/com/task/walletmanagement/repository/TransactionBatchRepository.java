@@ -0,0 +1,44 @@
+package com.task.walletmanagement.repository;
+
+import com.task.walletmanagement.entity.Transaction;
+import com.task.walletmanagement.enums.TransactionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch updates of transactions for batch funding: one round trip per
+ * batch instead of one update per transaction.
+ */
+@Repository
+public class TransactionBatchRepository {
+
+    static final String UPDATE_STATUS_SQL =
+            "UPDATE transactions SET status = ?, payment_gateway = ?, description = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Set the status of the given transactions in one JDBC batch, together
+     * with their gateway and description, which change when an AUTO payment
+     * is routed.
+     */
+    public void updateStatus(List<Transaction> transactions, TransactionStatus status) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            args.add(new Object[] { status.name(),
+                    transaction.getPaymentGateway() == null ? null : transaction.getPaymentGateway().name(),
+                    transaction.getDescription(), transaction.getId() });
+        }
+        jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, args);
+    }
+}
@@ -0,0 +1,53 @@
+package com.task.walletmanagement.repository;
+
+import com.task.walletmanagement.dto.TransactionResponse;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.enums.TransactionStatus;
+import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.util.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.function.Consumer;
+
+/**
+ * JDBC cursor over a wallet's full transaction history for exports. Rows are
+ * handed to the consumer one at a time as they are fetched, so memory use
+ * does not grow with the size of the history.
+ */
+@Repository
+public class TransactionExportRepository {
+
+    private static final int FETCH_SIZE = 500;
+    private static final String EXPORT_SQL = """
+            SELECT id, amount, type, description, payment_gateway, status, created_at
+            FROM transactions
+            WHERE wallet_id = ?
+            ORDER BY created_at DESC, id DESC
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionExportRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    /**
+     * Stream all transactions of a wallet, newest first.
+     */
+    public void streamByWalletId(Long walletId, Consumer<TransactionResponse> consumer) {
+        jdbcTemplate.query(EXPORT_SQL, rs -> {
+            String paymentGateway = rs.getString("payment_gateway");
+            consumer.accept(new TransactionResponse(
+                    rs.getLong("id"),
+                    Money.of(rs.getBigDecimal("amount")),
+                    TransactionType.valueOf(rs.getString("type")),
+                    rs.getString("description"),
+                    paymentGateway == null ? null : PaymentGateway.valueOf(paymentGateway),
+                    TransactionStatus.valueOf(rs.getString("status")),
+                    rs.getTimestamp("created_at").toLocalDateTime()));
+        }, walletId);
+    }
+}
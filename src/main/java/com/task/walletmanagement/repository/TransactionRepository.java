@@ -1,10 +1,15 @@
 package com.task.walletmanagement.repository;
 
 import com.task.walletmanagement.entity.Transaction;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for Transaction entity operations.
@@ -13,8 +18,31 @@ import java.util.List;
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
     /**
-     * Find all transactions for a specific wallet, ordered by creation time (newest
-     * first).
+     * Find the first page of a wallet's transactions, newest first.
      */
-    List<Transaction> findByWalletIdOrderByCreatedAtDesc(Long walletId);
+    @Query("SELECT t FROM Transaction t WHERE t.wallet.id = :walletId ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findPageByWalletId(@Param("walletId") Long walletId, Limit limit);
+
+    /**
+     * Find the page of a wallet's transactions that follows the (createdAt, id)
+     * keyset cursor, newest first.
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.wallet.id = :walletId"
+            + " AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id))"
+            + " ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findPageByWalletIdAfter(@Param("walletId") Long walletId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit);
+
+    /**
+     * Find a transaction by ID, provided it belongs to the given wallet.
+     */
+    Optional<Transaction> findByIdAndWalletId(Long id, Long walletId);
+
+    /**
+     * Find the transaction created by a funding request with the given
+     * Idempotency-Key.
+     */
+    Optional<Transaction> findByWalletIdAndIdempotencyKey(Long walletId, String idempotencyKey);
 }
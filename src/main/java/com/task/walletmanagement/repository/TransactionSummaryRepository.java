@@ -0,0 +1,174 @@
+package com.task.walletmanagement.repository;
+
+import com.task.walletmanagement.dto.TransactionSummaryEntry;
+import com.task.walletmanagement.entity.Transaction;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.enums.TransactionStatus;
+import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.util.Money;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Running totals in {@code transaction_summaries}, one row per wallet, day,
+ * gateway, type, status and shard. Every transaction insert or status change
+ * applies a {@link Delta} in the same database transaction, so reading a
+ * wallet's summary never touches the transactions table. Deltas go to shard 0
+ * unless the caller spreads a wallet's deltas over several shards; reads sum
+ * a bucket's shards.
+ */
+@Repository
+public class TransactionSummaryRepository {
+
+    // Stored for transactions without a gateway; the column is part of the key
+    static final String NO_GATEWAY = "NONE";
+    static final String UPDATE_SQL = """
+            UPDATE transaction_summaries
+            SET transaction_count = transaction_count + ?, total_amount = total_amount + ?
+            WHERE wallet_id = ? AND summary_date = ? AND payment_gateway = ? AND type = ? AND status = ?
+                AND shard = ?
+            """;
+    static final String INSERT_SQL = """
+            INSERT INTO transaction_summaries
+                (transaction_count, total_amount, wallet_id, summary_date, payment_gateway, type, status, shard)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    static final String FIND_SQL = """
+            SELECT summary_date, payment_gateway, type, status,
+                SUM(transaction_count) AS transaction_count, SUM(total_amount) AS total_amount
+            FROM transaction_summaries
+            WHERE wallet_id = ? AND summary_date >= ? AND summary_date <= ?
+            GROUP BY summary_date, payment_gateway, type, status
+            HAVING SUM(transaction_count) <> 0
+            ORDER BY summary_date DESC, payment_gateway, type, status
+            """;
+    private static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    /**
+     * Change to one summary row: transactions added to ({@code count > 0}) or
+     * removed from ({@code count < 0}) its bucket.
+     */
+    public record Delta(Long walletId, LocalDate day, PaymentGateway paymentGateway, TransactionType type,
+            TransactionStatus status, long count, long amountMinorUnits) {
+
+        /**
+         * The transaction counted in the bucket of its current gateway and
+         * status.
+         */
+        public static Delta added(Transaction transaction) {
+            return of(transaction, 1);
+        }
+
+        /**
+         * The transaction taken out of the bucket of its current gateway and
+         * status; apply before changing either.
+         */
+        public static Delta removed(Transaction transaction) {
+            return of(transaction, -1);
+        }
+
+        private static Delta of(Transaction transaction, int sign) {
+            return new Delta(transaction.getWallet().getId(), transaction.getCreatedAt().toLocalDate(),
+                    transaction.getPaymentGateway(), transaction.getType(), transaction.getStatus(),
+                    sign, sign * transaction.getAmount().getMinorUnits());
+        }
+    }
+
+    private record Key(Long walletId, LocalDate day, String paymentGateway, String type, String status,
+            int shard) {
+        static final Comparator<Key> ORDER = Comparator.comparing(Key::walletId)
+                .thenComparing(Key::day)
+                .thenComparing(Key::paymentGateway)
+                .thenComparing(Key::type)
+                .thenComparing(Key::status)
+                .thenComparingInt(Key::shard);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionSummaryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Apply the deltas to shard 0 of their rows.
+     */
+    public void apply(Collection<Delta> deltas) {
+        apply(deltas, walletId -> 0);
+    }
+
+    /**
+     * Apply the deltas, merged per row, in one batch of updates; rows that do
+     * not exist yet are inserted. Each wallet's deltas go to the shard
+     * {@code shardOf} returns for it, asked once per call. Rows are touched in
+     * key order so concurrent callers lock them in the same order.
+     */
+    public void apply(Collection<Delta> deltas, ToIntFunction<Long> shardOf) {
+        Map<Long, Integer> shards = new HashMap<>();
+        Map<Key, long[]> merged = new TreeMap<>(Key.ORDER);
+        for (Delta delta : deltas) {
+            Key key = new Key(delta.walletId(), delta.day(),
+                    delta.paymentGateway() == null ? NO_GATEWAY : delta.paymentGateway().name(),
+                    delta.type().name(), delta.status().name(),
+                    shards.computeIfAbsent(delta.walletId(), shardOf::applyAsInt));
+            long[] totals = merged.computeIfAbsent(key, k -> new long[2]);
+            totals[0] += delta.count();
+            totals[1] += delta.amountMinorUnits();
+        }
+        merged.values().removeIf(totals -> totals[0] == 0 && totals[1] == 0);
+        if (merged.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(merged.size());
+        merged.forEach((key, totals) -> args.add(args(key, totals)));
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, args);
+
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, args.get(i));
+                } catch (DuplicateKeyException e) {
+                    // Inserted concurrently since the update; add to that row instead
+                    jdbcTemplate.update(UPDATE_SQL, args.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Summary rows of a wallet between two days (inclusive, null for
+     * unbounded), newest day first, with each bucket's shards added up. Empty
+     * buckets are left out.
+     */
+    public List<TransactionSummaryEntry> findByWalletId(Long walletId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> {
+            String paymentGateway = rs.getString("payment_gateway");
+            return new TransactionSummaryEntry(
+                    rs.getDate("summary_date").toLocalDate(),
+                    NO_GATEWAY.equals(paymentGateway) ? null : PaymentGateway.valueOf(paymentGateway),
+                    TransactionType.valueOf(rs.getString("type")),
+                    TransactionStatus.valueOf(rs.getString("status")),
+                    rs.getLong("transaction_count"),
+                    Money.of(rs.getBigDecimal("total_amount")));
+        }, walletId, Date.valueOf(from == null ? MIN_DATE : from), Date.valueOf(to == null ? MAX_DATE : to));
+    }
+
+    private static Object[] args(Key key, long[] totals) {
+        return new Object[] { totals[0], Money.ofMinor(totals[1]).toBigDecimal(), key.walletId(),
+                Date.valueOf(key.day()), key.paymentGateway(), key.type(), key.status(), key.shard() };
+    }
+}
@@ -0,0 +1,97 @@
+package com.task.walletmanagement.repository;
+
+import com.task.walletmanagement.util.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * JDBC access to wallet balances: atomic increments, bulk credits and
+ * versioned updates. None of these load the wallet entity.
+ */
+@Repository
+public class WalletBalanceRepository {
+
+    static final String ADD_TO_BALANCE_SQL = "UPDATE wallets SET balance = balance + ?, version = version + 1, updated_at = ? WHERE id = ?";
+    static final String ADD_TO_BALANCE_IF_VERSION_SQL = "UPDATE wallets SET balance = balance + ?, version = version + 1, updated_at = ? WHERE id = ? AND version = ?";
+    static final String INCREMENT_BALANCE_SQL = "SELECT balance FROM FINAL TABLE ("
+            + "UPDATE wallets SET balance = balance + ?, version = version + 1, updated_at = ? WHERE id = ?)";
+    static final String DECREMENT_BALANCE_SQL = "SELECT balance FROM FINAL TABLE ("
+            + "UPDATE wallets SET balance = balance - ?, version = version + 1, updated_at = ? WHERE id = ? AND balance >= ?)";
+    static final String FIND_BALANCE_SQL = "SELECT balance, version FROM wallets WHERE id = ?";
+
+    private static final RowMapper<Money> BALANCE_MAPPER = (rs, rowNum) -> Money.of(rs.getBigDecimal("balance"));
+    private static final RowMapper<VersionedBalance> VERSIONED_BALANCE_MAPPER = (rs, rowNum) -> new VersionedBalance(
+            Money.of(rs.getBigDecimal("balance")), rs.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WalletBalanceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * A wallet's balance together with the row version it was read at.
+     */
+    public record VersionedBalance(Money balance, long version) {
+    }
+
+    /**
+     * Add the amount to the wallet's balance in one statement and return the
+     * new balance, or empty if the wallet does not exist. The update locks the
+     * row until the transaction ends.
+     */
+    public Optional<Money> addToBalance(Long walletId, Money amount) {
+        return jdbcTemplate.query(INCREMENT_BALANCE_SQL, BALANCE_MAPPER, amount.toBigDecimal(),
+                Timestamp.valueOf(LocalDateTime.now()), walletId).stream().findFirst();
+    }
+
+    /**
+     * Subtract the amount from the wallet's balance in one statement if the
+     * balance covers it, and return the new balance. Returns empty, changing
+     * nothing, if it does not or the wallet does not exist.
+     */
+    public Optional<Money> subtractFromBalance(Long walletId, Money amount) {
+        BigDecimal value = amount.toBigDecimal();
+        return jdbcTemplate.query(DECREMENT_BALANCE_SQL, BALANCE_MAPPER, value,
+                Timestamp.valueOf(LocalDateTime.now()), walletId, value).stream().findFirst();
+    }
+
+    /**
+     * Add each amount to its wallet's balance in one JDBC batch. Rows are
+     * updated in wallet ID order, so concurrent batches lock them in the same
+     * order and cannot deadlock. Returns the number of rows updated per wallet.
+     */
+    public int[] addToBalances(Map<Long, Money> amounts) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(amounts.size());
+        new TreeMap<>(amounts).forEach((walletId, amount) -> args.add(new Object[] { amount.toBigDecimal(), now, walletId }));
+        return jdbcTemplate.batchUpdate(ADD_TO_BALANCE_SQL, args);
+    }
+
+    /**
+     * Read the wallet's balance and version without locking the row.
+     */
+    public Optional<VersionedBalance> findBalance(Long walletId) {
+        return jdbcTemplate.query(FIND_BALANCE_SQL, VERSIONED_BALANCE_MAPPER, walletId).stream().findFirst();
+    }
+
+    /**
+     * Add the delta to the wallet's balance if the row is still at the
+     * expected version. Returns false, changing nothing, if another writer
+     * updated it first.
+     */
+    public boolean addToBalanceIfVersion(Long walletId, Money delta, long expectedVersion) {
+        return jdbcTemplate.update(ADD_TO_BALANCE_IF_VERSION_SQL, delta.toBigDecimal(),
+                Timestamp.valueOf(LocalDateTime.now()), walletId, expectedVersion) == 1;
+    }
+}
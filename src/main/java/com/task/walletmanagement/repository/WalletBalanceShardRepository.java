@@ -0,0 +1,109 @@
+package com.task.walletmanagement.repository;
+
+import com.task.walletmanagement.util.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access to the balance shard rows of hot wallets
+ * ({@code wallet_balance_shards}). A sharded wallet's balance is
+ * {@code wallets.balance} plus the sum of its shards.
+ */
+@Repository
+public class WalletBalanceShardRepository {
+
+    static final String ADD_TO_SHARD_SQL =
+            "UPDATE wallet_balance_shards SET balance = balance + ? WHERE wallet_id = ? AND shard = ?";
+    static final String LOCK_WALLET_SQL = "SELECT id FROM wallets WHERE id = ? FOR UPDATE";
+    static final String LOCK_SHARDS_SQL =
+            "SELECT balance FROM wallet_balance_shards WHERE wallet_id = ? ORDER BY shard FOR UPDATE";
+    static final String CLEAR_SHARDS_SQL = "UPDATE wallet_balance_shards SET balance = 0 WHERE wallet_id = ?";
+    static final String TOTAL_BALANCE_SQL = """
+            SELECT w.balance + COALESCE(SUM(s.balance), 0)
+            FROM wallets w LEFT JOIN wallet_balance_shards s ON s.wallet_id = w.id
+            WHERE w.id = ?
+            GROUP BY w.id, w.balance
+            """;
+    static final String SHARDED_WALLETS_SQL = "SELECT DISTINCT wallet_id FROM wallet_balance_shards ORDER BY wallet_id";
+    static final String CREATE_SHARD_SQL =
+            "INSERT INTO wallet_balance_shards (wallet_id, shard, balance) SELECT id, ?, 0 FROM wallets WHERE id = ?";
+    static final String DELETE_SHARDS_SQL = "DELETE FROM wallet_balance_shards WHERE wallet_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WalletBalanceShardRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add the amount to one shard of the wallet. Locks only that shard row.
+     * Returns false if the shard does not exist.
+     */
+    public boolean addToShard(Long walletId, int shard, Money amount) {
+        return jdbcTemplate.update(ADD_TO_SHARD_SQL, amount.toBigDecimal(), walletId, shard) == 1;
+    }
+
+    /**
+     * Lock the wallet row and then all of its shard rows, in that order, and
+     * return the sum of the shard balances. Everything that locks both takes
+     * them in this order, so compaction cannot deadlock with a transfer or a
+     * group commit (see {@code BalanceShards} for the full lock order).
+     */
+    public Money lockShards(Long walletId) {
+        jdbcTemplate.queryForList(LOCK_WALLET_SQL, Long.class, walletId);
+        long sum = 0;
+        for (BigDecimal balance : jdbcTemplate.queryForList(LOCK_SHARDS_SQL, BigDecimal.class, walletId)) {
+            sum = Math.addExact(sum, Money.of(balance).getMinorUnits());
+        }
+        return Money.ofMinor(sum);
+    }
+
+    /**
+     * Set every shard of the wallet to zero.
+     */
+    public void clearShards(Long walletId) {
+        jdbcTemplate.update(CLEAR_SHARDS_SQL, walletId);
+    }
+
+    /**
+     * The wallet's balance plus the sum of its shards, read in one statement
+     * so a concurrent compaction is seen either entirely or not at all.
+     */
+    public Optional<Money> findTotalBalance(Long walletId) {
+        return jdbcTemplate.queryForList(TOTAL_BALANCE_SQL, BigDecimal.class, walletId).stream()
+                .findFirst()
+                .map(Money::of);
+    }
+
+    /**
+     * IDs of every wallet that has shard rows.
+     */
+    public List<Long> findShardedWallets() {
+        return jdbcTemplate.queryForList(SHARDED_WALLETS_SQL, Long.class);
+    }
+
+    /**
+     * Create shards {@code 0} to {@code shards - 1} for the wallet, all with
+     * a zero balance. Returns false, creating nothing, if the wallet does not
+     * exist.
+     */
+    public boolean createShards(Long walletId, int shards) {
+        List<Object[]> args = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            args.add(new Object[] { shard, walletId });
+        }
+        return jdbcTemplate.batchUpdate(CREATE_SHARD_SQL, args)[0] == 1;
+    }
+
+    /**
+     * Delete every shard row of the wallet.
+     */
+    public void deleteShards(Long walletId) {
+        jdbcTemplate.update(DELETE_SHARDS_SQL, walletId);
+    }
+}
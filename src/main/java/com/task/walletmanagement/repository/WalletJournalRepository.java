@@ -0,0 +1,202 @@
+package com.task.walletmanagement.repository;
+
+import com.task.walletmanagement.entity.Transaction;
+import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.util.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * JDBC access to the wallet event journal ({@code wallet_events}) and its
+ * balance snapshots. Events are only ever inserted; debits are stored with a
+ * negative amount so a wallet's balance is the sum of its events. Balances
+ * are kept as long minor units.
+ */
+@Repository
+public class WalletJournalRepository {
+
+    static final String APPEND_SQL =
+            "INSERT INTO wallet_events (wallet_id, transaction_id, event_type, amount, created_at) VALUES (?, ?, ?, ?, ?)";
+    static final String LATEST_SNAPSHOT_SQL =
+            "SELECT id, last_event_id FROM balance_snapshots ORDER BY id DESC LIMIT 1";
+    static final String SNAPSHOT_BALANCES_SQL =
+            "SELECT wallet_id, balance FROM balance_snapshot_entries WHERE snapshot_id = ?";
+    static final String TAIL_SQL = """
+            SELECT wallet_id, SUM(amount) AS amount
+            FROM wallet_events
+            WHERE id > ? AND id <= ?
+            GROUP BY wallet_id
+            """;
+    static final String SNAPSHOT_BOUNDARY_SQL =
+            "SELECT MAX(id) FROM wallet_events WHERE id > ? AND created_at < ?";
+    static final String INSERT_SNAPSHOT_SQL = "INSERT INTO balance_snapshots (last_event_id, created_at) VALUES (?, ?)";
+    static final String INSERT_SNAPSHOT_ENTRY_SQL =
+            "INSERT INTO balance_snapshot_entries (snapshot_id, wallet_id, balance) VALUES (?, ?, ?)";
+    static final String DELETE_SNAPSHOTS_BEFORE_SQL = "DELETE FROM balance_snapshots WHERE id < ?";
+    static final String WALLET_BALANCES_SQL = """
+            SELECT w.id, w.balance + COALESCE(s.balance, 0)
+            FROM wallets w
+            LEFT JOIN (SELECT wallet_id, SUM(balance) AS balance FROM wallet_balance_shards GROUP BY wallet_id) s
+                ON s.wallet_id = w.id
+            """;
+    static final String SET_BALANCE_SQL = "UPDATE wallets SET balance = ?, version = version + 1, updated_at = ? WHERE id = ?";
+    static final String CLEAR_SHARDS_SQL = "UPDATE wallet_balance_shards SET balance = 0 WHERE wallet_id = ?";
+    private static final int BATCH_SIZE = 1_000;
+    private static final int FETCH_SIZE = 1_000;
+
+    /**
+     * A stored snapshot: balances as of journal event {@code lastEventId}.
+     */
+    public record Snapshot(long id, long lastEventId) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WalletJournalRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Append a credit to the journal.
+     */
+    public void appendCredit(Long walletId, Long transactionId, Money amount) {
+        jdbcTemplate.update(APPEND_SQL, walletId, transactionId, TransactionType.CREDIT.name(),
+                amount.toBigDecimal(), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Append a debit to the journal.
+     */
+    public void appendDebit(Long walletId, Long transactionId, Money amount) {
+        jdbcTemplate.update(APPEND_SQL, walletId, transactionId, TransactionType.DEBIT.name(),
+                amount.toBigDecimal().negate(), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Append one credit per transaction in a single JDBC batch.
+     */
+    public void appendCredits(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            args.add(new Object[] { transaction.getWallet().getId(), transaction.getId(),
+                    TransactionType.CREDIT.name(), transaction.getAmount().toBigDecimal(), now });
+        }
+        jdbcTemplate.batchUpdate(APPEND_SQL, args);
+    }
+
+    /**
+     * The most recent snapshot, if any.
+     */
+    public Optional<Snapshot> findLatestSnapshot() {
+        return jdbcTemplate.query(LATEST_SNAPSHOT_SQL,
+                (rs, rowNum) -> new Snapshot(rs.getLong("id"), rs.getLong("last_event_id"))).stream().findFirst();
+    }
+
+    /**
+     * Put the balances stored in the snapshot into {@code balances}.
+     */
+    public void loadSnapshot(long snapshotId, Map<Long, Long> balances) {
+        streaming().query(SNAPSHOT_BALANCES_SQL, rs -> {
+            balances.put(rs.getLong(1), Money.of(rs.getBigDecimal(2)).getMinorUnits());
+        }, snapshotId);
+    }
+
+    /**
+     * Add the events after {@code afterEventId} up to and including
+     * {@code upToEventId} to {@code balances}, summed per wallet by the
+     * database. Reads only that range of the journal.
+     */
+    public void addEvents(long afterEventId, long upToEventId, Map<Long, Long> balances) {
+        jdbcTemplate.query(TAIL_SQL, rs -> {
+            balances.merge(rs.getLong(1), Money.of(rs.getBigDecimal(2)).getMinorUnits(), Math::addExact);
+        }, afterEventId, upToEventId);
+    }
+
+    /**
+     * Newest event after {@code afterEventId} created before the given time,
+     * or null if there is none.
+     */
+    public Long findSnapshotBoundary(long afterEventId, LocalDateTime createdBefore) {
+        return jdbcTemplate.queryForObject(SNAPSHOT_BOUNDARY_SQL, Long.class, afterEventId,
+                Timestamp.valueOf(createdBefore));
+    }
+
+    /**
+     * Store a snapshot of the given non-zero balances and return its ID.
+     */
+    public long insertSnapshot(long lastEventId, Map<Long, Long> balances) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_SNAPSHOT_SQL, new String[] { "id" });
+            ps.setLong(1, lastEventId);
+            ps.setTimestamp(2, now);
+            return ps;
+        }, keyHolder);
+        long snapshotId = keyHolder.getKey().longValue();
+
+        List<Map.Entry<Long, Long>> entries = balances.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_SNAPSHOT_ENTRY_SQL, entries, BATCH_SIZE, (ps, entry) -> {
+            ps.setLong(1, snapshotId);
+            ps.setLong(2, entry.getKey());
+            ps.setBigDecimal(3, Money.ofMinor(entry.getValue()).toBigDecimal());
+        });
+        return snapshotId;
+    }
+
+    /**
+     * Delete every snapshot older than the given one, with its entries.
+     */
+    public int deleteSnapshotsBefore(long snapshotId) {
+        return jdbcTemplate.update(DELETE_SNAPSHOTS_BEFORE_SQL, snapshotId);
+    }
+
+    /**
+     * Stream every wallet's stored balance in minor units, including the
+     * balance shards of hot wallets.
+     */
+    public void forEachWalletBalance(BiConsumer<Long, Long> consumer) {
+        streaming().query(WALLET_BALANCES_SQL, rs -> {
+            consumer.accept(rs.getLong(1), Money.of(rs.getBigDecimal(2)).getMinorUnits());
+        });
+    }
+
+    /**
+     * Overwrite the stored balances of the given wallets, zeroing any balance
+     * shards they have.
+     */
+    public void setBalances(Map<Long, Long> balances) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Map.Entry<Long, Long>> entries = List.copyOf(balances.entrySet());
+        jdbcTemplate.batchUpdate(SET_BALANCE_SQL, entries, BATCH_SIZE, (ps, entry) -> {
+            ps.setBigDecimal(1, Money.ofMinor(entry.getValue()).toBigDecimal());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, entry.getKey());
+        });
+        jdbcTemplate.batchUpdate(CLEAR_SHARDS_SQL, entries, BATCH_SIZE,
+                (ps, entry) -> ps.setLong(1, entry.getKey()));
+    }
+
+    private JdbcTemplate streaming() {
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(FETCH_SIZE);
+        return streaming;
+    }
+}
@@ -0,0 +1,115 @@
+package com.task.walletmanagement.service;
+
+import com.task.walletmanagement.dto.FundWalletRequest;
+import com.task.walletmanagement.dto.TransactionResponse;
+import com.task.walletmanagement.enums.TransactionStatus;
+import com.task.walletmanagement.event.FundingCompletedEvent;
+import com.task.walletmanagement.exception.FundingCapacityExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Service for asynchronous wallet funding.
+ *
+ * The funding request is validated and recorded as PENDING on the caller's
+ * thread; the gateway call and the credit run on the bounded funding executor.
+ * Callers poll the transaction or listen for {@link FundingCompletedEvent}.
+ */
+@Service
+public class AsyncFundingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncFundingService.class);
+    private final PaymentService paymentService;
+    private final TransactionService transactionService;
+    private final TaskExecutor fundingExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public AsyncFundingService(PaymentService paymentService,
+            TransactionService transactionService,
+            @Qualifier("fundingExecutor") TaskExecutor fundingExecutor,
+            ApplicationEventPublisher eventPublisher) {
+        this.paymentService = paymentService;
+        this.transactionService = transactionService;
+        this.fundingExecutor = fundingExecutor;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Record a PENDING funding transaction and hand the gateway work to the
+     * funding executor. Returns the PENDING transaction.
+     */
+    public TransactionResponse fundWalletAsync(Long walletId, FundWalletRequest request) {
+        return fundWalletAsync(walletId, request, null);
+    }
+
+    /**
+     * Asynchronous funding at most once per idempotency key. A repeated request
+     * returns the transaction recorded by the first one, in whatever state it
+     * has reached, and schedules no further work.
+     */
+    public TransactionResponse fundWalletAsync(Long walletId, FundWalletRequest request, String idempotencyKey) {
+        Optional<TransactionResponse> previous = paymentService.findPreviousFunding(walletId, request, idempotencyKey);
+        if (previous.isPresent()) {
+            return previous.get();
+        }
+
+        TransactionResponse pending = paymentService.initiateFunding(walletId, request, idempotencyKey);
+
+        try {
+            fundingExecutor.execute(() -> completeFunding(walletId, pending, request));
+        } catch (TaskRejectedException e) {
+            logger.warn("Funding executor saturated, rejecting transaction {}", pending.getId());
+            transactionService.completeTransaction(pending.getId(), TransactionStatus.FAILED);
+            throw new FundingCapacityExceededException(
+                    "Funding capacity exceeded, please retry later", e);
+        }
+
+        logger.debug("Funding transaction {} accepted for asynchronous processing", pending.getId());
+        return pending;
+    }
+
+    /**
+     * Run the gateway call and credit, then publish the transaction state
+     * they left. The event is published whatever happens, so listeners are
+     * never left waiting.
+     */
+    private void completeFunding(Long walletId, TransactionResponse pending, FundWalletRequest request) {
+        Long transactionId = pending.getId();
+        TransactionResponse result;
+        try {
+            result = paymentService.completeFunding(walletId, transactionId, request);
+        } catch (RuntimeException e) {
+            // A declined or rejected payment is now FAILED; after a gateway
+            // timeout or a failed credit the transaction is still PENDING
+            result = reload(walletId, pending, e);
+            if (result.getStatus() == TransactionStatus.PENDING) {
+                logger.warn("Funding transaction {} for wallet {} left PENDING for reconciliation: {}",
+                        transactionId, walletId, e.getMessage());
+            }
+        }
+
+        eventPublisher.publishEvent(new FundingCompletedEvent(walletId, result));
+    }
+
+    /**
+     * Current state of a funding that failed, or the PENDING state it was
+     * accepted in if it cannot be read (for example when the database caused
+     * the failure).
+     */
+    private TransactionResponse reload(Long walletId, TransactionResponse pending, RuntimeException failure) {
+        try {
+            return transactionService.getTransaction(walletId, pending.getId());
+        } catch (RuntimeException e) {
+            logger.error("Funding transaction {} for wallet {} failed ({}) and its state could not be read",
+                    pending.getId(), walletId, failure.getMessage(), e);
+            return pending;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.task.walletmanagement.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.task.walletmanagement.dto.BankAccountResponse;
 import com.task.walletmanagement.dto.LinkBankAccountRequest;
 import com.task.walletmanagement.entity.BankAccount;
@@ -7,12 +9,18 @@ import com.task.walletmanagement.entity.Wallet;
 import com.task.walletmanagement.exception.BankAccountNotFoundException;
 import com.task.walletmanagement.exception.DuplicateBankAccountException;
 import com.task.walletmanagement.repository.BankAccountRepository;
+import com.task.walletmanagement.util.ConstraintViolations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -22,27 +30,41 @@ import java.util.stream.Collectors;
 public class BankAccountService {
 
     private static final Logger logger = LoggerFactory.getLogger(BankAccountService.class);
+    private static final int LINKED_ACCOUNT_CACHE_SIZE = 100_000;
+    private static final Duration LINKED_ACCOUNT_CACHE_TTL = Duration.ofMinutes(30);
     private final BankAccountRepository bankAccountRepository;
     private final WalletService walletService;
+    private final UniquenessFilters uniquenessFilters;
 
-    public BankAccountService(BankAccountRepository bankAccountRepository, WalletService walletService) {
+    // Account numbers linked to each wallet, invalidated when an account is linked
+    private final Cache<Long, Set<String>> linkedAccountNumbers = Caffeine.newBuilder()
+            .maximumSize(LINKED_ACCOUNT_CACHE_SIZE)
+            .expireAfterWrite(LINKED_ACCOUNT_CACHE_TTL)
+            .build();
+
+    public BankAccountService(BankAccountRepository bankAccountRepository, WalletService walletService,
+            UniquenessFilters uniquenessFilters) {
         this.bankAccountRepository = bankAccountRepository;
         this.walletService = walletService;
+        this.uniquenessFilters = uniquenessFilters;
     }
 
     /**
-     * Link a bank account to a wallet.
+     * Link a bank account to a wallet. The duplicate-account query is skipped
+     * when the account filter has never seen the account; the
+     * {@code (account_number, bank)} unique constraint stays the final guard.
      */
     @Transactional
     public BankAccountResponse linkBankAccount(Long walletId, LinkBankAccountRequest request) {
         logger.info("Linking bank account {} to wallet ID: {}", request.getAccountNumber(), walletId);
 
         // Validate wallet exists
-        Wallet wallet = walletService.getWalletById(walletId);
+        Wallet wallet = walletService.getWalletReference(walletId);
 
         // Check if bank account already exists
-        if (bankAccountRepository.findByAccountNumberAndBank(request.getAccountNumber(), request.getBank())
-                .isPresent()) {
+        if (uniquenessFilters.mightContainBankAccount(request.getAccountNumber(), request.getBank())
+                && bankAccountRepository.findByAccountNumberAndBank(request.getAccountNumber(), request.getBank())
+                        .isPresent()) {
             throw new DuplicateBankAccountException(request.getAccountNumber(), request.getBank());
         }
 
@@ -52,9 +74,21 @@ public class BankAccountService {
         bankAccount.setAccountName(request.getAccountName());
         bankAccount.setBank(request.getBank());
 
-        BankAccount savedAccount = bankAccountRepository.save(bankAccount);
+        // Flush now: with sequence IDs the INSERT would otherwise run at commit, past this catch
+        BankAccount savedAccount;
+        try {
+            savedAccount = bankAccountRepository.saveAndFlush(bankAccount);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isUniqueViolation(e)) {
+                throw new DuplicateBankAccountException(request.getAccountNumber(), request.getBank());
+            }
+            throw e;
+        }
+        uniquenessFilters.addBankAccount(request.getAccountNumber(), request.getBank());
         logger.info("Bank account linked successfully with ID: {}", savedAccount.getId());
 
+        evictLinkedAccountsAfterCommit(walletId);
+
         return mapToResponse(savedAccount);
     }
 
@@ -66,7 +100,7 @@ public class BankAccountService {
         logger.info("Fetching bank accounts for wallet ID: {}", walletId);
 
         // Validate wallet exists
-        walletService.getWalletById(walletId);
+        walletService.ensureWalletExists(walletId);
 
         List<BankAccount> bankAccounts = bankAccountRepository.findByWalletId(walletId);
 
@@ -86,6 +120,34 @@ public class BankAccountService {
                                 " and bank " + bank + " linked to wallet ID " + walletId));
     }
 
+    /**
+     * Check whether an account number is linked to a wallet. Answered from a
+     * per-wallet cache; a miss costs one indexed query regardless of how many
+     * accounts the wallet has.
+     */
+    public boolean isBankAccountLinked(Long walletId, String accountNumber) {
+        return linkedAccountNumbers
+                .get(walletId, id -> Set.copyOf(bankAccountRepository.findAccountNumbersByWalletId(id)))
+                .contains(accountNumber);
+    }
+
+    /**
+     * Drop the cached account numbers of a wallet once the current transaction
+     * commits, so a concurrent reader cannot re-cache the pre-commit state.
+     */
+    private void evictLinkedAccountsAfterCommit(Long walletId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            linkedAccountNumbers.invalidate(walletId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                linkedAccountNumbers.invalidate(walletId);
+            }
+        });
+    }
+
     /**
      * Map bank account entity to response DTO.
      */
@@ -0,0 +1,351 @@
+package com.task.walletmanagement.service;
+
+import com.task.walletmanagement.dto.BatchFundingItem;
+import com.task.walletmanagement.dto.BatchFundingResponse;
+import com.task.walletmanagement.dto.BatchFundingResult;
+import com.task.walletmanagement.dto.TransactionResponse;
+import com.task.walletmanagement.entity.Transaction;
+import com.task.walletmanagement.entity.Wallet;
+import com.task.walletmanagement.enums.OutboxEventType;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.enums.TransactionStatus;
+import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.exception.GatewayTimeoutException;
+import com.task.walletmanagement.exception.PaymentProcessingException;
+import com.task.walletmanagement.repository.OutboxRepository;
+import com.task.walletmanagement.repository.TransactionBatchRepository;
+import com.task.walletmanagement.repository.TransactionSummaryRepository;
+import com.task.walletmanagement.repository.TransactionSummaryRepository.Delta;
+import com.task.walletmanagement.repository.WalletRepository;
+import com.task.walletmanagement.service.balance.BalanceShards;
+import com.task.walletmanagement.service.balance.BalanceUpdateStrategy;
+import com.task.walletmanagement.service.journal.WalletJournal;
+import com.task.walletmanagement.service.payment.PaymentGatewayFactory;
+import com.task.walletmanagement.util.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Service for funding many wallets in one call.
+ *
+ * A batch goes through the same three steps as a single funding, but each
+ * step handles every item at once:
+ * 1. Load all wallets in one query, validate every item and insert the
+ * PENDING transactions through {@link TransactionService#createTransactions}
+ * (batched Hibernate inserts with sequence IDs)
+ * 2. Call the payment gateways concurrently on virtual threads, at most
+ * {@code wallet.funding.batch.gateway-concurrency} at a time
+ * 3. Sum the successful credits per wallet, apply them through
+ * {@link BalanceUpdateStrategy#creditAll}, journal one event per credit,
+ * and mark every transaction SUCCESS or FAILED in JDBC batches and move them
+ * to their final summary buckets and the outbox, all in one database
+ * transaction
+ *
+ * An item that fails validation or at the gateway fails on its own; the rest
+ * of the batch is still credited. An item whose gateway call timed out may
+ * still have been charged, so it is left PENDING, neither credited nor
+ * failed, for reconciliation. If the step 3 transaction fails, it is
+ * rolled back and every item is completed again in its own transaction, so
+ * one bad item cannot strand the payments the gateway already took. An item
+ * whose own completion fails is left PENDING for reconciliation.
+ */
+@Service
+public class BatchFundingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchFundingService.class);
+    private final WalletRepository walletRepository;
+    private final BankAccountService bankAccountService;
+    private final PaymentGatewayFactory paymentGatewayFactory;
+    private final BalanceUpdateStrategy balanceUpdateStrategy;
+    private final TransactionService transactionService;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final TransactionSummaryRepository transactionSummaryRepository;
+    private final BalanceShards balanceShards;
+    private final OutboxRepository outboxRepository;
+    private final WalletJournal walletJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final int gatewayConcurrency;
+
+    public BatchFundingService(WalletRepository walletRepository,
+            BankAccountService bankAccountService,
+            PaymentGatewayFactory paymentGatewayFactory,
+            BalanceUpdateStrategy balanceUpdateStrategy,
+            TransactionService transactionService,
+            TransactionBatchRepository transactionBatchRepository,
+            TransactionSummaryRepository transactionSummaryRepository,
+            BalanceShards balanceShards,
+            OutboxRepository outboxRepository,
+            WalletJournal walletJournal,
+            PlatformTransactionManager transactionManager,
+            @Value("${wallet.funding.batch.gateway-concurrency:64}") int gatewayConcurrency) {
+        this.walletRepository = walletRepository;
+        this.bankAccountService = bankAccountService;
+        this.paymentGatewayFactory = paymentGatewayFactory;
+        this.balanceUpdateStrategy = balanceUpdateStrategy;
+        this.transactionService = transactionService;
+        this.transactionBatchRepository = transactionBatchRepository;
+        this.transactionSummaryRepository = transactionSummaryRepository;
+        this.balanceShards = balanceShards;
+        this.outboxRepository = outboxRepository;
+        this.walletJournal = walletJournal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.gatewayConcurrency = gatewayConcurrency;
+    }
+
+    /**
+     * Fund every item of the batch and return one result per item, in request
+     * order.
+     */
+    public BatchFundingResponse fundWallets(List<BatchFundingItem> items) {
+        logger.info("Processing batch funding of {} items", items.size());
+        BatchFundingResult[] results = new BatchFundingResult[items.size()];
+
+        // Step 1: Validate and record PENDING transactions in one batch
+        Transaction[] pending = transactionTemplate.execute(status -> recordPending(items, results));
+        // Taken before AUTO routing changes the gateways
+        Delta[] pendingBuckets = new Delta[pending.length];
+        for (int i = 0; i < pending.length; i++) {
+            if (pending[i] != null) {
+                pendingBuckets[i] = Delta.removed(pending[i]);
+            }
+        }
+
+        // Step 2: Call the gateways concurrently, outside any DB transaction
+        RuntimeException[] gatewayFailures = processPayments(items, pending);
+        String[] gatewayErrors = new String[items.size()];
+        boolean[] timedOut = new boolean[items.size()];
+        for (int i = 0; i < gatewayFailures.length; i++) {
+            if (gatewayFailures[i] != null) {
+                gatewayErrors[i] = gatewayFailures[i].getMessage();
+                if (gatewayFailures[i] instanceof GatewayTimeoutException) {
+                    logger.warn("Transaction {} left PENDING: {}", pending[i].getId(), gatewayErrors[i]);
+                    timedOut[i] = true;
+                }
+            }
+        }
+
+        // Step 3: Apply all credits and final statuses in one short transaction
+        List<Transaction> succeeded = new ArrayList<>();
+        List<Transaction> failed = new ArrayList<>();
+        List<Transaction> unknown = new ArrayList<>();
+        List<Delta> buckets = new ArrayList<>();
+        for (int i = 0; i < pending.length; i++) {
+            if (pending[i] != null) {
+                (timedOut[i] ? unknown : gatewayErrors[i] == null ? succeeded : failed).add(pending[i]);
+                buckets.add(pendingBuckets[i]);
+            }
+        }
+        String[] errors = gatewayErrors;
+        try {
+            transactionTemplate.executeWithoutResult(status -> complete(succeeded, failed, unknown, buckets));
+        } catch (RuntimeException e) {
+            logger.error("Applying batch credits failed, completing {} items one by one", buckets.size(), e);
+            errors = completeEach(pending, gatewayErrors, timedOut, pendingBuckets);
+        }
+
+        int succeededCount = 0;
+        for (int i = 0; i < pending.length; i++) {
+            if (pending[i] != null) {
+                results[i] = new BatchFundingResult(i, items.get(i).getWalletId(), pending[i].getStatus(),
+                        mapToResponse(pending[i]), errors[i]);
+                if (pending[i].getStatus() == TransactionStatus.SUCCESS) {
+                    succeededCount++;
+                }
+            }
+        }
+
+        logger.info("Batch funding completed: {} succeeded, {} failed", succeededCount,
+                items.size() - succeededCount);
+        return new BatchFundingResponse(succeededCount, items.size() - succeededCount, Arrays.asList(results));
+    }
+
+    /**
+     * Validate every item and insert a PENDING transaction for each valid one.
+     * Invalid items get a FAILED result and no transaction.
+     */
+    private Transaction[] recordPending(List<BatchFundingItem> items, BatchFundingResult[] results) {
+        Set<Long> walletIds = new HashSet<>();
+        items.forEach(item -> walletIds.add(item.getWalletId()));
+        Map<Long, Wallet> wallets = new HashMap<>();
+        walletRepository.findAllById(walletIds).forEach(wallet -> wallets.put(wallet.getId(), wallet));
+
+        Transaction[] pending = new Transaction[items.size()];
+        List<Transaction> inserts = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            BatchFundingItem item = items.get(i);
+            Wallet wallet = wallets.get(item.getWalletId());
+            String error = null;
+            if (wallet == null) {
+                error = "Wallet not found with ID: " + item.getWalletId();
+            } else if (!bankAccountService.isBankAccountLinked(item.getWalletId(), item.getAccountNumber())) {
+                error = "Bank account with number " + item.getAccountNumber() + " is not linked to this wallet";
+            }
+            if (error != null) {
+                results[i] = new BatchFundingResult(i, item.getWalletId(), TransactionStatus.FAILED, null, error);
+                continue;
+            }
+
+            Transaction transaction = new Transaction();
+            transaction.setWallet(wallet);
+            transaction.setAmount(Money.of(item.getAmount()));
+            transaction.setType(TransactionType.CREDIT);
+            transaction.setDescription(PaymentService.describe(item));
+            transaction.setPaymentGateway(item.getPaymentGateway());
+            transaction.setStatus(TransactionStatus.PENDING);
+            pending[i] = transaction;
+            inserts.add(transaction);
+        }
+
+        transactionService.createTransactions(inserts);
+        return pending;
+    }
+
+    /**
+     * Call the gateway for every recorded item. Returns the failure of each
+     * item, or null where the payment succeeded.
+     */
+    private RuntimeException[] processPayments(List<BatchFundingItem> items, Transaction[] pending) {
+        RuntimeException[] failures = new RuntimeException[items.size()];
+        Semaphore permits = new Semaphore(gatewayConcurrency);
+        List<Future<RuntimeException>> calls = new ArrayList<>(items.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < items.size(); i++) {
+                BatchFundingItem item = items.get(i);
+                int index = i;
+                calls.add(pending[i] == null ? null : executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        PaymentGateway gateway = item.getPaymentGateway();
+                        if (gateway == PaymentGateway.AUTO) {
+                            // Record the gateway actually used with the status update
+                            gateway = paymentGatewayFactory.selectGateway();
+                            pending[index].setPaymentGateway(gateway);
+                            pending[index].setDescription(PaymentService.describe(gateway, item.getAccountNumber()));
+                        }
+                        paymentGatewayFactory.getStrategy(gateway)
+                                .processPayment(item.getAccountNumber(), item.getAmount());
+                        return null;
+                    } catch (RuntimeException e) {
+                        return e;
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+
+        for (int i = 0; i < calls.size(); i++) {
+            if (calls.get(i) != null) {
+                try {
+                    failures[i] = calls.get(i).get();
+                } catch (ExecutionException e) {
+                    failures[i] = new PaymentProcessingException(e.getCause().getMessage(), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failures[i] = new PaymentProcessingException("Interrupted before the payment completed", e);
+                }
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Complete every recorded item in its own transaction, after the batch
+     * transaction failed. Returns the error of each item: its gateway error,
+     * or why its completion failed, in which case it stays PENDING.
+     */
+    private String[] completeEach(Transaction[] pending, String[] gatewayErrors, boolean[] timedOut,
+            Delta[] pendingBuckets) {
+        String[] errors = gatewayErrors.clone();
+        for (int i = 0; i < pending.length; i++) {
+            Transaction transaction = pending[i];
+            if (transaction == null) {
+                continue;
+            }
+            // The failed attempt may have set the final status before rolling back
+            transaction.setStatus(TransactionStatus.PENDING);
+            List<Transaction> single = List.of(transaction);
+            boolean unknown = timedOut[i];
+            boolean paid = !unknown && gatewayErrors[i] == null;
+            boolean declined = !unknown && !paid;
+            List<Delta> bucket = List.of(pendingBuckets[i]);
+            try {
+                transactionTemplate.executeWithoutResult(status -> complete(paid ? single : List.of(),
+                        declined ? single : List.of(), unknown ? single : List.of(), bucket));
+            } catch (RuntimeException e) {
+                logger.error("Completing transaction {} failed; left PENDING", transaction.getId(), e);
+                transaction.setStatus(TransactionStatus.PENDING);
+                if (paid) {
+                    errors[i] = "Payment taken but not yet credited: " + e.getMessage();
+                }
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Credit the summed amounts per wallet, mark the transactions SUCCESS or
+     * FAILED and move them from their PENDING summary buckets to their final
+     * ones. Transactions whose outcome is unknown stay PENDING but get the
+     * gateway an AUTO payment was routed to, so reconciliation knows where to
+     * look, and move to that gateway's PENDING bucket.
+     */
+    private void complete(List<Transaction> succeeded, List<Transaction> failed, List<Transaction> unknown,
+            List<Delta> pendingBuckets) {
+        Map<Long, Money> credits = new TreeMap<>();
+        for (Transaction transaction : succeeded) {
+            credits.merge(transaction.getWallet().getId(), transaction.getAmount(), Money::plus);
+        }
+
+        // Credit before the status update, as the single-item path does: the
+        // ledger strategy loads balances from SUCCESS transactions
+        balanceUpdateStrategy.creditAll(credits);
+        walletJournal.recordCredits(succeeded);
+        transactionBatchRepository.updateStatus(succeeded, TransactionStatus.SUCCESS);
+        transactionBatchRepository.updateStatus(failed, TransactionStatus.FAILED);
+        transactionBatchRepository.updateStatus(unknown, TransactionStatus.PENDING);
+        succeeded.forEach(transaction -> transaction.setStatus(TransactionStatus.SUCCESS));
+        failed.forEach(transaction -> transaction.setStatus(TransactionStatus.FAILED));
+
+        List<Delta> deltas = new ArrayList<>(pendingBuckets);
+        succeeded.forEach(transaction -> deltas.add(Delta.added(transaction)));
+        failed.forEach(transaction -> deltas.add(Delta.added(transaction)));
+        unknown.forEach(transaction -> deltas.add(Delta.added(transaction)));
+        transactionSummaryRepository.apply(deltas, balanceShards::summaryShard);
+        outboxRepository.appendAll(OutboxEventType.TRANSACTION_COMPLETED, succeeded);
+        outboxRepository.appendAll(OutboxEventType.TRANSACTION_COMPLETED, failed);
+    }
+
+    /**
+     * Map transaction entity to response DTO.
+     */
+    private TransactionResponse mapToResponse(Transaction transaction) {
+        return new TransactionResponse(
+                transaction.getId(),
+                transaction.getAmount(),
+                transaction.getType(),
+                transaction.getDescription(),
+                transaction.getPaymentGateway(),
+                transaction.getStatus(),
+                transaction.getCreatedAt());
+    }
+}
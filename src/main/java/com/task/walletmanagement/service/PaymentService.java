@@ -1,126 +1,390 @@
 package com.task.walletmanagement.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.task.walletmanagement.config.LoggingProperties;
 import com.task.walletmanagement.dto.FundWalletRequest;
 import com.task.walletmanagement.dto.TransactionResponse;
-import com.task.walletmanagement.entity.BankAccount;
 import com.task.walletmanagement.entity.Transaction;
 import com.task.walletmanagement.entity.Wallet;
+import com.task.walletmanagement.enums.PaymentGateway;
 import com.task.walletmanagement.enums.TransactionStatus;
 import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.exception.GatewayTimeoutException;
+import com.task.walletmanagement.exception.GatewayUnavailableException;
+import com.task.walletmanagement.exception.IdempotencyKeyConflictException;
 import com.task.walletmanagement.exception.PaymentProcessingException;
 import com.task.walletmanagement.repository.WalletRepository;
+import com.task.walletmanagement.service.balance.BalanceUpdateStrategy;
+import com.task.walletmanagement.service.commit.GroupCommitWriter;
+import com.task.walletmanagement.service.journal.WalletJournal;
 import com.task.walletmanagement.service.payment.PaymentGatewayFactory;
-import com.task.walletmanagement.service.payment.PaymentGatewayStrategy;
+import com.task.walletmanagement.util.ConstraintViolations;
+import com.task.walletmanagement.util.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for payment operations.
+ *
+ * Each funding logs a single {@code Funding completed} or
+ * {@code Funding failed} event whose key-value pairs carry the IDs, gateway,
+ * outcome and timings; successful fundings are sampled at
+ * {@code wallet.logging.funding-sample-rate}. The per-step lines are DEBUG.
  */
 @Service
 public class PaymentService {
 
     private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
+    private static final int IDEMPOTENCY_CACHE_SIZE = 10_000;
+    private static final Duration IDEMPOTENCY_CACHE_TTL = Duration.ofHours(1);
     private final WalletRepository walletRepository;
     private final BankAccountService bankAccountService;
     private final TransactionService transactionService;
     private final PaymentGatewayFactory paymentGatewayFactory;
+    private final BalanceUpdateStrategy balanceUpdateStrategy;
+    private final WalletJournal walletJournal;
+    private final GroupCommitWriter groupCommitWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final double fundingSampleRate;
+
+    // Successful fundings by "walletId:idempotencyKey", so replays skip the database
+    private final Cache<String, TransactionResponse> completedFundings = Caffeine.newBuilder()
+            .maximumSize(IDEMPOTENCY_CACHE_SIZE)
+            .expireAfterWrite(IDEMPOTENCY_CACHE_TTL)
+            .build();
 
     public PaymentService(WalletRepository walletRepository,
             BankAccountService bankAccountService,
             TransactionService transactionService,
-            PaymentGatewayFactory paymentGatewayFactory) {
+            PaymentGatewayFactory paymentGatewayFactory,
+            BalanceUpdateStrategy balanceUpdateStrategy,
+            WalletJournal walletJournal,
+            GroupCommitWriter groupCommitWriter,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            LoggingProperties loggingProperties) {
         this.walletRepository = walletRepository;
         this.bankAccountService = bankAccountService;
         this.transactionService = transactionService;
         this.paymentGatewayFactory = paymentGatewayFactory;
+        this.balanceUpdateStrategy = balanceUpdateStrategy;
+        this.walletJournal = walletJournal;
+        this.groupCommitWriter = groupCommitWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.fundingSampleRate = loggingProperties.fundingSampleRate();
     }
 
     /**
      * Fund a wallet from a linked bank account via payment gateway.
-     * all steps succeed or all are rolled back.
-     * 
+     *
      * Steps:
-     * 1. Lock wallet for update
-     * 2. Validate bank account is linked to wallet
-     * 3. Process payment via payment gateway
-     * 4. Update wallet balance
-     * 5. Record transaction
-     * 
-     * If any step fails, the entire transaction is rolled back.
+     * 1. Validate wallet and bank account, record a PENDING transaction
+     * 2. Process payment via payment gateway (no wallet lock, no open DB
+     * transaction)
+     * 3. Credit the wallet via the configured {@link BalanceUpdateStrategy},
+     * append the credit to the {@link WalletJournal} and mark the transaction
+     * SUCCESS
+     *
+     * Steps 1 and 3 run in their own short database transactions, so any wallet
+     * lock is only held while the credit is applied. If the gateway fails,
+     * the transaction is marked FAILED and the balance is never touched. If
+     * it times out, the payment may still go through, so the transaction is
+     * left PENDING with its idempotency key for reconciliation.
+     * With {@code wallet.funding.group-commit.enabled}, concurrent fundings
+     * share the commits of steps 1 and 3 through the {@link GroupCommitWriter}.
      */
-    @Transactional
     public TransactionResponse fundWallet(Long walletId, FundWalletRequest request) {
-        logger.info("Processing wallet funding for wallet ID: {} via {}", walletId, request.getPaymentGateway());
+        return fundWallet(walletId, request, null);
+    }
 
+    /**
+     * Fund a wallet at most once per idempotency key. A repeated request with
+     * the same key returns the transaction recorded by the first one without
+     * calling the payment gateway again.
+     *
+     * End-to-end latency is recorded as the {@code wallet.funding} timer,
+     * tagged with the gateway and {@code outcome=success|failure|replayed}.
+     */
+    public TransactionResponse fundWallet(Long walletId, FundWalletRequest request, String idempotencyKey) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
         try {
-            // Step 1: Get wallet to prevent concurrent modifications
-            Wallet wallet = walletRepository.findByIdWithLock(walletId)
-                    .orElseThrow(() -> new PaymentProcessingException("Wallet not found with ID: " + walletId));
-
-            logger.info("Wallet locked for update. Current balance: {}", wallet.getBalance());
-
-            // Step 2: Validate bank account is linked to this wallet
-            // Find the bank account linked to this wallet with the given account number
-            BankAccount bankAccount = bankAccountService.getBankAccountsByWalletId(walletId).stream()
-                    .map(response -> {
-                        try {
-                            return bankAccountService.getBankAccountByAccountNumberAndWallet(
-                                    response.getAccountNumber(),
-                                    response.getBank(),
-                                    walletId);
-                        } catch (Exception e) {
-                            return null;
-                        }
-                    })
-                    .filter(ba -> ba != null && ba.getAccountNumber().equals(request.getAccountNumber()))
-                    .findFirst()
-                    .orElseThrow(() -> new PaymentProcessingException(
-                            "Bank account with number " + request.getAccountNumber() +
-                                    " is not linked to this wallet"));
-            logger.info("Bank account validated: {} - {}", bankAccount.getBank(), bankAccount.getAccountNumber());
-
-            // Step 3: Process payment via payment gateway
-            PaymentGatewayStrategy paymentGateway = paymentGatewayFactory.getStrategy(request.getPaymentGateway());
-            paymentGateway.processPayment(request.getAccountNumber(), request.getAmount());
-
-            // Step 4: Update wallet balance
-            BigDecimal previousBalance = wallet.getBalance();
-            BigDecimal newBalance = previousBalance.add(request.getAmount());
-            wallet.setBalance(newBalance);
-            walletRepository.save(wallet);
-
-            logger.info("Wallet balance updated from {} to {}", previousBalance, newBalance);
-
-            // Step 5: Record successful transaction
-            Transaction transaction = transactionService.createTransaction(
-                    wallet,
-                    request.getAmount(),
-                    TransactionType.CREDIT,
-                    String.format("Wallet funded via %s from account %s",
-                            request.getPaymentGateway(), request.getAccountNumber()),
-                    request.getPaymentGateway(),
-                    TransactionStatus.SUCCESS);
-
-            logger.info("Payment processing completed successfully");
-
-            return mapToResponse(transaction);
+            Optional<TransactionResponse> previous = findPreviousFunding(walletId, request, idempotencyKey);
+            if (previous.isPresent()) {
+                outcome = "replayed";
+                return previous.get();
+            }
+            TransactionResponse pending = initiateFunding(walletId, request, idempotencyKey);
+            TransactionResponse completed = completeFunding(walletId, pending.getId(), request);
+            outcome = "success";
+            return completed;
+        } finally {
+            sample.stop(Timer.builder("wallet.funding")
+                    .description("Synchronous wallet funding latency")
+                    .tag("gateway", request.getPaymentGateway().name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Transaction already recorded for the idempotency key, if any. Completed
+     * fundings are served from memory; PENDING ones are looked up each time.
+     *
+     * @throws IdempotencyKeyConflictException if the key was used for a
+     *                                         different funding request
+     */
+    public Optional<TransactionResponse> findPreviousFunding(Long walletId, FundWalletRequest request,
+            String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return Optional.empty();
+        }
+
+        String cacheKey = walletId + ":" + idempotencyKey;
+        TransactionResponse previous = completedFundings.getIfPresent(cacheKey);
+        if (previous == null) {
+            previous = transactionService.findByIdempotencyKey(walletId, idempotencyKey).orElse(null);
+            if (previous == null) {
+                return Optional.empty();
+            }
+            if (previous.getStatus() == TransactionStatus.SUCCESS) {
+                completedFundings.put(cacheKey, previous);
+            }
+        }
+
+        // After AUTO routing or a failover the stored gateway differs from the requested one
+        boolean sameGateway = previous.getPaymentGateway() == request.getPaymentGateway()
+                || request.getPaymentGateway() == PaymentGateway.AUTO
+                || request.isAllowFailover();
+        if (!previous.getAmount().equals(Money.of(request.getAmount()))
+                || !sameGateway
+                || !previous.getDescription().equals(describe(previous.getPaymentGateway(), request.getAccountNumber()))) {
+            throw new IdempotencyKeyConflictException(idempotencyKey, "was already used for a different funding request");
+        }
+        logger.debug("Replaying funding transaction {} for Idempotency-Key {}", previous.getId(), idempotencyKey);
+        return Optional.of(previous);
+    }
+
+    /**
+     * Step 1 of wallet funding: validate the request and record a PENDING
+     * transaction. Returns as soon as the transaction is committed.
+     */
+    public TransactionResponse initiateFunding(Long walletId, FundWalletRequest request) {
+        return initiateFunding(walletId, request, null);
+    }
+
+    /**
+     * Step 1 of wallet funding, recording the idempotency key with the PENDING
+     * transaction. The key is unique per wallet, so a concurrent request with
+     * the same key is rejected here.
+     */
+    public TransactionResponse initiateFunding(Long walletId, FundWalletRequest request, String idempotencyKey) {
+        logger.debug("Processing wallet funding for wallet ID: {} via {}", walletId, request.getPaymentGateway());
+
+        try {
+            Transaction pending = groupCommitWriter.execute(walletId,
+                    () -> createPendingTransaction(walletId, request, idempotencyKey));
+            return mapToResponse(pending);
+        } catch (DataIntegrityViolationException e) {
+            if (idempotencyKey == null || !ConstraintViolations.isUniqueViolation(e)) {
+                logger.error("Unexpected error during payment processing", e);
+                throw new PaymentProcessingException("Payment processing failed: " + e.getMessage(), e);
+            }
+            logger.warn("Duplicate Idempotency-Key {} for wallet ID: {}", idempotencyKey, walletId);
+            throw new IdempotencyKeyConflictException(idempotencyKey, "is already being processed");
+        } catch (PaymentProcessingException e) {
+            logger.error("Payment processing failed: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Unexpected error during payment processing", e);
+            throw new PaymentProcessingException("Payment processing failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Steps 2 and 3 of wallet funding: call the payment gateway and apply the
+     * credit to a transaction recorded by {@link #initiateFunding}.
+     */
+    public TransactionResponse completeFunding(Long walletId, Long transactionId, FundWalletRequest request) {
+        long start = System.nanoTime();
+        try {
+            // Step 2: Process payment via payment gateway
+            PaymentGateway gateway = processPayment(transactionId, request);
+            long gatewayNanos = System.nanoTime() - start;
+
+            // Step 3: Apply the credit in a short transaction
+            Transaction completed = groupCommitWriter.execute(walletId, () -> applyCredit(walletId, transactionId,
+                    Money.of(request.getAmount()), gateway == request.getPaymentGateway() ? null : gateway,
+                    request.getAccountNumber()));
+
+            logFundingCompleted(walletId, completed, gatewayNanos, System.nanoTime() - start);
+
+            TransactionResponse response = mapToResponse(completed);
+            if (completed.getIdempotencyKey() != null) {
+                completedFundings.put(walletId + ":" + completed.getIdempotencyKey(), response);
+            }
+            return response;
 
         } catch (PaymentProcessingException e) {
-            // Payment gateway failed - transaction will be rolled back automatically
-            logger.error("Payment processing failed, transaction will be rolled back: {}", e.getMessage());
+            logFundingFailed(walletId, transactionId, request, System.nanoTime() - start, e);
             throw e;
         } catch (Exception e) {
-            // Any other error - transaction will be rolled back automatically
-            logger.error("Unexpected error during payment processing, transaction will be rolled back", e);
+            logger.error("Unexpected error during payment processing", e);
             throw new PaymentProcessingException("Payment processing failed: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Log the structured event for a successful funding, if it is sampled.
+     */
+    private void logFundingCompleted(Long walletId, Transaction completed, long gatewayNanos, long totalNanos) {
+        if (!logger.isInfoEnabled()
+                || (fundingSampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= fundingSampleRate)) {
+            return;
+        }
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(totalNanos);
+        logger.atInfo()
+                .setMessage("Funding completed: transaction {} credited {} to wallet {} via {} in {} ms")
+                .addArgument(completed.getId())
+                .addArgument(completed.getAmount())
+                .addArgument(walletId)
+                .addArgument(completed.getPaymentGateway())
+                .addArgument(totalMillis)
+                .addKeyValue("walletId", walletId)
+                .addKeyValue("transactionId", completed.getId())
+                .addKeyValue("amount", completed.getAmount())
+                .addKeyValue("gateway", completed.getPaymentGateway())
+                .addKeyValue("outcome", "success")
+                .addKeyValue("gatewayMs", TimeUnit.NANOSECONDS.toMillis(gatewayNanos))
+                .addKeyValue("totalMs", totalMillis)
+                .addKeyValue("sampleRate", fundingSampleRate)
+                .log();
+    }
+
+    /**
+     * Log the structured event for a failed funding. Failures are not sampled.
+     */
+    private void logFundingFailed(Long walletId, Long transactionId, FundWalletRequest request, long totalNanos,
+            PaymentProcessingException e) {
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(totalNanos);
+        logger.atWarn()
+                .setMessage("Funding failed: transaction {} for wallet {} via {} after {} ms: {}")
+                .addArgument(transactionId)
+                .addArgument(walletId)
+                .addArgument(request.getPaymentGateway())
+                .addArgument(totalMillis)
+                .addArgument(e.getMessage())
+                .addKeyValue("walletId", walletId)
+                .addKeyValue("transactionId", transactionId)
+                .addKeyValue("gateway", request.getPaymentGateway())
+                .addKeyValue("outcome", e instanceof GatewayTimeoutException ? "unknown" : "failure")
+                .addKeyValue("totalMs", totalMillis)
+                .addKeyValue("reason", e.getMessage())
+                .log();
+    }
+
+    /**
+     * Validate the wallet and bank account and record a PENDING credit.
+     */
+    private Transaction createPendingTransaction(Long walletId, FundWalletRequest request, String idempotencyKey) {
+        Wallet wallet = walletRepository.findById(walletId)
+                .orElseThrow(() -> new PaymentProcessingException("Wallet not found with ID: " + walletId));
+
+        // Validate bank account is linked to this wallet
+        if (!bankAccountService.isBankAccountLinked(walletId, request.getAccountNumber())) {
+            throw new PaymentProcessingException(
+                    "Bank account with number " + request.getAccountNumber() +
+                            " is not linked to this wallet");
+        }
+        logger.debug("Bank account validated: {}", request.getAccountNumber());
+
+        return transactionService.createTransaction(
+                wallet,
+                Money.of(request.getAmount()),
+                TransactionType.CREDIT,
+                describe(request),
+                request.getPaymentGateway(),
+                TransactionStatus.PENDING,
+                idempotencyKey);
+    }
+
+    /**
+     * Description recorded on the funding transaction.
+     */
+    static String describe(FundWalletRequest request) {
+        return describe(request.getPaymentGateway(), request.getAccountNumber());
+    }
+
+    static String describe(PaymentGateway gateway, String accountNumber) {
+        return String.format("Wallet funded via %s from account %s", gateway, accountNumber);
+    }
+
+    /**
+     * Call the payment gateway and return the gateway that took the payment.
+     * AUTO is resolved to the currently best-scored gateway. If the gateway is
+     * unavailable and the request allows it (AUTO always does), the payment is
+     * retried once on another healthy gateway. On failure the PENDING
+     * transaction is marked FAILED before the exception is propagated. A
+     * timeout is neither failed over nor marked FAILED: the call may still
+     * take the payment.
+     */
+    private PaymentGateway processPayment(Long transactionId, FundWalletRequest request) {
+        try {
+            boolean auto = request.getPaymentGateway() == PaymentGateway.AUTO;
+            PaymentGateway gateway = auto ? paymentGatewayFactory.selectGateway() : request.getPaymentGateway();
+            try {
+                paymentGatewayFactory.getStrategy(gateway).processPayment(request.getAccountNumber(), request.getAmount());
+            } catch (GatewayUnavailableException e) {
+                if (!auto && !request.isAllowFailover()) {
+                    throw e;
+                }
+                gateway = paymentGatewayFactory.getFailover(gateway).orElseThrow(() -> e);
+                logger.warn("{}; failing over transaction {} to {}", e.getMessage(), transactionId, gateway);
+                paymentGatewayFactory.getStrategy(gateway).processPayment(request.getAccountNumber(), request.getAmount());
+            }
+            return gateway;
+        } catch (GatewayTimeoutException e) {
+            logger.warn("Transaction {} left PENDING: {}", transactionId, e.getMessage());
+            throw e;
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(
+                    status -> transactionService.completeTransaction(transactionId, TransactionStatus.FAILED));
+            throw e;
+        }
+    }
+
+    /**
+     * Add the amount to the wallet's balance and mark the transaction SUCCESS.
+     * {@code routedGateway} is the gateway that took the payment if it differs
+     * from the requested one, otherwise null.
+     */
+    private Transaction applyCredit(Long walletId, Long transactionId, Money amount, PaymentGateway routedGateway,
+            String accountNumber) {
+        balanceUpdateStrategy.credit(walletId, amount);
+        walletJournal.recordCredit(walletId, transactionId, amount);
+
+        if (routedGateway == null) {
+            return transactionService.completeTransaction(transactionId, TransactionStatus.SUCCESS);
+        }
+        // Record the gateway that actually took the payment
+        return transactionService.completeTransaction(transactionId, TransactionStatus.SUCCESS, routedGateway,
+                describe(routedGateway, accountNumber));
+    }
+
     /**
      * Map transaction entity to response DTO.
      */
@@ -1,19 +1,44 @@
 package com.task.walletmanagement.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.walletmanagement.dto.TransactionPageResponse;
 import com.task.walletmanagement.dto.TransactionResponse;
+import com.task.walletmanagement.dto.TransactionSummaryEntry;
+import com.task.walletmanagement.dto.TransactionSummaryResponse;
 import com.task.walletmanagement.entity.Transaction;
 import com.task.walletmanagement.entity.Wallet;
+import com.task.walletmanagement.enums.OutboxEventType;
 import com.task.walletmanagement.enums.PaymentGateway;
 import com.task.walletmanagement.enums.TransactionStatus;
 import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.exception.TransactionNotFoundException;
+import com.task.walletmanagement.repository.OutboxRepository;
+import com.task.walletmanagement.repository.TransactionExportRepository;
 import com.task.walletmanagement.repository.TransactionRepository;
+import com.task.walletmanagement.repository.TransactionSummaryRepository;
+import com.task.walletmanagement.repository.TransactionSummaryRepository.Delta;
+import com.task.walletmanagement.service.balance.BalanceShards;
+import com.task.walletmanagement.util.Money;
+import com.task.walletmanagement.util.TransactionCursor;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -23,39 +48,156 @@ import java.util.stream.Collectors;
 public class TransactionService {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
     private final TransactionRepository transactionRepository;
+    private final TransactionExportRepository transactionExportRepository;
+    private final TransactionSummaryRepository transactionSummaryRepository;
+    private final BalanceShards balanceShards;
+    private final OutboxRepository outboxRepository;
     private final WalletService walletService;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final int jdbcBatchSize;
 
-    public TransactionService(TransactionRepository transactionRepository, WalletService walletService) {
+    public TransactionService(TransactionRepository transactionRepository,
+            TransactionExportRepository transactionExportRepository,
+            TransactionSummaryRepository transactionSummaryRepository,
+            BalanceShards balanceShards,
+            OutboxRepository outboxRepository,
+            WalletService walletService,
+            ObjectMapper objectMapper,
+            EntityManager entityManager,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int jdbcBatchSize) {
         this.transactionRepository = transactionRepository;
+        this.transactionExportRepository = transactionExportRepository;
+        this.transactionSummaryRepository = transactionSummaryRepository;
+        this.balanceShards = balanceShards;
+        this.outboxRepository = outboxRepository;
         this.walletService = walletService;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.jdbcBatchSize = Math.max(1, jdbcBatchSize);
     }
 
     /**
-     * Get all transactions for a wallet.
+     * Get one page of a wallet's transactions, newest first. Pages are addressed
+     * by a keyset cursor, so the cost of a page does not depend on how deep into
+     * the history it is.
      */
     @Transactional(readOnly = true)
-    public List<TransactionResponse> getTransactionsByWalletId(Long walletId) {
-        logger.info("Fetching transactions for wallet ID: {}", walletId);
+    public TransactionPageResponse getTransactionsByWalletId(Long walletId, String cursor, int limit) {
+        logger.debug("Fetching transactions for wallet ID: {}", walletId);
 
         // Validate wallet exists
-        walletService.getWalletById(walletId);
+        walletService.ensureWalletExists(walletId);
 
-        List<Transaction> transactions = transactionRepository.findByWalletIdOrderByCreatedAtDesc(walletId);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page follows
+        Limit fetchLimit = Limit.of(pageSize + 1);
 
-        return transactions.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        List<Transaction> transactions;
+        if (cursor == null || cursor.isBlank()) {
+            transactions = transactionRepository.findPageByWalletId(walletId, fetchLimit);
+        } else {
+            TransactionCursor after = TransactionCursor.decode(cursor);
+            transactions = transactionRepository.findPageByWalletIdAfter(
+                    walletId, after.getCreatedAt(), after.getId(), fetchLimit);
+        }
+
+        boolean hasMore = transactions.size() > pageSize;
+        List<Transaction> page = hasMore ? transactions.subList(0, pageSize) : transactions;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Transaction last = page.get(page.size() - 1);
+            nextCursor = new TransactionCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new TransactionPageResponse(
+                page.stream().map(this::mapToResponse).collect(Collectors.toList()),
+                nextCursor,
+                hasMore);
+    }
+
+    /**
+     * Write a wallet's full transaction history to the output stream as
+     * newline-delimited JSON, newest first, reading rows from a JDBC cursor.
+     */
+    public void exportTransactions(Long walletId, OutputStream outputStream) throws IOException {
+        logger.info("Exporting transactions for wallet ID: {}", walletId);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            transactionExportRepository.streamByWalletId(walletId, transaction -> {
+                try {
+                    objectMapper.writeValue(generator, transaction);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Get a wallet's transaction totals per day, gateway, type and status
+     * between two days (inclusive; null for unbounded), plus the same totals
+     * over the whole range. Read from the summary table, so the cost depends
+     * on the number of active days in the range, not on the number of
+     * transactions.
+     */
+    public TransactionSummaryResponse getTransactionSummary(Long walletId, LocalDate from, LocalDate to) {
+        // Validate wallet exists
+        walletService.ensureWalletExists(walletId);
+
+        List<TransactionSummaryEntry> days = transactionSummaryRepository.findByWalletId(walletId, from, to);
+
+        Map<List<Object>, TransactionSummaryEntry> totals = new LinkedHashMap<>();
+        for (TransactionSummaryEntry day : days) {
+            totals.merge(Arrays.asList(day.getPaymentGateway(), day.getType(), day.getStatus()),
+                    new TransactionSummaryEntry(null, day.getPaymentGateway(), day.getType(), day.getStatus(),
+                            day.getCount(), day.getTotalAmount()),
+                    (total, next) -> new TransactionSummaryEntry(null, total.getPaymentGateway(), total.getType(),
+                            total.getStatus(), total.getCount() + next.getCount(),
+                            total.getTotalAmount().plus(next.getTotalAmount())));
+        }
+
+        return new TransactionSummaryResponse(walletId, from, to, new ArrayList<>(totals.values()), days);
+    }
+
+    /**
+     * Get a single transaction belonging to a wallet.
+     */
+    @Transactional(readOnly = true)
+    public TransactionResponse getTransaction(Long walletId, Long transactionId) {
+        Transaction transaction = transactionRepository.findByIdAndWalletId(transactionId, walletId)
+                .orElseThrow(() -> new TransactionNotFoundException(walletId, transactionId));
+
+        return mapToResponse(transaction);
+    }
+
+    /**
+     * Find the transaction recorded for a funding request's Idempotency-Key.
+     */
+    @Transactional(readOnly = true)
+    public Optional<TransactionResponse> findByIdempotencyKey(Long walletId, String idempotencyKey) {
+        return transactionRepository.findByWalletIdAndIdempotencyKey(walletId, idempotencyKey)
+                .map(this::mapToResponse);
     }
 
     /**
-     * Create a new transaction.
+     * Create a new transaction, count it in the wallet's summary and append a
+     * TRANSACTION_CREATED event to the outbox. The idempotency key may be null.
      */
     @Transactional
-    public Transaction createTransaction(Wallet wallet, BigDecimal amount, TransactionType type,
+    public Transaction createTransaction(Wallet wallet, Money amount, TransactionType type,
             String description, PaymentGateway paymentGateway,
-            TransactionStatus status) {
-        logger.info("Creating transaction for wallet ID: {}, amount: {}, type: {}, status: {}",
+            TransactionStatus status, String idempotencyKey) {
+        logger.debug("Creating transaction for wallet ID: {}, amount: {}, type: {}, status: {}",
                 wallet.getId(), amount, type, status);
 
         Transaction transaction = new Transaction();
@@ -65,13 +207,84 @@ public class TransactionService {
         transaction.setDescription(description);
         transaction.setPaymentGateway(paymentGateway);
         transaction.setStatus(status);
+        transaction.setIdempotencyKey(idempotencyKey);
 
         Transaction savedTransaction = transactionRepository.save(transaction);
-        logger.info("Transaction created with ID: {}", savedTransaction.getId());
+        transactionSummaryRepository.apply(List.of(Delta.added(savedTransaction)), balanceShards::summaryShard);
+        outboxRepository.append(OutboxEventType.TRANSACTION_CREATED, savedTransaction);
+        logger.debug("Transaction created with ID: {}", savedTransaction.getId());
 
         return savedTransaction;
     }
 
+    /**
+     * Insert many new transactions, count them in their wallets' summaries
+     * and append a TRANSACTION_CREATED event for each to the outbox. IDs come
+     * from the pooled sequence, so Hibernate sends the inserts in JDBC batches
+     * of {@code hibernate.jdbc.batch_size}; the persistence context is flushed
+     * and cleared after every batch to keep memory flat, which detaches any
+     * entity the caller loaded in the same transaction.
+     */
+    @Transactional
+    public List<Transaction> createTransactions(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return transactions;
+        }
+        for (int i = 0; i < transactions.size(); i++) {
+            entityManager.persist(transactions.get(i));
+            if ((i + 1) % jdbcBatchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        transactionSummaryRepository.apply(transactions.stream().map(Delta::added).toList(),
+                balanceShards::summaryShard);
+        outboxRepository.appendAll(OutboxEventType.TRANSACTION_CREATED, transactions);
+        logger.info("Created {} transactions in batches of {}", transactions.size(), jdbcBatchSize);
+        return transactions;
+    }
+
+    /**
+     * Move a transaction to its final status and append a
+     * TRANSACTION_COMPLETED event to the outbox. A FAILED transaction releases
+     * its idempotency key.
+     */
+    @Transactional
+    public Transaction completeTransaction(Long transactionId, TransactionStatus status) {
+        return completeTransaction(transactionId, status, null, null);
+    }
+
+    /**
+     * Move a transaction to its final status and record the gateway that took
+     * the payment when it differs from the requested one (AUTO routing or
+     * failover). A null gateway leaves gateway and description unchanged.
+     */
+    @Transactional
+    public Transaction completeTransaction(Long transactionId, TransactionStatus status,
+            PaymentGateway paymentGateway, String description) {
+        Transaction transaction = transactionRepository.findById(transactionId)
+                .orElseThrow(() -> new TransactionNotFoundException(transactionId));
+
+        Delta removed = Delta.removed(transaction);
+        transaction.setStatus(status);
+        if (paymentGateway != null) {
+            transaction.setPaymentGateway(paymentGateway);
+            transaction.setDescription(description);
+        }
+        if (status == TransactionStatus.FAILED) {
+            // Release the key so the client can retry the same request
+            transaction.setIdempotencyKey(null);
+        }
+        transactionSummaryRepository.apply(List.of(removed, Delta.added(transaction)), balanceShards::summaryShard);
+        outboxRepository.append(OutboxEventType.TRANSACTION_COMPLETED, transaction);
+        logger.debug("Transaction {} marked {}", transactionId, status);
+
+        return transaction;
+    }
+
     /**
      * Map transaction entity to response DTO.
      */
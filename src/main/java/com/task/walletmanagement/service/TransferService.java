@@ -0,0 +1,147 @@
+package com.task.walletmanagement.service;
+
+import com.task.walletmanagement.dto.TransactionResponse;
+import com.task.walletmanagement.dto.TransferRequest;
+import com.task.walletmanagement.dto.TransferResponse;
+import com.task.walletmanagement.entity.Transaction;
+import com.task.walletmanagement.entity.Wallet;
+import com.task.walletmanagement.enums.TransactionStatus;
+import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.exception.InsufficientFundsException;
+import com.task.walletmanagement.exception.PaymentProcessingException;
+import com.task.walletmanagement.exception.WalletNotFoundException;
+import com.task.walletmanagement.repository.WalletRepository;
+import com.task.walletmanagement.service.balance.BalanceUpdateStrategy;
+import com.task.walletmanagement.service.journal.WalletJournal;
+import com.task.walletmanagement.util.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for wallet-to-wallet transfers.
+ *
+ * A transfer runs in one database transaction: both wallet rows are locked in
+ * ascending ID order, the source is debited and the destination credited via
+ * the configured {@link BalanceUpdateStrategy}, and a SUCCESS DEBIT and CREDIT
+ * transaction pair is recorded with its journal events. Every transfer takes
+ * the two locks in the same global order, so two transfers between the same
+ * wallets in opposite directions wait for each other instead of deadlocking.
+ */
+@Service
+public class TransferService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferService.class);
+    private final WalletRepository walletRepository;
+    private final TransactionService transactionService;
+    private final BalanceUpdateStrategy balanceUpdateStrategy;
+    private final WalletJournal walletJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public TransferService(WalletRepository walletRepository,
+            TransactionService transactionService,
+            BalanceUpdateStrategy balanceUpdateStrategy,
+            WalletJournal walletJournal,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.walletRepository = walletRepository;
+        this.transactionService = transactionService;
+        this.balanceUpdateStrategy = balanceUpdateStrategy;
+        this.walletJournal = walletJournal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Move funds from one wallet to another atomically.
+     *
+     * Latency is recorded as the {@code wallet.transfer} timer, tagged with
+     * {@code outcome=success|insufficient_funds|failure}.
+     *
+     * @throws InsufficientFundsException if the source balance does not cover
+     *                                    the amount
+     */
+    public TransferResponse transfer(Long fromWalletId, TransferRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            TransferResponse response = transactionTemplate.execute(
+                    status -> applyTransfer(fromWalletId, request.getToWalletId(), Money.of(request.getAmount())));
+            outcome = "success";
+            return response;
+        } catch (InsufficientFundsException e) {
+            outcome = "insufficient_funds";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("wallet.transfer")
+                    .description("Wallet-to-wallet transfer latency")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private TransferResponse applyTransfer(Long fromWalletId, Long toWalletId, Money amount) {
+        if (fromWalletId.equals(toWalletId)) {
+            throw new PaymentProcessingException("Cannot transfer to the same wallet");
+        }
+
+        // Lock in ascending ID order regardless of direction. Each wallet's
+        // balance is updated, which may lock its shard rows, before the next
+        // wallet row is locked: see BalanceShards for the lock order.
+        Wallet first = lockWallet(Math.min(fromWalletId, toWalletId));
+        updateBalance(first.getId(), fromWalletId, toWalletId, amount);
+        Wallet second = lockWallet(Math.max(fromWalletId, toWalletId));
+        updateBalance(second.getId(), fromWalletId, toWalletId, amount);
+        Wallet from = first.getId().equals(fromWalletId) ? first : second;
+        Wallet to = from == first ? second : first;
+
+        Transaction debit = transactionService.createTransaction(from, amount, TransactionType.DEBIT,
+                "Transfer to wallet " + toWalletId, null, TransactionStatus.SUCCESS, null);
+        Transaction credit = transactionService.createTransaction(to, amount, TransactionType.CREDIT,
+                "Transfer from wallet " + fromWalletId, null, TransactionStatus.SUCCESS, null);
+        walletJournal.recordDebit(fromWalletId, debit.getId(), amount);
+        walletJournal.recordCredit(toWalletId, credit.getId(), amount);
+
+        logger.debug("Transferred {} from wallet {} to wallet {}", amount, fromWalletId, toWalletId);
+        return new TransferResponse(mapToResponse(debit), mapToResponse(credit));
+    }
+
+    /**
+     * Debit the wallet if it is the source of the transfer, credit it
+     * otherwise. A credit applied before the debit fails is rolled back with
+     * the transfer.
+     */
+    private void updateBalance(Long walletId, Long fromWalletId, Long toWalletId, Money amount) {
+        if (walletId.equals(fromWalletId)) {
+            if (!balanceUpdateStrategy.debit(fromWalletId, amount)) {
+                throw new InsufficientFundsException(fromWalletId, amount);
+            }
+        } else {
+            balanceUpdateStrategy.credit(toWalletId, amount);
+        }
+    }
+
+    private Wallet lockWallet(Long walletId) {
+        return walletRepository.findByIdWithLock(walletId)
+                .orElseThrow(() -> new WalletNotFoundException(walletId));
+    }
+
+    /**
+     * Map transaction entity to response DTO.
+     */
+    private TransactionResponse mapToResponse(Transaction transaction) {
+        return new TransactionResponse(
+                transaction.getId(),
+                transaction.getAmount(),
+                transaction.getType(),
+                transaction.getDescription(),
+                transaction.getPaymentGateway(),
+                transaction.getStatus(),
+                transaction.getCreatedAt());
+    }
+}
@@ -0,0 +1,92 @@
+package com.task.walletmanagement.service;
+
+import com.task.walletmanagement.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bloom filters over the keys of the unique constraints checked before an
+ * insert: wallet emails and {@code (account_number, bank)} pairs.
+ *
+ * A key the filter has never seen is definitely not taken on this instance,
+ * so the pre-check query can be skipped; the database unique constraint stays
+ * the final guard against keys inserted elsewhere or concurrently. The
+ * filters are warmed from the tables at startup and keys are added as rows
+ * are inserted.
+ */
+@Component
+public class UniquenessFilters {
+
+    private static final Logger logger = LoggerFactory.getLogger(UniquenessFilters.class);
+
+    static final String EMAILS_SQL = "SELECT email FROM wallets";
+    static final String BANK_ACCOUNTS_SQL = "SELECT account_number, bank FROM bank_accounts";
+    private static final int FETCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BloomFilter emails;
+    private final BloomFilter bankAccounts;
+
+    public UniquenessFilters(JdbcTemplate jdbcTemplate,
+            @Value("${wallet.uniqueness.bloom.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${wallet.uniqueness.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.emails = BloomFilter.create(expectedInsertions, falsePositiveRate);
+        this.bankAccounts = BloomFilter.create(expectedInsertions, falsePositiveRate);
+    }
+
+    /**
+     * Load every existing email and bank account into the filters.
+     */
+    @PostConstruct
+    void warmUp() {
+        long start = System.nanoTime();
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(FETCH_SIZE);
+        long[] counts = new long[2];
+        streaming.query(EMAILS_SQL, rs -> {
+            emails.put(rs.getString(1));
+            counts[0]++;
+        });
+        streaming.query(BANK_ACCOUNTS_SQL, rs -> {
+            bankAccounts.put(bankAccountKey(rs.getString(1), rs.getString(2)));
+            counts[1]++;
+        });
+        logger.info("Uniqueness filters warmed with {} emails and {} bank accounts in {} ms",
+                counts[0], counts[1], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * False if the email is definitely not taken by a wallet this instance
+     * has seen.
+     */
+    public boolean mightContainEmail(String email) {
+        return emails.mightContain(email);
+    }
+
+    public void addEmail(String email) {
+        emails.put(email);
+    }
+
+    /**
+     * False if the account is definitely not linked to a wallet this instance
+     * has seen.
+     */
+    public boolean mightContainBankAccount(String accountNumber, String bank) {
+        return bankAccounts.mightContain(bankAccountKey(accountNumber, bank));
+    }
+
+    public void addBankAccount(String accountNumber, String bank) {
+        bankAccounts.put(bankAccountKey(accountNumber, bank));
+    }
+
+    private static String bankAccountKey(String accountNumber, String bank) {
+        return accountNumber + '\u0000' + bank;
+    }
+}
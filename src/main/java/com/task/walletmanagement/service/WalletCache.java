@@ -0,0 +1,194 @@
+package com.task.walletmanagement.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.task.walletmanagement.entity.Wallet;
+import com.task.walletmanagement.util.ConcurrentBitSet;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory view of wallet rows for read-heavy lookups.
+ *
+ * Wallets are cached by ID as detached copies (size- and TTL-bounded), with
+ * an email to ID index; emails never change, so the index needs no
+ * invalidation. Wallets are never deleted, so the IDs seen so far are kept in
+ * a bitmap that answers existence checks without a query.
+ *
+ * A balance update evicts its wallets once the transaction commits. To keep a
+ * reader from re-caching a row it read before that commit, every eviction
+ * bumps the generation of its wallet's stripe and {@link #put} only keeps
+ * entries whose stripe has not moved since the read started. Generations
+ * are striped by wallet ID, so updates to other wallets rarely stop a read
+ * from being cached. A read by email whose wallet ID is not known yet is
+ * checked against a global generation instead.
+ */
+@Component
+public class WalletCache {
+
+    private static final int WALLET_CACHE_SIZE = 100_000;
+    private static final Duration WALLET_CACHE_TTL = Duration.ofMinutes(10);
+    private static final int INITIAL_ID_CAPACITY = 1 << 16;
+    private static final int GENERATION_STRIPES = 4096;
+
+    private final Cache<Long, Wallet> walletsById = Caffeine.newBuilder()
+            .maximumSize(WALLET_CACHE_SIZE)
+            .expireAfterWrite(WALLET_CACHE_TTL)
+            .recordStats()
+            .build();
+    private final Cache<String, Long> idsByEmail = Caffeine.newBuilder()
+            .maximumSize(WALLET_CACHE_SIZE)
+            .build();
+    private final ConcurrentBitSet existingIds = new ConcurrentBitSet(INITIAL_ID_CAPACITY);
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong globalGeneration = new AtomicLong();
+
+    public WalletCache(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, walletsById, "wallets");
+    }
+
+    /**
+     * Copy of the cached wallet, if present.
+     */
+    public Optional<Wallet> get(Long walletId) {
+        return Optional.ofNullable(walletsById.getIfPresent(walletId)).map(WalletCache::copyOf);
+    }
+
+    /**
+     * ID of the wallet with this email, if it has been looked up before.
+     */
+    public Optional<Long> getIdByEmail(String email) {
+        return Optional.ofNullable(idsByEmail.getIfPresent(email));
+    }
+
+    /**
+     * Generation to take before loading a wallet that will be passed to
+     * {@link #put}. {@code walletId} is null when the wallet is looked up by
+     * an email not seen before.
+     */
+    public ReadStamp readStamp(Long walletId) {
+        return new ReadStamp(walletId, walletId == null ? globalGeneration.get() : generations.get(stripe(walletId)));
+    }
+
+    /**
+     * Cache a copy of a wallet loaded from the database, unless a balance
+     * update to it may have been evicted since {@code readStamp} was taken.
+     */
+    public void put(Wallet wallet, ReadStamp readStamp) {
+        markExists(wallet.getId());
+        idsByEmail.put(wallet.getEmail(), wallet.getId());
+        if (!readStamp.isCurrent(this, wallet.getId())) {
+            return;
+        }
+        walletsById.put(wallet.getId(), copyOf(wallet));
+        // An eviction that raced with the put may have run before it
+        if (!readStamp.isCurrent(this, wallet.getId())) {
+            walletsById.invalidate(wallet.getId());
+        }
+    }
+
+    /**
+     * Cache a newly created wallet once the creating transaction commits.
+     */
+    public void putAfterCommit(Wallet wallet) {
+        Wallet copy = copyOf(wallet);
+        ReadStamp readStamp = readStamp(wallet.getId());
+        afterCommit(() -> put(copy, readStamp));
+    }
+
+    /**
+     * Whether the wallet is known to exist. A false answer only means it has
+     * not been seen yet.
+     */
+    public boolean exists(Long walletId) {
+        return walletId > 0 && walletId <= Integer.MAX_VALUE && existingIds.get(walletId.intValue());
+    }
+
+    /**
+     * Remember that a wallet exists.
+     */
+    public void markExists(Long walletId) {
+        if (walletId > 0 && walletId <= Integer.MAX_VALUE) {
+            existingIds.set(walletId.intValue());
+        }
+    }
+
+    /**
+     * Drop the cached wallet once the current transaction commits.
+     */
+    public void evictAfterCommit(Long walletId) {
+        afterCommit(() -> {
+            advance(walletId);
+            walletsById.invalidate(walletId);
+        });
+    }
+
+    /**
+     * Drop the cached wallets once the current transaction commits.
+     */
+    public void evictAfterCommit(Collection<Long> walletIds) {
+        afterCommit(() -> {
+            walletIds.forEach(this::advance);
+            walletsById.invalidateAll(walletIds);
+        });
+    }
+
+    private void advance(Long walletId) {
+        generations.incrementAndGet(stripe(walletId));
+        globalGeneration.incrementAndGet();
+    }
+
+    private static int stripe(Long walletId) {
+        return Long.hashCode(walletId) & (GENERATION_STRIPES - 1);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Detached copy of the wallet's columns, without its collections.
+     */
+    private static Wallet copyOf(Wallet wallet) {
+        Wallet copy = new Wallet();
+        copy.setId(wallet.getId());
+        copy.setEmail(wallet.getEmail());
+        copy.setPhoneNumber(wallet.getPhoneNumber());
+        copy.setBalance(wallet.getBalance());
+        copy.setVersion(wallet.getVersion());
+        copy.setCreatedAt(wallet.getCreatedAt());
+        copy.setUpdatedAt(wallet.getUpdatedAt());
+        return copy;
+    }
+
+    /**
+     * Generation of a wallet's stripe, or the global generation when the
+     * wallet ID was not known, at the start of a read.
+     */
+    public record ReadStamp(Long walletId, long generation) {
+
+        private boolean isCurrent(WalletCache cache, Long loadedWalletId) {
+            return walletId == null
+                    ? cache.globalGeneration.get() == generation
+                    : walletId.equals(loadedWalletId) && cache.generations.get(stripe(walletId)) == generation;
+        }
+    }
+}
@@ -6,12 +6,16 @@ import com.task.walletmanagement.entity.Wallet;
 import com.task.walletmanagement.exception.DuplicateEmailException;
 import com.task.walletmanagement.exception.WalletNotFoundException;
 import com.task.walletmanagement.repository.WalletRepository;
+import com.task.walletmanagement.service.balance.BalanceUpdateStrategy;
+import com.task.walletmanagement.util.ConstraintViolations;
+import com.task.walletmanagement.util.Money;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.util.Optional;
 
 /**
  * Service for wallet operations.
@@ -21,54 +25,120 @@ public class WalletService {
 
     private static final Logger logger = LoggerFactory.getLogger(WalletService.class);
     private final WalletRepository walletRepository;
+    private final BalanceUpdateStrategy balanceUpdateStrategy;
+    private final WalletCache walletCache;
+    private final UniquenessFilters uniquenessFilters;
 
-    public WalletService(WalletRepository walletRepository) {
+    public WalletService(WalletRepository walletRepository, BalanceUpdateStrategy balanceUpdateStrategy,
+            WalletCache walletCache, UniquenessFilters uniquenessFilters) {
         this.walletRepository = walletRepository;
+        this.balanceUpdateStrategy = balanceUpdateStrategy;
+        this.walletCache = walletCache;
+        this.uniquenessFilters = uniquenessFilters;
     }
 
     /**
-     * Create a new wallet.
+     * Create a new wallet. The duplicate-email query is skipped when the
+     * email filter has never seen the email; the unique constraint on
+     * {@code wallets.email} catches anything the filter could not know about.
      */
     @Transactional
     public WalletResponse createWallet(CreateWalletRequest request) {
         logger.info("Creating wallet for email: {}", request.getEmail());
 
         // Check if wallet already exists with this email
-        if (walletRepository.existsByEmail(request.getEmail())) {
+        if (walletCache.getIdByEmail(request.getEmail()).isPresent()
+                || (uniquenessFilters.mightContainEmail(request.getEmail())
+                        && walletRepository.existsByEmail(request.getEmail()))) {
             throw new DuplicateEmailException(request.getEmail());
         }
 
         Wallet wallet = new Wallet();
         wallet.setEmail(request.getEmail());
         wallet.setPhoneNumber(request.getPhoneNumber());
-        wallet.setBalance(BigDecimal.ZERO);
+        wallet.setBalance(Money.ZERO);
 
-        Wallet savedWallet = walletRepository.save(wallet);
+        // Flush now: with sequence IDs the INSERT would otherwise run at commit, past this catch
+        Wallet savedWallet;
+        try {
+            savedWallet = walletRepository.saveAndFlush(wallet);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isUniqueViolation(e)) {
+                throw new DuplicateEmailException(request.getEmail());
+            }
+            throw e;
+        }
+        uniquenessFilters.addEmail(savedWallet.getEmail());
         logger.info("Wallet created successfully with ID: {}", savedWallet.getId());
+        walletCache.putAfterCommit(savedWallet);
 
         return mapToResponse(savedWallet);
     }
 
     /**
-     * Get wallet by email.
+     * Get wallet by email. Read through the wallet cache, so repeated lookups
+     * do not touch the database until a balance update evicts the wallet.
      */
-    @Transactional(readOnly = true)
     public WalletResponse getWalletByEmail(String email) {
         logger.info("Fetching wallet for email: {}", email);
 
+        Optional<Long> walletId = walletCache.getIdByEmail(email);
+        Optional<Wallet> cached = walletId.flatMap(walletCache::get);
+        if (cached.isPresent()) {
+            return mapToResponse(cached.get());
+        }
+
+        WalletCache.ReadStamp readStamp = walletCache.readStamp(walletId.orElse(null));
         Wallet wallet = walletRepository.findByEmail(email)
                 .orElseThrow(() -> new WalletNotFoundException("email", email));
+        walletCache.put(wallet, readStamp);
 
         return mapToResponse(wallet);
     }
 
     /**
-     * Get wallet by ID.
+     * Get wallet by ID. Returns a detached copy from the wallet cache when
+     * present; use {@link #getWalletReference} to associate the wallet with
+     * another entity.
      */
-    @Transactional(readOnly = true)
     public Wallet getWalletById(Long walletId) {
-        return walletRepository.findById(walletId)
+        Optional<Wallet> cached = walletCache.get(walletId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        WalletCache.ReadStamp readStamp = walletCache.readStamp(walletId);
+        Wallet wallet = walletRepository.findById(walletId)
                 .orElseThrow(() -> new WalletNotFoundException(walletId));
+        walletCache.put(wallet, readStamp);
+        return wallet;
+    }
+
+    /**
+     * Check that a wallet exists. Free for wallets already seen by this
+     * instance; otherwise one indexed query.
+     *
+     * @throws WalletNotFoundException if there is no such wallet
+     */
+    public void ensureWalletExists(Long walletId) {
+        if (walletCache.exists(walletId)) {
+            return;
+        }
+        if (!walletRepository.existsById(walletId)) {
+            throw new WalletNotFoundException(walletId);
+        }
+        walletCache.markExists(walletId);
+    }
+
+    /**
+     * Reference to an existing wallet for use as an association, without
+     * loading its row.
+     *
+     * @throws WalletNotFoundException if there is no such wallet
+     */
+    public Wallet getWalletReference(Long walletId) {
+        ensureWalletExists(walletId);
+        return walletRepository.getReferenceById(walletId);
     }
 
     /**
@@ -79,7 +149,7 @@ public class WalletService {
                 wallet.getId(),
                 wallet.getEmail(),
                 wallet.getPhoneNumber(),
-                wallet.getBalance(),
+                balanceUpdateStrategy.getBalance(wallet),
                 wallet.getCreatedAt(),
                 wallet.getUpdatedAt());
     }
@@ -0,0 +1,347 @@
+package com.task.walletmanagement.service.balance;
+
+import com.task.walletmanagement.util.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process wallet balance ledger.
+ *
+ * Balances are held as long minor units in shards keyed by wallet ID, each
+ * guarded by its own lock, so credits to different wallets only contend when
+ * they hash to the same shard and never wait on a database row lock. A
+ * wallet's balance is loaded once from the sum of its SUCCESS transactions,
+ * which stay the durable record; changed balances are written back to
+ * {@code wallets.balance}, in wallet ID order, in JDBC batches every
+ * {@code wallet.balance.ledger.flush-interval-ms} and on shutdown.
+ *
+ * A wallet's first load runs outside the shard lock, so a long history does
+ * not stall the other wallets of the shard. Accounts that were neither used
+ * nor changed for {@code wallet.balance.ledger.evict-idle-ms} are dropped by
+ * the flush and loaded again on next use; an account stays held between
+ * {@link #load} and {@link #release}, while its credit or debit is in flight.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.balance.strategy", havingValue = "ledger")
+public class BalanceLedger implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceLedger.class);
+
+    static final String LOAD_BALANCE_SQL = "SELECT COALESCE(SUM(CASE WHEN type = 'DEBIT' THEN -amount ELSE amount END), 0) "
+            + "FROM transactions WHERE wallet_id = ? AND status = 'SUCCESS'";
+    static final String FLUSH_BALANCE_SQL = "UPDATE wallets SET balance = ?, version = version + 1, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Shard[] shards;
+    private final long flushIntervalMillis;
+    private final int flushBatchSize;
+    private final long evictIdleNanos;
+    private long lastSweepNanos = System.nanoTime();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile ScheduledExecutorService flushScheduler;
+
+    public BalanceLedger(JdbcTemplate jdbcTemplate,
+            @Value("${wallet.balance.ledger.shards:0}") int shardCount,
+            @Value("${wallet.balance.ledger.flush-interval-ms:200}") long flushIntervalMillis,
+            @Value("${wallet.balance.ledger.flush-batch-size:500}") int flushBatchSize,
+            @Value("${wallet.balance.ledger.evict-idle-ms:600000}") long evictIdleMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.flushBatchSize = flushBatchSize;
+        this.evictIdleNanos = TimeUnit.MILLISECONDS.toNanos(evictIdleMillis);
+
+        int requested = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors() * 4;
+        this.shards = new Shard[Integer.highestOneBit(Math.max(1, requested - 1)) << 1];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * Load the wallet's balance into the ledger if it is not already held,
+     * and keep it from being evicted until {@link #release}. Must be called
+     * before a credit or debit to the wallet is committed, so the loaded sum
+     * cannot include it and the change is applied to the same account.
+     */
+    public void load(long walletId) {
+        Shard shard = shardFor(walletId);
+        Account account = lockAccount(shard, walletId);
+        try {
+            account.holds++;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Let the account be evicted again once idle; one call per {@link #load}.
+     */
+    public void release(long walletId) {
+        Shard shard = shardFor(walletId);
+        shard.lock.lock();
+        try {
+            Account account = shard.accounts.get(walletId);
+            if (account != null && account.holds > 0) {
+                account.holds--;
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Add minor units to the wallet's balance and return the new balance.
+     */
+    public long credit(long walletId, long minorUnits) {
+        Shard shard = shardFor(walletId);
+        Account account = lockAccount(shard, walletId);
+        try {
+            account.balance = Math.addExact(account.balance, minorUnits);
+            markDirty(shard, account);
+            return account.balance;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Subtract minor units from the wallet's balance if it is at least that
+     * large. Returns whether the balance was debited.
+     */
+    public boolean tryDebit(long walletId, long minorUnits) {
+        Shard shard = shardFor(walletId);
+        Account account = lockAccount(shard, walletId);
+        try {
+            if (account.balance < minorUnits) {
+                return false;
+            }
+            account.balance -= minorUnits;
+            markDirty(shard, account);
+            return true;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Current balance of the wallet in minor units.
+     */
+    public long getBalance(long walletId) {
+        Shard shard = shardFor(walletId);
+        Account account = lockAccount(shard, walletId);
+        try {
+            return account.balance;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Write every balance changed since the last flush to
+     * {@code wallets.balance}, then, once per {@code evict-idle-ms} and only
+     * if every write succeeded, drop the accounts not used since the previous
+     * sweep. Returns the number of
+     * wallets written.
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            List<Object[]> pending = new ArrayList<>();
+            for (Shard shard : shards) {
+                shard.lock.lock();
+                try {
+                    for (Account account : shard.dirty) {
+                        account.dirty = false;
+                        pending.add(new Object[] { account.walletId, account.balance });
+                    }
+                    shard.dirty.clear();
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+
+            // Row locks in ascending wallet ID order, like transfers take them, so the two cannot deadlock
+            pending.sort(Comparator.comparingLong(entry -> (long) entry[0]));
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (int from = 0; from < pending.size(); from += flushBatchSize) {
+                List<Object[]> batch = pending.subList(from, Math.min(from + flushBatchSize, pending.size()));
+                List<Object[]> args = new ArrayList<>(batch.size());
+                for (Object[] entry : batch) {
+                    args.add(new Object[] { Money.ofMinor((long) entry[1]).toBigDecimal(), now, entry[0] });
+                }
+                try {
+                    jdbcTemplate.batchUpdate(FLUSH_BALANCE_SQL, args);
+                } catch (RuntimeException e) {
+                    logger.error("Balance flush failed, {} wallets will be retried", pending.size() - from, e);
+                    pending.subList(from, pending.size()).forEach(entry -> markDirty((long) entry[0]));
+                    return from;
+                }
+            }
+
+            long sweepStart = System.nanoTime();
+            if (sweepStart - lastSweepNanos >= evictIdleNanos) {
+                lastSweepNanos = sweepStart;
+                for (Shard shard : shards) {
+                    shard.lock.lock();
+                    try {
+                        evictIdle(shard);
+                    } finally {
+                        shard.lock.unlock();
+                    }
+                }
+            }
+            return pending.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "balance-ledger-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        flushScheduler = scheduler;
+        logger.info("Balance ledger started with {} shards, flushing every {} ms", shards.length, flushIntervalMillis);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService scheduler = flushScheduler;
+        if (scheduler != null) {
+            scheduler.shutdown();
+            flushScheduler = null;
+        }
+        int flushed = flush();
+        logger.info("Balance ledger stopped, flushed {} wallets", flushed);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return flushScheduler != null;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Balance flush failed", e);
+        }
+    }
+
+    private void markDirty(long walletId) {
+        Shard shard = shardFor(walletId);
+        shard.lock.lock();
+        try {
+            Account account = shard.accounts.get(walletId);
+            if (account != null) {
+                markDirty(shard, account);
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Queue the account for the next flush. Call with the shard lock held.
+     */
+    private static void markDirty(Shard shard, Account account) {
+        if (!account.dirty) {
+            account.dirty = true;
+            shard.dirty.add(account);
+        }
+    }
+
+    /**
+     * Lock the shard and return the wallet's account, loading it on first
+     * use. The balance is read with the lock released and installed only if
+     * no other thread installed the account and nothing was evicted from the
+     * shard meanwhile; otherwise it is read again. Balances only change
+     * between {@link #load} and {@link #release}, with the account held, so a
+     * sum read while the account was absent and not evicted is still current.
+     * Returns with the shard lock held.
+     */
+    private Account lockAccount(Shard shard, long walletId) {
+        shard.lock.lock();
+        Account account = shard.accounts.get(walletId);
+        while (account == null) {
+            long evictions = shard.evictions;
+            shard.lock.unlock();
+            BigDecimal balance = jdbcTemplate.queryForObject(LOAD_BALANCE_SQL, BigDecimal.class, walletId);
+            shard.lock.lock();
+            account = shard.accounts.get(walletId);
+            if (account == null && shard.evictions == evictions) {
+                account = new Account(walletId, Money.of(balance).getMinorUnits());
+                shard.accounts.put(walletId, account);
+            }
+        }
+        account.used = true;
+        return account;
+    }
+
+    /**
+     * Drop the accounts that are clean, not held and not used since the last
+     * sweep, and clear the used mark of the rest. Call with the shard lock
+     * held.
+     */
+    private static void evictIdle(Shard shard) {
+        int before = shard.accounts.size();
+        shard.accounts.values().removeIf(account -> {
+            if (account.used || account.dirty || account.holds > 0) {
+                account.used = false;
+                return false;
+            }
+            return true;
+        });
+        if (shard.accounts.size() < before) {
+            shard.evictions++;
+        }
+    }
+
+    private Shard shardFor(long walletId) {
+        long hash = walletId * 0x9E3779B97F4A7C15L;
+        return shards[(int) (hash >>> 32) & (shards.length - 1)];
+    }
+
+    private static final class Shard {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, Account> accounts = new HashMap<>();
+        private final List<Account> dirty = new ArrayList<>();
+        private long evictions;
+    }
+
+    private static final class Account {
+        private final long walletId;
+        private long balance;
+        private boolean dirty;
+        private boolean used;
+        private int holds;
+
+        private Account(long walletId, long balance) {
+            this.walletId = walletId;
+            this.balance = balance;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.task.walletmanagement.service.balance;
+
+import com.task.walletmanagement.config.BalanceShardingProperties;
+import com.task.walletmanagement.exception.PaymentProcessingException;
+import com.task.walletmanagement.repository.WalletBalanceRepository;
+import com.task.walletmanagement.repository.WalletBalanceShardRepository;
+import com.task.walletmanagement.util.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance shard rows for hot wallets.
+ *
+ * A credit to a wallet listed in {@code wallet.balance.sharding.hot-wallet-ids},
+ * or passed to {@link #shard}, is added to one of its {@code shards} rows in {@code wallet_balance_shards},
+ * chosen at random, instead of to {@code wallets.balance}, so concurrent
+ * credits to the wallet wait for each other only when they pick the same
+ * shard. The wallet's balance is {@code wallets.balance} plus its shards,
+ * read in one statement. Every {@code compaction-interval-ms} each hot
+ * wallet's shards are moved into {@code wallets.balance}, taking the time
+ * recorded as the {@code wallet.balance.shards.compaction} timer; a debit
+ * does the same first, so it checks the whole balance. The wallet's
+ * transaction summary deltas are spread over as many summary shards (see
+ * {@link #summaryShard}), so the summary rows a credit updates are not a
+ * second per-wallet lock.
+ *
+ * Lock order: wallets in ascending ID order, and each wallet's row before
+ * its shard rows. A credit locks one shard row without the wallet row, so
+ * once a transaction has touched a wallet's shards it must not lock that
+ * wallet's row or a lower wallet's row or shards. {@link #fold} locks the
+ * wallet row and then every shard; transfers finish each wallet's balance
+ * update before locking the next wallet; group commit runs its units, each
+ * on one wallet, in wallet ID order.
+ *
+ * At startup, before the web server accepts requests, existing shards are
+ * folded into {@code wallets.balance} and deleted, and fresh shards are
+ * created for the configured wallets, so changing the list or the shard count
+ * takes effect on restart. Like the ledger, this assumes a single application
+ * instance.
+ */
+@Component
+public class BalanceShards implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceShards.class);
+    private final WalletBalanceShardRepository shardRepository;
+    private final WalletBalanceRepository walletBalanceRepository;
+    private final BalanceShardingProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer compactionTimer;
+    private final Set<Long> shardedWallets = ConcurrentHashMap.newKeySet();
+    private volatile ScheduledExecutorService compactionScheduler;
+
+    public BalanceShards(WalletBalanceShardRepository shardRepository,
+            WalletBalanceRepository walletBalanceRepository,
+            BalanceShardingProperties properties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        if (properties.shards() < 1) {
+            throw new IllegalArgumentException("wallet.balance.sharding.shards must be at least 1");
+        }
+        this.shardRepository = shardRepository;
+        this.walletBalanceRepository = walletBalanceRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.compactionTimer = Timer.builder("wallet.balance.shards.compaction")
+                .description("Time taken to move the shard balances of all hot wallets into wallets.balance")
+                .register(meterRegistry);
+    }
+
+    public boolean isSharded(Long walletId) {
+        return shardedWallets.contains(walletId);
+    }
+
+    /**
+     * Split the wallet's balance over shard rows from now on. Returns false
+     * if the wallet does not exist. Until the next restart the wallet stays
+     * sharded whether or not it is configured as hot.
+     */
+    public synchronized boolean shard(Long walletId) {
+        if (shardedWallets.contains(walletId)) {
+            return true;
+        }
+        boolean created = Boolean.TRUE.equals(transactionTemplate.execute(
+                status -> shardRepository.createShards(walletId, properties.shards())));
+        if (created) {
+            shardedWallets.add(walletId);
+        }
+        return created;
+    }
+
+    /**
+     * Add the amount to a random shard of the wallet. Call inside the
+     * transaction that applies the credit.
+     */
+    public void credit(Long walletId, Money amount) {
+        int shard = ThreadLocalRandom.current().nextInt(properties.shards());
+        if (!shardRepository.addToShard(walletId, shard, amount)) {
+            throw new PaymentProcessingException("Balance shard " + shard + " not found for wallet " + walletId);
+        }
+        logger.debug("Wallet {} balance shard {} credited with {}", walletId, shard, amount);
+    }
+
+    /**
+     * Summary shard for the wallet's next transaction summary deltas: one at
+     * random for a sharded wallet, 0 for any other. Summary shards are summed
+     * when read and never folded, so they cost at most {@code shards} rows per
+     * summary bucket.
+     */
+    public int summaryShard(Long walletId) {
+        return isSharded(walletId) ? ThreadLocalRandom.current().nextInt(properties.shards()) : 0;
+    }
+
+    /**
+     * Move the wallet's shard balances into {@code wallets.balance} and
+     * return the amount moved. Holds the wallet row and shard locks until the
+     * caller's transaction ends.
+     */
+    public Money fold(Long walletId) {
+        Money pending = shardRepository.lockShards(walletId);
+        if (!pending.equals(Money.ZERO)) {
+            walletBalanceRepository.addToBalance(walletId, pending);
+            shardRepository.clearShards(walletId);
+        }
+        return pending;
+    }
+
+    /**
+     * The wallet's balance including its shards.
+     */
+    public Money getBalance(Long walletId) {
+        return shardRepository.findTotalBalance(walletId)
+                .orElseThrow(() -> new PaymentProcessingException("Wallet not found with ID: " + walletId));
+    }
+
+    /**
+     * Fold the shards of every hot wallet, one transaction per wallet.
+     */
+    public void compact() {
+        compactionTimer.record(() -> {
+            for (Long walletId : shardedWallets) {
+                transactionTemplate.executeWithoutResult(status -> fold(walletId));
+            }
+        });
+    }
+
+    @Override
+    public void start() {
+        reshard();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wallet-balance-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::compactQuietly, properties.compactionIntervalMs(),
+                properties.compactionIntervalMs(), TimeUnit.MILLISECONDS);
+        compactionScheduler = scheduler;
+    }
+
+    /**
+     * Stop compacting; the shards are folded at the next startup.
+     */
+    @Override
+    public void stop() {
+        ScheduledExecutorService scheduler = compactionScheduler;
+        if (scheduler != null) {
+            scheduler.shutdown();
+            compactionScheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return compactionScheduler != null;
+    }
+
+    /**
+     * Start before the web server so resharding sees no concurrent credits.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void reshard() {
+        for (Long walletId : shardRepository.findShardedWallets()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                fold(walletId);
+                shardRepository.deleteShards(walletId);
+            });
+        }
+        for (Long walletId : new TreeSet<>(properties.hotWalletIds())) {
+            if (!shard(walletId)) {
+                logger.warn("Hot wallet {} does not exist; its balance is not sharded", walletId);
+            }
+        }
+        if (!shardedWallets.isEmpty()) {
+            logger.info("Balances of {} hot wallets split over {} shards each", shardedWallets.size(),
+                    properties.shards());
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            logger.error("Balance shard compaction failed", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.task.walletmanagement.service.balance;
+
+import com.task.walletmanagement.entity.Wallet;
+
+import com.task.walletmanagement.util.Money;
+
+import java.util.Map;
+
+/**
+ * Strategy interface for applying credits and debits to wallet balances.
+ *
+ * The active implementation is selected with {@code wallet.balance.strategy}.
+ */
+public interface BalanceUpdateStrategy {
+
+    /**
+     * Add the amount to the wallet's balance. Called inside the database
+     * transaction that marks the funding transaction SUCCESS.
+     */
+    void credit(Long walletId, Money amount);
+
+    /**
+     * Add each amount to its wallet's balance, in wallet ID order. Used by
+     * batch funding; implementations may apply the credits in one round trip.
+     */
+    default void creditAll(Map<Long, Money> amounts) {
+        amounts.forEach(this::credit);
+    }
+
+    /**
+     * Subtract the amount from the wallet's balance if the balance covers it.
+     * Returns false, changing nothing, if it does not. Called inside the
+     * transfer's database transaction, with the wallet row already locked.
+     */
+    boolean debit(Long walletId, Money amount);
+
+    /**
+     * Current balance of the wallet.
+     */
+    Money getBalance(Wallet wallet);
+}
@@ -0,0 +1,91 @@
+package com.task.walletmanagement.service.balance;
+
+import com.task.walletmanagement.entity.Wallet;
+import com.task.walletmanagement.util.Money;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Balance strategy backed by the in-memory {@link BalanceLedger}.
+ *
+ * The committed SUCCESS transaction is the durable record of a credit; the
+ * ledger is only updated once that commit has happened, and
+ * {@code wallets.balance} catches up through the ledger's write-behind flush.
+ * Debits are the exception: they are taken from the ledger before the commit,
+ * so two transfers cannot both spend the same funds, and given back if the
+ * transaction rolls back.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.balance.strategy", havingValue = "ledger")
+public class LedgerBalanceUpdateStrategy implements BalanceUpdateStrategy {
+
+    private final BalanceLedger balanceLedger;
+
+    public LedgerBalanceUpdateStrategy(BalanceLedger balanceLedger) {
+        this.balanceLedger = balanceLedger;
+    }
+
+    @Override
+    public void credit(Long walletId, Money amount) {
+        long minorUnits = amount.getMinorUnits();
+
+        // Load before this credit commits so the loaded sum cannot include it
+        balanceLedger.load(walletId);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                balanceLedger.credit(walletId, minorUnits);
+            } finally {
+                balanceLedger.release(walletId);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        balanceLedger.credit(walletId, minorUnits);
+                    }
+                } finally {
+                    balanceLedger.release(walletId);
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean debit(Long walletId, Money amount) {
+        long minorUnits = amount.getMinorUnits();
+        // Held until the transaction ends, so a give-back lands on the account it was taken from
+        balanceLedger.load(walletId);
+        if (!balanceLedger.tryDebit(walletId, minorUnits)) {
+            balanceLedger.release(walletId);
+            return false;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            balanceLedger.release(walletId);
+            return true;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status != STATUS_COMMITTED) {
+                        balanceLedger.credit(walletId, minorUnits);
+                    }
+                } finally {
+                    balanceLedger.release(walletId);
+                }
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public Money getBalance(Wallet wallet) {
+        return Money.ofMinor(balanceLedger.getBalance(wallet.getId()));
+    }
+}
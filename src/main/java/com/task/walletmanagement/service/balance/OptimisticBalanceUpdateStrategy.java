@@ -0,0 +1,198 @@
+package com.task.walletmanagement.service.balance;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.task.walletmanagement.config.OptimisticBalanceProperties;
+import com.task.walletmanagement.entity.Wallet;
+import com.task.walletmanagement.exception.PaymentProcessingException;
+import com.task.walletmanagement.repository.WalletBalanceRepository;
+import com.task.walletmanagement.repository.WalletBalanceRepository.VersionedBalance;
+import com.task.walletmanagement.service.WalletCache;
+import com.task.walletmanagement.util.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Balance strategy that updates {@code wallets.balance} without holding a row
+ * lock between the read and the write: the balance and version are read, and
+ * the update only applies if the row is still at that version. On a conflict
+ * the update is retried after a randomised exponential backoff.
+ *
+ * Conflicts are counted per wallet. A wallet that conflicts
+ * {@code contendedAfterConflicts} times within the contention window is
+ * treated as hot, and its updates are applied as one atomic
+ * {@code balance = balance + ?} statement that waits for the row lock, as the
+ * pessimistic strategy does, until the window expires; an update that runs
+ * out of attempts does the same. Conflicts and locked updates are counted as
+ * {@code wallet.balance.optimistic.conflicts} and
+ * {@code wallet.balance.optimistic.locked}. Updated wallets are evicted from
+ * the {@link WalletCache} on commit. Credits to hot wallets go to their
+ * {@link BalanceShards} instead, which need no version check.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.balance.strategy", havingValue = "optimistic")
+public class OptimisticBalanceUpdateStrategy implements BalanceUpdateStrategy {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticBalanceUpdateStrategy.class);
+    private static final int CONTENTION_TRACKING_SIZE = 10_000;
+    private final WalletBalanceRepository walletBalanceRepository;
+    private final WalletCache walletCache;
+    private final OptimisticBalanceProperties properties;
+    private final BalanceShards balanceShards;
+    private final Cache<Long, AtomicInteger> recentConflicts;
+    private final Counter conflictCounter;
+    private final Counter lockedCounter;
+    private final Timer lockWaitTimer;
+
+    public OptimisticBalanceUpdateStrategy(WalletBalanceRepository walletBalanceRepository,
+            WalletCache walletCache,
+            OptimisticBalanceProperties properties,
+            BalanceShards balanceShards,
+            MeterRegistry meterRegistry) {
+        this.walletBalanceRepository = walletBalanceRepository;
+        this.walletCache = walletCache;
+        this.properties = properties;
+        this.balanceShards = balanceShards;
+        this.recentConflicts = Caffeine.newBuilder()
+                .maximumSize(CONTENTION_TRACKING_SIZE)
+                .expireAfterWrite(Duration.ofMillis(properties.contentionWindowMs()))
+                .build();
+        this.conflictCounter = Counter.builder("wallet.balance.optimistic.conflicts")
+                .description("Versioned balance updates that lost to a concurrent update")
+                .register(meterRegistry);
+        this.lockedCounter = Counter.builder("wallet.balance.optimistic.locked")
+                .description("Balance updates that locked the wallet row instead of retrying")
+                .register(meterRegistry);
+        this.lockWaitTimer = Timer.builder("wallet.lock.wait")
+                .description("Time spent acquiring the wallet row lock")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void credit(Long walletId, Money amount) {
+        if (balanceShards.isSharded(walletId)) {
+            balanceShards.credit(walletId, amount);
+            return;
+        }
+        apply(walletId, amount);
+    }
+
+    /**
+     * A hot wallet's shards are folded into its balance first.
+     */
+    @Override
+    public boolean debit(Long walletId, Money amount) {
+        if (balanceShards.isSharded(walletId)) {
+            balanceShards.fold(walletId);
+        }
+        return apply(walletId, Money.ZERO.minus(amount));
+    }
+
+    /**
+     * Apply all credits as one batch of {@code balance = balance + ?} updates;
+     * they need no read, so there is no version to check.
+     */
+    @Override
+    public void creditAll(Map<Long, Money> amounts) {
+        int[] updated = walletBalanceRepository.addToBalances(amounts);
+        for (int count : updated) {
+            if (count == 0) {
+                throw new PaymentProcessingException("Wallet not found while applying batch credits");
+            }
+        }
+        walletCache.evictAfterCommit(amounts.keySet());
+        logger.debug("Balances of {} wallets updated in one batch", amounts.size());
+    }
+
+    @Override
+    public Money getBalance(Wallet wallet) {
+        return balanceShards.isSharded(wallet.getId())
+                ? balanceShards.getBalance(wallet.getId())
+                : wallet.getBalance();
+    }
+
+    /**
+     * Add the delta to the balance unless that would make it negative.
+     * Returns false, changing nothing, if it would.
+     */
+    private boolean apply(Long walletId, Money delta) {
+        if (!isContended(walletId)) {
+            for (int attempt = 1; attempt <= properties.maxAttempts(); attempt++) {
+                VersionedBalance current = walletBalanceRepository.findBalance(walletId)
+                        .orElseThrow(() -> walletNotFound(walletId));
+                if (current.balance().plus(delta).isNegative()) {
+                    return false;
+                }
+                if (walletBalanceRepository.addToBalanceIfVersion(walletId, delta, current.version())) {
+                    walletCache.evictAfterCommit(walletId);
+                    return true;
+                }
+                conflictCounter.increment();
+                if (recordConflict(walletId) || attempt == properties.maxAttempts()) {
+                    break;
+                }
+                backOff(attempt);
+            }
+        }
+
+        // Hot wallet or out of attempts: one atomic update, which waits for the row lock instead of conflicting
+        lockedCounter.increment();
+        if (delta.isNegative()) {
+            Optional<Money> newBalance = lockWaitTimer.record(
+                    () -> walletBalanceRepository.subtractFromBalance(walletId, Money.ZERO.minus(delta)));
+            if (newBalance.isEmpty()) {
+                return false;
+            }
+        } else {
+            lockWaitTimer.record(() -> walletBalanceRepository.addToBalance(walletId, delta))
+                    .orElseThrow(() -> walletNotFound(walletId));
+        }
+        walletCache.evictAfterCommit(walletId);
+        return true;
+    }
+
+    private boolean isContended(Long walletId) {
+        AtomicInteger conflicts = recentConflicts.getIfPresent(walletId);
+        return conflicts != null && conflicts.get() >= properties.contendedAfterConflicts();
+    }
+
+    /**
+     * Count a conflict on the wallet; returns true once the wallet has become
+     * contended. The window starts at the wallet's first counted conflict.
+     */
+    private boolean recordConflict(Long walletId) {
+        int conflicts = recentConflicts.get(walletId, id -> new AtomicInteger()).incrementAndGet();
+        if (conflicts == properties.contendedAfterConflicts()) {
+            logger.debug("Wallet {} is contended, locking its row for the next {} ms",
+                    walletId, properties.contentionWindowMs());
+        }
+        return conflicts >= properties.contendedAfterConflicts();
+    }
+
+    /**
+     * Pause for a random time up to the attempt's backoff, so that writers
+     * that conflicted together do not retry in lockstep.
+     */
+    private void backOff(int attempt) {
+        long bound = Math.min(properties.maxBackoffMicros(),
+                properties.initialBackoffMicros() << Math.min(attempt - 1, 20));
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(ThreadLocalRandom.current().nextLong(bound + 1)));
+    }
+
+    private static PaymentProcessingException walletNotFound(Long walletId) {
+        return new PaymentProcessingException("Wallet not found with ID: " + walletId);
+    }
+}
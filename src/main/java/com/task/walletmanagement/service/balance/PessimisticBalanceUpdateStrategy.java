@@ -0,0 +1,106 @@
+package com.task.walletmanagement.service.balance;
+
+import com.task.walletmanagement.entity.Wallet;
+import com.task.walletmanagement.exception.PaymentProcessingException;
+import com.task.walletmanagement.repository.WalletBalanceRepository;
+import com.task.walletmanagement.service.WalletCache;
+import com.task.walletmanagement.util.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Default balance strategy: updates {@code wallets.balance} with a single
+ * {@code balance = balance + ?} statement in the caller's transaction, which
+ * locks the row until commit. The wallet entity is never loaded, so a credit
+ * costs one round trip with no select, hydration or dirty check. The update,
+ * including any wait for the row lock, is recorded as the
+ * {@code wallet.lock.wait} timer. Updated wallets are evicted from the
+ * {@link WalletCache} on commit. Credits to hot wallets go to their
+ * {@link BalanceShards} instead.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.balance.strategy", havingValue = "pessimistic", matchIfMissing = true)
+public class PessimisticBalanceUpdateStrategy implements BalanceUpdateStrategy {
+
+    private static final Logger logger = LoggerFactory.getLogger(PessimisticBalanceUpdateStrategy.class);
+    private final WalletBalanceRepository walletBalanceRepository;
+    private final WalletCache walletCache;
+    private final BalanceShards balanceShards;
+    private final Timer lockWaitTimer;
+
+    public PessimisticBalanceUpdateStrategy(WalletBalanceRepository walletBalanceRepository,
+            WalletCache walletCache,
+            BalanceShards balanceShards,
+            MeterRegistry meterRegistry) {
+        this.walletBalanceRepository = walletBalanceRepository;
+        this.walletCache = walletCache;
+        this.balanceShards = balanceShards;
+        this.lockWaitTimer = Timer.builder("wallet.lock.wait")
+                .description("Time spent acquiring the wallet row lock")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void credit(Long walletId, Money amount) {
+        if (balanceShards.isSharded(walletId)) {
+            balanceShards.credit(walletId, amount);
+            return;
+        }
+        Money newBalance = lockWaitTimer.record(() -> walletBalanceRepository.addToBalance(walletId, amount))
+                .orElseThrow(() -> new PaymentProcessingException("Wallet not found with ID: " + walletId));
+        walletCache.evictAfterCommit(walletId);
+
+        logger.debug("Wallet {} balance updated to {}", walletId, newBalance);
+    }
+
+    /**
+     * Debit with {@code balance = balance - ?} guarded by
+     * {@code balance >= ?}, so the check and the update are one statement.
+     * A hot wallet's shards are folded into its balance first.
+     */
+    @Override
+    public boolean debit(Long walletId, Money amount) {
+        if (balanceShards.isSharded(walletId)) {
+            balanceShards.fold(walletId);
+        }
+        Optional<Money> newBalance = lockWaitTimer.record(
+                () -> walletBalanceRepository.subtractFromBalance(walletId, amount));
+        if (newBalance.isEmpty()) {
+            return false;
+        }
+        walletCache.evictAfterCommit(walletId);
+
+        logger.debug("Wallet {} balance updated to {}", walletId, newBalance.get());
+        return true;
+    }
+
+    /**
+     * Apply all credits as one batch of {@code balance = balance + ?} updates;
+     * each row is locked by its update rather than by a separate select.
+     */
+    @Override
+    public void creditAll(Map<Long, Money> amounts) {
+        int[] updated = walletBalanceRepository.addToBalances(amounts);
+        for (int count : updated) {
+            if (count == 0) {
+                throw new PaymentProcessingException("Wallet not found while applying batch credits");
+            }
+        }
+        walletCache.evictAfterCommit(amounts.keySet());
+        logger.info("Balances of {} wallets updated in one batch", amounts.size());
+    }
+
+    @Override
+    public Money getBalance(Wallet wallet) {
+        return balanceShards.isSharded(wallet.getId())
+                ? balanceShards.getBalance(wallet.getId())
+                : wallet.getBalance();
+    }
+}
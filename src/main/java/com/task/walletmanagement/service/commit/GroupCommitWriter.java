@@ -0,0 +1,258 @@
+package com.task.walletmanagement.service.commit;
+
+import com.task.walletmanagement.config.GroupCommitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Commits many short database transactions as one.
+ *
+ * With {@code wallet.funding.group-commit.enabled}, {@link #execute} queues
+ * its unit of work to a single writer thread and waits. The writer takes the
+ * first queued unit plus whatever arrives within {@code max-wait-micros}, up
+ * to {@code max-batch-size}, runs them in wallet ID order in one transaction
+ * and commits once, then hands each caller its own result. Running the units
+ * in wallet ID order makes the writer lock wallet rows, and the shard rows of
+ * hot wallets, in the same order as transfers and the ledger flush, so units
+ * must each touch the balance of one wallet only.
+ *
+ * If any unit fails, or the commit does, the whole batch is rolled back and
+ * every unit is run again in its own transaction, so a caller sees exactly
+ * the result or exception it would have without group commit. Items per
+ * commit are recorded as {@code wallet.commit.batch.size}, replayed batches
+ * as {@code wallet.commit.replays} and units that found the queue full, and
+ * committed on their own thread, as {@code wallet.commit.overflow}.
+ */
+@Component
+public class GroupCommitWriter implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitWriter.class);
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final GroupCommitProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Unit<?>> queue;
+    private final DistributionSummary batchSize;
+    private final Counter replays;
+    private final Counter overflow;
+    // Held to queue a unit and to stop, so no unit is queued after the writer has drained the queue
+    private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public GroupCommitWriter(GroupCommitProperties properties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new LinkedBlockingQueue<>(properties.queueCapacity());
+        this.batchSize = DistributionSummary.builder("wallet.commit.batch.size")
+                .description("Units of work committed together by the group-commit writer")
+                .register(meterRegistry);
+        this.replays = Counter.builder("wallet.commit.replays")
+                .description("Group commits that failed and were replayed one unit per transaction")
+                .register(meterRegistry);
+        this.overflow = Counter.builder("wallet.commit.overflow")
+                .description("Units of work committed by their caller because the group-commit queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the work in a database transaction and return its result once that
+     * transaction has committed. With group commit enabled the transaction is
+     * shared with other callers' work; {@code walletId} orders the work within
+     * it. Exceptions are thrown as they would be from
+     * {@link TransactionTemplate#execute}.
+     */
+    public <T> T execute(Long walletId, Supplier<T> work) {
+        Unit<T> unit = new Unit<>(walletId, work);
+        runningLock.readLock().lock();
+        try {
+            if (!running) {
+                return transactionTemplate.execute(status -> work.get());
+            }
+            if (!queue.offer(unit)) {
+                overflow.increment();
+                return transactionTemplate.execute(status -> work.get());
+            }
+        } finally {
+            runningLock.readLock().unlock();
+        }
+        try {
+            return unit.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::run, "group-commit-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+        logger.info("Group commit enabled: up to {} transactions or {} µs per commit", properties.maxBatchSize(),
+                properties.maxWaitMicros());
+    }
+
+    /**
+     * Stop taking new work; the writer commits everything already queued
+     * before it exits.
+     */
+    @Override
+    public void stop() {
+        runningLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+        Thread thread = writerThread;
+        writerThread = null;
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writerThread != null;
+    }
+
+    /**
+     * Start before and stop after the web server, so every request's work is
+     * committed.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void run() {
+        List<Unit<?>> batch = new ArrayList<>(properties.maxBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                }
+            } catch (RuntimeException | Error e) {
+                logger.error("Group commit failed", e);
+                batch.forEach(unit -> unit.result.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Take the first waiting unit, then whatever arrives within
+     * {@code max-wait-micros} up to {@code max-batch-size}.
+     */
+    private void collect(List<Unit<?>> batch) {
+        try {
+            Unit<?> first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                return;
+            }
+            batch.add(first);
+            long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(properties.maxWaitMicros());
+            while (batch.size() < properties.maxBatchSize()) {
+                long remaining = deadline - System.nanoTime();
+                Unit<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            }
+        } catch (InterruptedException e) {
+            // Only stop() ends the writer, once the queue is drained; commit what was taken
+            logger.warn("Group-commit writer interrupted");
+        }
+    }
+
+    private void commit(List<Unit<?>> batch) {
+        batch.sort(Comparator.comparingLong(Unit::walletId));
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(Unit::apply));
+        } catch (RuntimeException e) {
+            logger.debug("Group commit of {} transactions failed, replaying them one by one: {}", batch.size(),
+                    e.toString());
+            replays.increment();
+            batch.forEach(unit -> unit.replay(transactionTemplate));
+            return;
+        }
+        batchSize.record(batch.size());
+        batch.forEach(Unit::complete);
+    }
+
+    /**
+     * One caller's work, its result once applied, and the future the caller
+     * waits on.
+     */
+    private static final class Unit<T> {
+
+        private final long walletId;
+        private final Supplier<T> work;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+
+        Unit(Long walletId, Supplier<T> work) {
+            this.walletId = walletId;
+            this.work = work;
+        }
+
+        long walletId() {
+            return walletId;
+        }
+
+        void apply() {
+            value = work.get();
+        }
+
+        void complete() {
+            result.complete(value);
+        }
+
+        void replay(TransactionTemplate transactionTemplate) {
+            try {
+                result.complete(transactionTemplate.execute(status -> work.get()));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
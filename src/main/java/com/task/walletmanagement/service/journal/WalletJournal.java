@@ -0,0 +1,240 @@
+package com.task.walletmanagement.service.journal;
+
+import com.task.walletmanagement.config.WalletJournalProperties;
+import com.task.walletmanagement.entity.Transaction;
+import com.task.walletmanagement.repository.WalletJournalRepository;
+import com.task.walletmanagement.repository.WalletJournalRepository.Snapshot;
+import com.task.walletmanagement.util.Money;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only journal of wallet balance changes, with periodic balance
+ * snapshots.
+ *
+ * Every credit and debit appends an event in the same database transaction as
+ * the balance update, so the journal and {@code wallets.balance} commit together.
+ * Once {@code wallet.journal.snapshot-every-events} events have accumulated
+ * after the latest snapshot, a new snapshot is built from that snapshot plus
+ * the events since, so neither a snapshot nor a rebuild ever replays the full
+ * history: the cost is the number of wallets plus the tail of the journal.
+ *
+ * At startup, before the web server accepts requests, all balances are
+ * rebuilt and compared with {@code wallets.balance}; mismatches are logged
+ * and, with {@code wallet.journal.repair-on-startup}, overwritten with the
+ * rebuilt balance.
+ */
+@Component
+public class WalletJournal implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalletJournal.class);
+    private static final int LOGGED_MISMATCHES = 10;
+
+    private final WalletJournalRepository walletJournalRepository;
+    private final WalletJournalProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer snapshotTimer;
+    private final AtomicLong mismatches = new AtomicLong();
+    private volatile ScheduledExecutorService snapshotScheduler;
+
+    /**
+     * Balances rebuilt from the journal, in minor units, as of event
+     * {@code lastEventId}. Wallets without a balance are absent.
+     */
+    public record Rebuild(Map<Long, Long> balances, long lastEventId) {
+    }
+
+    /**
+     * Outcome of comparing rebuilt balances with {@code wallets.balance}.
+     *
+     * @param mismatches rebuilt balance by wallet ID, for every wallet whose
+     *                   stored balance differs
+     */
+    public record Verification(long walletsChecked, Map<Long, Long> mismatches, long elapsedMillis) {
+    }
+
+    public WalletJournal(WalletJournalRepository walletJournalRepository,
+            WalletJournalProperties properties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.walletJournalRepository = walletJournalRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTimer = Timer.builder("wallet.journal.snapshot")
+                .description("Time taken to build and store a balance snapshot")
+                .register(meterRegistry);
+        Gauge.builder("wallet.journal.mismatches", mismatches, AtomicLong::get)
+                .description("Wallets whose stored balance differed from the journal at the last verification")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record a credit. Call inside the transaction that applies it.
+     */
+    public void recordCredit(Long walletId, Long transactionId, Money amount) {
+        walletJournalRepository.appendCredit(walletId, transactionId, amount);
+    }
+
+    /**
+     * Record a debit. Call inside the transaction that applies it.
+     */
+    public void recordDebit(Long walletId, Long transactionId, Money amount) {
+        walletJournalRepository.appendDebit(walletId, transactionId, amount);
+    }
+
+    /**
+     * Record one credit per transaction in a single batch. Call inside the
+     * transaction that applies them.
+     */
+    public void recordCredits(List<Transaction> transactions) {
+        walletJournalRepository.appendCredits(transactions);
+    }
+
+    /**
+     * Rebuild every balance from the latest snapshot plus all later events.
+     */
+    public Rebuild rebuild() {
+        Map<Long, Long> balances = new HashMap<>();
+        long lastEventId = 0;
+        Snapshot snapshot = walletJournalRepository.findLatestSnapshot().orElse(null);
+        if (snapshot != null) {
+            walletJournalRepository.loadSnapshot(snapshot.id(), balances);
+            lastEventId = snapshot.lastEventId();
+        }
+        walletJournalRepository.addEvents(lastEventId, Long.MAX_VALUE, balances);
+        return new Rebuild(balances, lastEventId);
+    }
+
+    /**
+     * Compare the rebuilt balances with {@code wallets.balance}. Only
+     * meaningful while no credits are being applied.
+     */
+    public Verification verify() {
+        long start = System.nanoTime();
+        Map<Long, Long> rebuilt = rebuild().balances();
+        Map<Long, Long> mismatched = new TreeMap<>();
+        long[] checked = new long[1];
+        walletJournalRepository.forEachWalletBalance((walletId, stored) -> {
+            checked[0]++;
+            long expected = rebuilt.getOrDefault(walletId, 0L);
+            if (stored != expected) {
+                mismatched.put(walletId, expected);
+            }
+        });
+        mismatches.set(mismatched.size());
+        return new Verification(checked[0], mismatched,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Store a new snapshot if at least {@code snapshot-every-events} events
+     * older than {@code snapshot-lag-ms} follow the latest one. Returns
+     * whether a snapshot was taken.
+     */
+    public synchronized boolean snapshotIfDue() {
+        Snapshot latest = walletJournalRepository.findLatestSnapshot().orElse(new Snapshot(0, 0));
+        Long boundary = walletJournalRepository.findSnapshotBoundary(latest.lastEventId(),
+                LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(properties.snapshotLagMs())));
+        // Event IDs are allocated in sequence, so this bounds the tail length
+        if (boundary == null || boundary - latest.lastEventId() < properties.snapshotEveryEvents()) {
+            return false;
+        }
+
+        snapshotTimer.record(() -> {
+            Map<Long, Long> balances = new HashMap<>();
+            if (latest.id() > 0) {
+                walletJournalRepository.loadSnapshot(latest.id(), balances);
+            }
+            walletJournalRepository.addEvents(latest.lastEventId(), boundary, balances);
+            transactionTemplate.executeWithoutResult(status -> {
+                walletJournalRepository.insertSnapshot(boundary, balances);
+                // Keep the snapshot the new one was built from
+                walletJournalRepository.deleteSnapshotsBefore(latest.id());
+            });
+            logger.info("Balance snapshot of {} wallets taken at journal event {}", balances.size(), boundary);
+        });
+        return true;
+    }
+
+    @Override
+    public void start() {
+        if (properties.verifyOnStartup()) {
+            verifyAndRepair();
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wallet-journal-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, properties.checkIntervalMs(),
+                properties.checkIntervalMs(), TimeUnit.MILLISECONDS);
+        snapshotScheduler = scheduler;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService scheduler = snapshotScheduler;
+        if (scheduler != null) {
+            scheduler.shutdown();
+            snapshotScheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return snapshotScheduler != null;
+    }
+
+    /**
+     * Start before the web server so the startup check sees no concurrent
+     * credits.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void verifyAndRepair() {
+        Verification verification = verify();
+        if (verification.mismatches().isEmpty()) {
+            logger.info("Journal verified {} wallet balances in {} ms", verification.walletsChecked(),
+                    verification.elapsedMillis());
+            return;
+        }
+        logger.error("Journal found {} of {} wallet balances that differ from the rebuilt balance, e.g. {}",
+                verification.mismatches().size(), verification.walletsChecked(),
+                verification.mismatches().entrySet().stream().limit(LOGGED_MISMATCHES)
+                        .map(entry -> entry.getKey() + "=" + Money.ofMinor(entry.getValue()))
+                        .toList());
+        if (properties.repairOnStartup()) {
+            walletJournalRepository.setBalances(verification.mismatches());
+            mismatches.set(0);
+            logger.warn("Repaired {} wallet balances from the journal", verification.mismatches().size());
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshotIfDue();
+        } catch (RuntimeException e) {
+            logger.error("Balance snapshot failed", e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.task.walletmanagement.service.outbox;
+
+import com.task.walletmanagement.event.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default sink: publishes each event as a Spring application event, for
+ * in-process listeners and tests.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.outbox.sink", havingValue = "in-process", matchIfMissing = true)
+public class ApplicationEventOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ApplicationEventOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,59 @@
+package com.task.walletmanagement.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.walletmanagement.config.OutboxProperties;
+import com.task.walletmanagement.event.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to a local file as newline-delimited JSON, one write and
+ * one sync per batch.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileOutboxSink(ObjectMapper objectMapper, OutboxProperties properties) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(properties.filePath());
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            for (OutboxEvent event : events) {
+                buffer.write(objectMapper.writeValueAsBytes(event));
+                buffer.write('\n');
+            }
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Writing outbox events to " + path + " failed", e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.task.walletmanagement.service.outbox;
+
+import com.task.walletmanagement.config.OutboxProperties;
+import com.task.walletmanagement.event.OutboxEvent;
+import com.task.walletmanagement.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the transactional outbox into the configured {@link OutboxSink} on
+ * a single background thread, so publishing never runs on a request thread.
+ *
+ * Events are read oldest first in batches of {@code wallet.outbox.batch-size}
+ * and deleted once the sink has accepted the batch. With one dispatcher,
+ * events reach the sink in the order they were appended, so the changes to
+ * a wallet's transactions arrive in the order they committed. When a batch
+ * is not full the dispatcher waits {@code wallet.outbox.linger-ms} before
+ * reading again; when the sink fails the batch is retried after
+ * {@code wallet.outbox.retry-backoff-ms}, which makes delivery at least once.
+ */
+@Component
+public class OutboxDispatcher implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxSink outboxSink;
+    private final OutboxProperties properties;
+    private final Timer publishTimer;
+    private final Counter dispatchedCounter;
+    private volatile Thread dispatcherThread;
+
+    public OutboxDispatcher(OutboxRepository outboxRepository,
+            OutboxSink outboxSink,
+            OutboxProperties properties,
+            MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.outboxSink = outboxSink;
+        this.properties = properties;
+        this.publishTimer = Timer.builder("wallet.outbox.publish")
+                .description("Time taken by the outbox sink to accept a batch")
+                .register(meterRegistry);
+        this.dispatchedCounter = Counter.builder("wallet.outbox.dispatched")
+                .description("Outbox events delivered to the sink")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Deliver the oldest batch of events and delete it. Returns the number of
+     * events delivered.
+     */
+    public int dispatchBatch() {
+        List<OutboxEvent> events = outboxRepository.findBatch(properties.batchSize());
+        if (events.isEmpty()) {
+            return 0;
+        }
+        publishTimer.record(() -> outboxSink.publish(events));
+        outboxRepository.deleteAll(events);
+        dispatchedCounter.increment(events.size());
+        return events.size();
+    }
+
+    @Override
+    public void start() {
+        Thread thread = new Thread(this::run, "outbox-dispatcher");
+        thread.setDaemon(true);
+        dispatcherThread = thread;
+        thread.start();
+        logger.info("Outbox dispatcher started with {}, batches of {}", outboxSink.getClass().getSimpleName(),
+                properties.batchSize());
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = dispatcherThread;
+        dispatcherThread = null;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return dispatcherThread != null;
+    }
+
+    private void run() {
+        while (dispatcherThread == Thread.currentThread()) {
+            long pauseMillis;
+            try {
+                int dispatched = dispatchBatch();
+                pauseMillis = dispatched < properties.batchSize() ? properties.lingerMs() : 0;
+            } catch (RuntimeException e) {
+                logger.error("Outbox dispatch failed, retrying in {} ms", properties.retryBackoffMs(), e);
+                pauseMillis = properties.retryBackoffMs();
+            }
+            if (pauseMillis > 0) {
+                try {
+                    Thread.sleep(pauseMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.task.walletmanagement.service.outbox;
+
+import com.task.walletmanagement.event.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination for outbox events, selected with {@code wallet.outbox.sink}.
+ *
+ * {@link #publish} receives events in the order they were appended. It should
+ * return only once the whole batch is delivered; if it throws, the same batch
+ * is offered again, so a sink may see an event more than once.
+ */
+public interface OutboxSink {
+
+    /**
+     * Deliver the batch.
+     */
+    void publish(List<OutboxEvent> events);
+}
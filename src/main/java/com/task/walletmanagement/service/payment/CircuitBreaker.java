@@ -0,0 +1,134 @@
+package com.task.walletmanagement.service.payment;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker for one payment gateway.
+ *
+ * CLOSED: calls pass and their outcomes are recorded in a ring of the last
+ * {@code slidingWindowSize} calls. Once at least {@code minimumCalls} are
+ * recorded and the failure rate reaches the threshold, the circuit opens.
+ * OPEN: calls are rejected until {@code openDuration} has passed.
+ * HALF_OPEN: up to {@code halfOpenCalls} trial calls pass; one failure opens
+ * the circuit again, all of them succeeding closes it.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final int halfOpenCalls;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+
+    // true marks a failed call
+    private final boolean[] window;
+    private int recorded;
+    private int failures;
+    private int next;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    CircuitBreaker(int failureRateThreshold, int slidingWindowSize, int minimumCalls, long openDurationMillis,
+            int halfOpenCalls, LongSupplier nanoClock) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[slidingWindowSize];
+        this.minimumCalls = Math.min(minimumCalls, slidingWindowSize);
+        this.openDurationNanos = openDurationMillis * 1_000_000L;
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Whether a call may go ahead. In HALF_OPEN this takes one of the trial
+     * permits, which must be returned with {@link #onSuccess},
+     * {@link #onFailure} or {@link #release}.
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openDurationNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    /**
+     * Give back a permit whose call was never made.
+     */
+    synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * Current state; an OPEN circuit whose open duration has passed reports
+     * HALF_OPEN.
+     */
+    synchronized State getState() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openDurationNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void transitionTo(State newState) {
+        state = newState;
+        openedAt = nanoClock.getAsLong();
+        recorded = 0;
+        failures = 0;
+        next = 0;
+    }
+}
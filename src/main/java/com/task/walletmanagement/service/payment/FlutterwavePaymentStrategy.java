@@ -19,13 +19,7 @@ public class FlutterwavePaymentStrategy implements PaymentGatewayStrategy {
 
     @Override
     public void processPayment(String accountNumber, BigDecimal amount) {
-        logger.info("===========================================");
-        logger.info("FLUTTERWAVE PAYMENT GATEWAY");
-        logger.info("===========================================");
-        logger.info("Processing payment via FLUTTERWAVE");
-        logger.info("Account Number: {}", accountNumber);
-        logger.info("Amount: {}", amount);
-        logger.info("===========================================");
+        logger.debug("FLUTTERWAVE: processing payment of {} from account {}", amount, accountNumber);
 
         // Simulate payment processing delay
         try {
@@ -36,11 +30,10 @@ public class FlutterwavePaymentStrategy implements PaymentGatewayStrategy {
 
         // Simulate random failure for testing rollback
         if (random.nextInt(10) == 0) {
-            logger.error("FLUTTERWAVE: Payment processing FAILED for account {}", accountNumber);
+            logger.debug("FLUTTERWAVE: payment declined for account {}", accountNumber);
             throw new PaymentProcessingException("Flutterwave payment failed: Insufficient funds or network error");
         }
 
-        logger.info("FLUTTERWAVE: Payment processed SUCCESSFULLY");
-        logger.info("===========================================");
+        logger.debug("FLUTTERWAVE: payment accepted for account {}", accountNumber);
     }
 }
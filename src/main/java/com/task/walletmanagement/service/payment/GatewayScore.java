@@ -0,0 +1,66 @@
+package com.task.walletmanagement.service.payment;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Recent latency and success rate of one payment gateway, kept as
+ * exponentially weighted moving averages.
+ *
+ * Every call replaces an immutable snapshot with a compare-and-set, so
+ * recording never blocks callers of the gateway. The latency estimate is the
+ * smoothed latency plus twice its smoothed mean deviation, a cheap
+ * approximation of the recent p95; the score divides it by the success rate,
+ * i.e. roughly the time it takes to get a successful payment through.
+ */
+final class GatewayScore {
+
+    // Success rate floor, so a failing gateway gets a large but finite score
+    private static final double MIN_SUCCESS_RATE = 0.01;
+
+    private record Snapshot(double latencyNanos, double deviationNanos, double successRate, long samples) {
+    }
+
+    private final double alpha;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(0, 0, 1, 0));
+
+    /**
+     * @param alpha weight of the newest call, between 0 and 1
+     */
+    GatewayScore(double alpha) {
+        this.alpha = alpha;
+    }
+
+    /**
+     * Fold one call into the averages.
+     */
+    void record(long latencyNanos, boolean success) {
+        snapshot.updateAndGet(current -> {
+            if (current.samples() == 0) {
+                return new Snapshot(latencyNanos, latencyNanos / 2.0, success ? 1 : 0, 1);
+            }
+            double error = latencyNanos - current.latencyNanos();
+            return new Snapshot(
+                    current.latencyNanos() + alpha * error,
+                    current.deviationNanos() + alpha * (Math.abs(error) - current.deviationNanos()),
+                    current.successRate() + alpha * ((success ? 1 : 0) - current.successRate()),
+                    current.samples() + 1);
+        });
+    }
+
+    /**
+     * Estimated time to a successful call in nanoseconds; lower is better. A
+     * gateway with no calls yet scores 0 so it gets tried.
+     */
+    double score() {
+        Snapshot current = snapshot.get();
+        if (current.samples() == 0) {
+            return 0;
+        }
+        double p95 = current.latencyNanos() + 2 * current.deviationNanos();
+        return p95 / Math.max(current.successRate(), MIN_SUCCESS_RATE);
+    }
+
+    double successRate() {
+        return snapshot.get().successRate();
+    }
+}
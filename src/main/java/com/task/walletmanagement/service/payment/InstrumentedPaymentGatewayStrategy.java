@@ -0,0 +1,53 @@
+package com.task.walletmanagement.service.payment;
+
+import com.task.walletmanagement.enums.PaymentGateway;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.math.BigDecimal;
+
+/**
+ * Records the latency and outcome of every call to a payment gateway as the
+ * {@code payment.gateway.requests} timer, tagged with the gateway and
+ * {@code outcome=success|failure}, and in the gateway's {@link GatewayScore}
+ * used for AUTO routing.
+ */
+class InstrumentedPaymentGatewayStrategy implements PaymentGatewayStrategy {
+
+    static final String METRIC_NAME = "payment.gateway.requests";
+
+    private final PaymentGatewayStrategy delegate;
+    private final GatewayScore score;
+    private final MeterRegistry meterRegistry;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+
+    InstrumentedPaymentGatewayStrategy(PaymentGateway gateway, PaymentGatewayStrategy delegate,
+            GatewayScore score, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.score = score;
+        this.meterRegistry = meterRegistry;
+        this.successTimer = timer(gateway, "success");
+        this.failureTimer = timer(gateway, "failure");
+    }
+
+    @Override
+    public void processPayment(String accountNumber, BigDecimal amount) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            delegate.processPayment(accountNumber, amount);
+            score.record(sample.stop(successTimer), true);
+        } catch (RuntimeException e) {
+            score.record(sample.stop(failureTimer), false);
+            throw e;
+        }
+    }
+
+    private Timer timer(PaymentGateway gateway, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("Payment gateway call latency")
+                .tag("gateway", gateway.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
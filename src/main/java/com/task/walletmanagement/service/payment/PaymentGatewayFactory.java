@@ -1,31 +1,130 @@
 package com.task.walletmanagement.service.payment;
 
+import com.task.walletmanagement.config.GatewayResilienceProperties;
+import com.task.walletmanagement.config.GatewayRoutingProperties;
 import com.task.walletmanagement.enums.PaymentGateway;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
 /**
- * Factory for creating payment gateway strategies.
+ * Factory for creating payment gateway strategies. Every strategy it returns
+ * records its call latency and outcome in the meter registry and is guarded
+ * by a per-gateway bulkhead, call timeout and circuit breaker
+ * ({@link ResilientPaymentGatewayStrategy}).
+ *
+ * {@link PaymentGateway#AUTO} is routed to the available gateway with the
+ * lowest {@link GatewayScore}, i.e. the best recent latency and success rate.
  */
 @Component
 public class PaymentGatewayFactory {
 
-    private final FlutterwavePaymentStrategy flutterwaveStrategy;
-    private final PaystackPaymentStrategy paystackStrategy;
+    private final Map<PaymentGateway, ResilientPaymentGatewayStrategy> strategies = new EnumMap<>(PaymentGateway.class);
+    private final Map<PaymentGateway, GatewayScore> scores = new EnumMap<>(PaymentGateway.class);
+    private final ExecutorService callExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final int explorationPercent;
 
+    @Autowired
     public PaymentGatewayFactory(FlutterwavePaymentStrategy flutterwaveStrategy,
-            PaystackPaymentStrategy paystackStrategy) {
-        this.flutterwaveStrategy = flutterwaveStrategy;
-        this.paystackStrategy = paystackStrategy;
+            PaystackPaymentStrategy paystackStrategy,
+            GatewayResilienceProperties resilienceProperties,
+            GatewayRoutingProperties routingProperties,
+            MeterRegistry meterRegistry) {
+        this(Map.of(PaymentGateway.FLUTTERWAVE, flutterwaveStrategy, PaymentGateway.PAYSTACK, paystackStrategy),
+                resilienceProperties, routingProperties, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * Factory over any set of gateway implementations, e.g. in-process fakes
+     * with injected latency in tests.
+     */
+    PaymentGatewayFactory(Map<PaymentGateway, ? extends PaymentGatewayStrategy> gateways,
+            GatewayResilienceProperties resilienceProperties,
+            GatewayRoutingProperties routingProperties,
+            MeterRegistry meterRegistry,
+            LongSupplier nanoClock) {
+        this.explorationPercent = routingProperties.explorationPercent();
+        gateways.forEach((gateway, strategy) -> {
+            GatewayScore score = new GatewayScore(routingProperties.ewmaAlpha());
+            scores.put(gateway, score);
+            strategies.put(gateway, new ResilientPaymentGatewayStrategy(
+                    gateway,
+                    new InstrumentedPaymentGatewayStrategy(gateway, strategy, score, meterRegistry),
+                    resilienceProperties, callExecutor, meterRegistry, nanoClock));
+            Gauge.builder("payment.gateway.score", score, s -> s.score() / 1_000_000)
+                    .description("Estimated time to a successful call, used for AUTO routing")
+                    .baseUnit("milliseconds")
+                    .tag("gateway", gateway.name())
+                    .register(meterRegistry);
+        });
     }
 
     /**
      * Get the appropriate payment gateway strategy based on the payment gateway
-     * enum.
+     * enum. {@link PaymentGateway#AUTO} gets the strategy of
+     * {@link #selectGateway()}.
      */
     public PaymentGatewayStrategy getStrategy(PaymentGateway paymentGateway) {
-        return switch (paymentGateway) {
-            case FLUTTERWAVE -> flutterwaveStrategy;
-            case PAYSTACK -> paystackStrategy;
-        };
+        return strategies.get(paymentGateway == PaymentGateway.AUTO ? selectGateway() : paymentGateway);
+    }
+
+    /**
+     * Gateway for an AUTO payment: the available gateway with the lowest score.
+     * A small share of calls ({@code explorationPercent}) goes to another
+     * available gateway instead, so its score keeps up with its current
+     * health. If no gateway is available the best-scored one is returned and
+     * its circuit breaker rejects the call.
+     */
+    public PaymentGateway selectGateway() {
+        List<PaymentGateway> candidates = strategies.entrySet().stream()
+                .filter(entry -> entry.getValue().isAvailable())
+                .map(Map.Entry::getKey)
+                .toList();
+        if (candidates.isEmpty()) {
+            candidates = List.copyOf(strategies.keySet());
+        }
+
+        PaymentGateway best = bestOf(candidates);
+        if (candidates.size() > 1 && ThreadLocalRandom.current().nextInt(100) < explorationPercent) {
+            List<PaymentGateway> others = candidates.stream().filter(gateway -> gateway != best).toList();
+            return others.get(ThreadLocalRandom.current().nextInt(others.size()));
+        }
+        return best;
+    }
+
+    /**
+     * Another gateway to retry a payment on after {@code unavailable} rejected
+     * or timed out: the best-scored one whose circuit is not open and that has
+     * a free concurrency slot.
+     */
+    public Optional<PaymentGateway> getFailover(PaymentGateway unavailable) {
+        List<PaymentGateway> candidates = strategies.entrySet().stream()
+                .filter(entry -> entry.getKey() != unavailable && entry.getValue().isAvailable())
+                .map(Map.Entry::getKey)
+                .toList();
+        return candidates.isEmpty() ? Optional.empty() : Optional.of(bestOf(candidates));
+    }
+
+    private PaymentGateway bestOf(List<PaymentGateway> candidates) {
+        return candidates.stream()
+                .min(Comparator.comparingDouble(gateway -> scores.get(gateway).score()))
+                .orElseThrow();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        callExecutor.shutdown();
     }
 }
@@ -19,13 +19,7 @@ public class PaystackPaymentStrategy implements PaymentGatewayStrategy {
 
     @Override
     public void processPayment(String accountNumber, BigDecimal amount) {
-        logger.info("===========================================");
-        logger.info("PAYSTACK PAYMENT GATEWAY");
-        logger.info("===========================================");
-        logger.info("Processing payment via PAYSTACK");
-        logger.info("Account Number: {}", accountNumber);
-        logger.info("Amount: {}", amount);
-        logger.info("===========================================");
+        logger.debug("PAYSTACK: processing payment of {} from account {}", amount, accountNumber);
 
         // Simulate payment processing delay
         try {
@@ -36,11 +30,10 @@ public class PaystackPaymentStrategy implements PaymentGatewayStrategy {
 
         // Simulate random failure (10% chance) for testing rollback
         if (random.nextInt(10) == 0) {
-            logger.error("PAYSTACK: Payment processing FAILED for account {}", accountNumber);
+            logger.debug("PAYSTACK: payment declined for account {}", accountNumber);
             throw new PaymentProcessingException("Paystack payment failed: Transaction declined by bank");
         }
 
-        logger.info("PAYSTACK: Payment processed SUCCESSFULLY");
-        logger.info("===========================================");
+        logger.debug("PAYSTACK: payment accepted for account {}", accountNumber);
     }
 }
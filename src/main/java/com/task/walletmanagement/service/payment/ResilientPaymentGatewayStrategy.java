@@ -0,0 +1,170 @@
+package com.task.walletmanagement.service.payment;
+
+import com.task.walletmanagement.config.GatewayResilienceProperties;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.exception.GatewayTimeoutException;
+import com.task.walletmanagement.exception.GatewayUnavailableException;
+import com.task.walletmanagement.exception.PaymentProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * Protects callers from a degraded payment gateway.
+ *
+ * Each call must pass the gateway's circuit breaker and get one of its
+ * bulkhead slots, then runs on the call executor while the caller waits at
+ * most {@code timeoutMs}. A call rejected before it starts fails with
+ * {@link GatewayUnavailableException} so the caller never waits on a gateway
+ * that is already known to be slow or failing. A call that started but timed
+ * out fails with {@link GatewayTimeoutException} instead: it may still go
+ * through, so the caller must not treat it as declined. Only timeouts and
+ * errors reaching the gateway count as failures for the breaker; a payment
+ * the gateway declines does not, so a run of declined cards cannot open the
+ * circuit for everyone. A slot is held until the
+ * gateway call actually returns, so calls stuck past their timeout keep
+ * counting against the bulkhead.
+ *
+ * Rejections are counted as {@code payment.gateway.rejections} (tagged with
+ * {@code reason=circuit_open|bulkhead_full|timeout}) and the breaker state is
+ * published as the {@code payment.gateway.circuit.state} gauge (0 closed,
+ * 1 open, 2 half-open).
+ */
+class ResilientPaymentGatewayStrategy implements PaymentGatewayStrategy {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientPaymentGatewayStrategy.class);
+
+    private final PaymentGateway gateway;
+    private final PaymentGatewayStrategy delegate;
+    private final ExecutorService callExecutor;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final long maxWaitMillis;
+    private final long timeoutMillis;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadRejections;
+    private final Counter timeouts;
+
+    ResilientPaymentGatewayStrategy(PaymentGateway gateway, PaymentGatewayStrategy delegate,
+            GatewayResilienceProperties properties, ExecutorService callExecutor, MeterRegistry meterRegistry,
+            LongSupplier nanoClock) {
+        this.gateway = gateway;
+        this.delegate = delegate;
+        this.callExecutor = callExecutor;
+        this.bulkhead = new Semaphore(properties.maxConcurrentCalls());
+        this.circuitBreaker = new CircuitBreaker(properties.failureRateThreshold(), properties.slidingWindowSize(),
+                properties.minimumCalls(), properties.openDurationMs(), properties.halfOpenCalls(), nanoClock);
+        this.maxWaitMillis = properties.maxWaitMs();
+        this.timeoutMillis = properties.timeoutMs();
+
+        this.circuitOpenRejections = rejections(meterRegistry, "circuit_open");
+        this.bulkheadRejections = rejections(meterRegistry, "bulkhead_full");
+        this.timeouts = rejections(meterRegistry, "timeout");
+        Gauge.builder("payment.gateway.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .tag("gateway", gateway.name())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void processPayment(String accountNumber, BigDecimal amount) {
+        if (!circuitBreaker.tryAcquire()) {
+            circuitOpenRejections.increment();
+            throw new GatewayUnavailableException(gateway, "circuit breaker is open");
+        }
+        if (!acquireSlot()) {
+            circuitBreaker.release();
+            bulkheadRejections.increment();
+            throw new GatewayUnavailableException(gateway, "too many concurrent calls");
+        }
+
+        Future<?> call;
+        try {
+            call = callExecutor.submit(() -> {
+                try {
+                    delegate.processPayment(accountNumber, amount);
+                } finally {
+                    bulkhead.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            circuitBreaker.release();
+            throw e;
+        }
+
+        try {
+            call.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            circuitBreaker.onFailure();
+            timeouts.increment();
+            logger.warn("{} did not answer within {} ms", gateway, timeoutMillis);
+            throw new GatewayTimeoutException(gateway, timeoutMillis);
+        } catch (ExecutionException e) {
+            if (isDecline(e.getCause())) {
+                // The gateway answered; a declined payment says nothing about its health
+                circuitBreaker.onSuccess();
+                throw (PaymentProcessingException) e.getCause();
+            }
+            circuitBreaker.onFailure();
+            throw new PaymentProcessingException("Payment gateway call failed: " + e.getCause().getMessage(),
+                    e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            call.cancel(true);
+            circuitBreaker.release();
+            throw new PaymentProcessingException("Interrupted while waiting for " + gateway, e);
+        }
+    }
+
+    /**
+     * Whether a call would currently be let through: the circuit is not open
+     * and a bulkhead slot is free.
+     */
+    boolean isAvailable() {
+        return circuitBreaker.getState() != CircuitBreaker.State.OPEN && bulkhead.availablePermits() > 0;
+    }
+
+    CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * A {@link PaymentProcessingException} from the gateway is its answer to
+     * the payment (declined card, insufficient funds); anything else, or a
+     * gateway reporting itself unavailable, is a failure to reach it.
+     */
+    private static boolean isDecline(Throwable cause) {
+        return cause instanceof PaymentProcessingException && !(cause instanceof GatewayUnavailableException);
+    }
+
+    private boolean acquireSlot() {
+        try {
+            return bulkhead.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("payment.gateway.rejections")
+                .description("Gateway calls rejected or abandoned by the resilience layer")
+                .tag("gateway", gateway.name())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,55 @@
+package com.task.walletmanagement.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Growable bit set with lock-free reads. Bits can only be set, never
+ * cleared; writers are serialized, which is cheap because sets are rare
+ * compared to reads.
+ */
+public final class ConcurrentBitSet {
+
+    private volatile AtomicLongArray words;
+
+    public ConcurrentBitSet(int initialBits) {
+        this.words = new AtomicLongArray(Math.max(1, (initialBits + 63) >>> 6));
+    }
+
+    /**
+     * Whether the bit at {@code index} is set.
+     */
+    public boolean get(int index) {
+        AtomicLongArray current = words;
+        int word = index >>> 6;
+        return word < current.length() && (current.get(word) & (1L << index)) != 0;
+    }
+
+    /**
+     * Set the bit at {@code index}, growing the set if needed.
+     */
+    public synchronized void set(int index) {
+        int word = index >>> 6;
+        AtomicLongArray current = words;
+        if (word >= current.length()) {
+            AtomicLongArray grown = new AtomicLongArray(Math.max(word + 1, current.length() * 2));
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            words = grown;
+            current = grown;
+        }
+        current.set(word, current.get(word) | (1L << index));
+    }
+
+    /**
+     * Number of set bits.
+     */
+    public int cardinality() {
+        AtomicLongArray current = words;
+        int count = 0;
+        for (int i = 0; i < current.length(); i++) {
+            count += Long.bitCount(current.get(i));
+        }
+        return count;
+    }
+}
@@ -0,0 +1,149 @@
+package com.task.walletmanagement.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Monetary amount held as a {@code long} number of minor units (kobo, cents)
+ * at a fixed scale of 2, matching the {@code DECIMAL(19, 2)} columns.
+ *
+ * Arithmetic is exact and throws {@link ArithmeticException} on overflow.
+ * Conversion from {@link BigDecimal} only happens at the edges (request
+ * validation, JDBC/JPA) and fails rather than rounds. JSON is written as a
+ * plain number with two decimals, e.g. {@code 1000.00}.
+ */
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0L);
+
+    /**
+     * Largest amount a single request may fund or transfer. It leaves room
+     * for about 92,000 such amounts in one balance before a {@code long}
+     * overflows.
+     */
+    public static final String MAX_AMOUNT = "1000000000000.00";
+
+    // "-92233720368547758.08"
+    private static final int MAX_LENGTH = 21;
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    /**
+     * Amount of the given number of minor units.
+     */
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0L ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Exact conversion from a decimal amount.
+     *
+     * @throws ArithmeticException if the amount has non-zero digits beyond two
+     *                             decimal places or does not fit in a long
+     */
+    public static Money of(BigDecimal amount) {
+        return ofMinor(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0L;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money money && money.minorUnits == minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    /**
+     * Plain decimal representation with two fraction digits, e.g.
+     * {@code -12.05}.
+     */
+    @Override
+    public String toString() {
+        char[] buffer = new char[MAX_LENGTH];
+        int start = format(buffer);
+        return new String(buffer, start, MAX_LENGTH - start);
+    }
+
+    /**
+     * Write the decimal representation right-aligned into the buffer and
+     * return the index of its first character. Works on the negated value so
+     * {@link Long#MIN_VALUE} needs no special case.
+     */
+    private int format(char[] buffer) {
+        long remaining = minorUnits < 0L ? minorUnits : -minorUnits;
+        int position = buffer.length;
+        buffer[--position] = (char) ('0' - remaining % 10);
+        remaining /= 10;
+        buffer[--position] = (char) ('0' - remaining % 10);
+        remaining /= 10;
+        buffer[--position] = '.';
+        do {
+            buffer[--position] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0L);
+        if (minorUnits < 0L) {
+            buffer[--position] = '-';
+        }
+        return position;
+    }
+
+    public static final class Serializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            char[] buffer = new char[MAX_LENGTH];
+            int start = value.format(buffer);
+            generator.writeNumber(buffer, start, MAX_LENGTH - start);
+        }
+    }
+
+    public static final class Deserializer extends JsonDeserializer<Money> {
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return Money.of(parser.getDecimalValue());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+-- Balance shards of hot wallets: credits land on one of the wallet's shard
+-- rows instead of wallets.balance, so concurrent credits do not all wait for
+-- one row lock. A sharded wallet's balance is wallets.balance plus the sum of
+-- its shards; compaction moves the shard balances into wallets.balance.
+CREATE TABLE wallet_balance_shards (
+    wallet_id BIGINT NOT NULL,
+    shard INT NOT NULL,
+    balance DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    CONSTRAINT pk_wallet_balance_shards PRIMARY KEY (wallet_id, shard),
+    CONSTRAINT fk_balance_shard_wallet FOREIGN KEY (wallet_id) REFERENCES wallets(id) ON DELETE CASCADE
+);
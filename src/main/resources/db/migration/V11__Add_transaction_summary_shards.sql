@@ -0,0 +1,8 @@
+-- Summary shards of hot wallets: their deltas land on one of several rows per
+-- bucket, chosen at random, so concurrent credits to one wallet do not all
+-- wait for the same summary row lock. Other wallets keep one row (shard 0);
+-- reads sum a bucket's shards.
+ALTER TABLE transaction_summaries ADD COLUMN shard INT NOT NULL DEFAULT 0;
+ALTER TABLE transaction_summaries DROP CONSTRAINT pk_transaction_summaries;
+ALTER TABLE transaction_summaries ADD CONSTRAINT pk_transaction_summaries
+    PRIMARY KEY (wallet_id, summary_date, payment_gateway, type, status, shard);
@@ -0,0 +1,3 @@
+-- Composite index for linked-account validation during wallet funding.
+-- Covers "SELECT account_number FROM bank_accounts WHERE wallet_id = ?" without touching the table.
+CREATE INDEX idx_bank_account_wallet_account ON bank_accounts(wallet_id, account_number);
@@ -0,0 +1,3 @@
+-- Keyset pagination index for transaction history: (wallet_id, created_at DESC, id DESC)
+-- matches both the ORDER BY and the cursor predicate of each page query.
+CREATE INDEX idx_transaction_wallet_created_id ON transactions(wallet_id, created_at DESC, id DESC);
@@ -0,0 +1,3 @@
+-- Idempotency-Key of the funding request that created the transaction; at most one per wallet
+ALTER TABLE transactions ADD COLUMN idempotency_key VARCHAR(100);
+ALTER TABLE transactions ADD CONSTRAINT uk_transaction_wallet_idempotency_key UNIQUE (wallet_id, idempotency_key);
@@ -0,0 +1,20 @@
+-- Running totals of transactions per wallet, day, gateway, type and status,
+-- maintained in the same database transaction as every transaction insert
+-- and status change. Transactions without a gateway are grouped under 'NONE'.
+CREATE TABLE transaction_summaries (
+    wallet_id BIGINT NOT NULL,
+    summary_date DATE NOT NULL,
+    payment_gateway VARCHAR(50) NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    total_amount DECIMAL(19, 2) NOT NULL,
+    CONSTRAINT pk_transaction_summaries PRIMARY KEY (wallet_id, summary_date, payment_gateway, type, status),
+    CONSTRAINT fk_summary_wallet FOREIGN KEY (wallet_id) REFERENCES wallets(id) ON DELETE CASCADE
+);
+
+-- Backfill from the existing history
+INSERT INTO transaction_summaries (wallet_id, summary_date, payment_gateway, type, status, transaction_count, total_amount)
+SELECT wallet_id, CAST(created_at AS DATE), COALESCE(payment_gateway, 'NONE'), type, status, COUNT(*), SUM(amount)
+FROM transactions
+GROUP BY wallet_id, CAST(created_at AS DATE), COALESCE(payment_gateway, 'NONE'), type, status;
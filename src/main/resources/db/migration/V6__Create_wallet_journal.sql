@@ -0,0 +1,34 @@
+-- Append-only journal of balance changes. Rows are only ever inserted, in the
+-- same database transaction as the balance update they record.
+CREATE TABLE wallet_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    wallet_id BIGINT NOT NULL,
+    transaction_id BIGINT,
+    event_type VARCHAR(20) NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_event_wallet FOREIGN KEY (wallet_id) REFERENCES wallets(id) ON DELETE CASCADE
+);
+
+-- Balances of every wallet as of wallet_events.id = last_event_id
+CREATE TABLE balance_snapshots (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    last_event_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE balance_snapshot_entries (
+    snapshot_id BIGINT NOT NULL,
+    wallet_id BIGINT NOT NULL,
+    balance DECIMAL(19, 2) NOT NULL,
+    CONSTRAINT pk_balance_snapshot_entries PRIMARY KEY (snapshot_id, wallet_id),
+    CONSTRAINT fk_snapshot_entry_snapshot FOREIGN KEY (snapshot_id) REFERENCES balance_snapshots(id) ON DELETE CASCADE
+);
+
+-- Start the journal from the current balances
+INSERT INTO balance_snapshots (last_event_id) VALUES (0);
+
+INSERT INTO balance_snapshot_entries (snapshot_id, wallet_id, balance)
+SELECT (SELECT MAX(id) FROM balance_snapshots), id, balance
+FROM wallets
+WHERE balance <> 0;
@@ -0,0 +1,14 @@
+-- Transactional outbox: one row per transaction change, inserted in the same
+-- database transaction as the change and deleted once a dispatcher has
+-- delivered it to the configured sink.
+CREATE TABLE outbox_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    wallet_id BIGINT NOT NULL,
+    transaction_id BIGINT NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    payment_gateway VARCHAR(50),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
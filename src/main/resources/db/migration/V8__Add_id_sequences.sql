@@ -0,0 +1,20 @@
+-- Pooled sequences for entity IDs: Hibernate reserves 50 IDs per sequence
+-- call, so inserts no longer need the generated key back and can be batched.
+-- Each sequence restarts 50 past the current maximum ID, because a pooled
+-- block covers the 49 values below the one the sequence returns.
+CREATE SEQUENCE wallets_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE wallets_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM wallets);
+
+CREATE SEQUENCE bank_accounts_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE bank_accounts_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM bank_accounts);
+
+CREATE SEQUENCE transactions_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE transactions_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM transactions);
+
+-- Plain SQL inserts draw from the same sequences (one value each)
+ALTER TABLE wallets ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE wallets ALTER COLUMN id SET DEFAULT NEXT VALUE FOR wallets_seq;
+ALTER TABLE bank_accounts ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE bank_accounts ALTER COLUMN id SET DEFAULT NEXT VALUE FOR bank_accounts_seq;
+ALTER TABLE transactions ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE transactions ALTER COLUMN id SET DEFAULT NEXT VALUE FOR transactions_seq;
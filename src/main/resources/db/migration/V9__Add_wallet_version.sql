@@ -0,0 +1,4 @@
+-- Row version for optimistic balance updates: every write to a wallet's
+-- balance increments it, so an UPDATE ... WHERE version = ? that matches no
+-- row means another writer changed the balance after it was read.
+ALTER TABLE wallets ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,70 @@
+package com.task.walletmanagement.dto;
+
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.util.Money;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the amount constraints on FundWalletRequest and
+ * TransferRequest.
+ */
+class AmountValidationTest {
+
+    private static final BigDecimal MAX = new BigDecimal(Money.MAX_AMOUNT);
+    private static final BigDecimal OVER_MAX = MAX.add(new BigDecimal("0.01"));
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void fundWalletRequest_AmountAtMaximum_IsValidAndConvertsToMoney() {
+        FundWalletRequest request = new FundWalletRequest("1234567890", MAX, PaymentGateway.PAYSTACK);
+
+        assertTrue(validator.validate(request).isEmpty());
+        assertEquals(100_000_000_000_000L, Money.of(request.getAmount()).getMinorUnits());
+    }
+
+    @Test
+    void fundWalletRequest_AmountAboveMaximum_IsRejected() {
+        assertAmountRejected(validator.validate(
+                new FundWalletRequest("1234567890", OVER_MAX, PaymentGateway.PAYSTACK)));
+        // Passes @Digits(integer = 17) but does not fit in a long of minor units
+        assertAmountRejected(validator.validate(
+                new FundWalletRequest("1234567890", new BigDecimal("99999999999999999.99"), PaymentGateway.PAYSTACK)));
+    }
+
+    @Test
+    void transferRequest_AmountBoundary() {
+        assertTrue(validator.validate(new TransferRequest(2L, MAX)).isEmpty());
+        assertAmountRejected(validator.validate(new TransferRequest(2L, OVER_MAX)));
+    }
+
+    private static <T> void assertAmountRejected(Set<ConstraintViolation<T>> violations) {
+        assertEquals(1, violations.size());
+        ConstraintViolation<T> violation = violations.iterator().next();
+        assertEquals("amount", violation.getPropertyPath().toString());
+        assertEquals("Amount must not exceed " + Money.MAX_AMOUNT, violation.getMessage());
+    }
+}
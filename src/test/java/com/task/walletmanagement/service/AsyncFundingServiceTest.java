@@ -0,0 +1,160 @@
+package com.task.walletmanagement.service;
+
+import com.task.walletmanagement.dto.FundWalletRequest;
+import com.task.walletmanagement.dto.TransactionResponse;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.enums.TransactionStatus;
+import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.event.FundingCompletedEvent;
+import com.task.walletmanagement.exception.FundingCapacityExceededException;
+import com.task.walletmanagement.exception.GatewayTimeoutException;
+import com.task.walletmanagement.exception.PaymentProcessingException;
+import com.task.walletmanagement.util.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AsyncFundingService.
+ */
+@ExtendWith(MockitoExtension.class)
+class AsyncFundingServiceTest {
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private FundWalletRequest fundRequest;
+    private TransactionResponse pending;
+    private TransactionResponse completed;
+
+    @BeforeEach
+    void setUp() {
+        fundRequest = new FundWalletRequest("1234567890", new BigDecimal("5000.00"), PaymentGateway.FLUTTERWAVE);
+        pending = new TransactionResponse(1L, Money.ofMinor(500000), TransactionType.CREDIT,
+                "Wallet funded via FLUTTERWAVE", PaymentGateway.FLUTTERWAVE, TransactionStatus.PENDING,
+                LocalDateTime.now());
+        completed = new TransactionResponse(1L, Money.ofMinor(500000), TransactionType.CREDIT,
+                "Wallet funded via FLUTTERWAVE", PaymentGateway.FLUTTERWAVE, TransactionStatus.SUCCESS,
+                pending.getCreatedAt());
+    }
+
+    @Test
+    void fundWalletAsync_ReturnsPendingAndPublishesCompletion() {
+        AsyncFundingService service = newService(new SyncTaskExecutor());
+        when(paymentService.initiateFunding(1L, fundRequest, null)).thenReturn(pending);
+        when(paymentService.completeFunding(1L, 1L, fundRequest)).thenReturn(completed);
+
+        TransactionResponse response = service.fundWalletAsync(1L, fundRequest);
+
+        assertEquals(TransactionStatus.PENDING, response.getStatus());
+        ArgumentCaptor<FundingCompletedEvent> event = ArgumentCaptor.forClass(FundingCompletedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(1L, event.getValue().getWalletId());
+        assertEquals(TransactionStatus.SUCCESS, event.getValue().getTransaction().getStatus());
+    }
+
+    @Test
+    void fundWalletAsync_GatewayFails_PublishesFailedTransaction() {
+        AsyncFundingService service = newService(new SyncTaskExecutor());
+        TransactionResponse failed = new TransactionResponse(1L, pending.getAmount(), pending.getType(),
+                pending.getDescription(), pending.getPaymentGateway(), TransactionStatus.FAILED,
+                pending.getCreatedAt());
+        when(paymentService.initiateFunding(1L, fundRequest, null)).thenReturn(pending);
+        when(paymentService.completeFunding(1L, 1L, fundRequest))
+                .thenThrow(new PaymentProcessingException("Insufficient funds"));
+        when(transactionService.getTransaction(1L, 1L)).thenReturn(failed);
+
+        TransactionResponse response = service.fundWalletAsync(1L, fundRequest);
+
+        assertEquals(TransactionStatus.PENDING, response.getStatus());
+        ArgumentCaptor<FundingCompletedEvent> event = ArgumentCaptor.forClass(FundingCompletedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(TransactionStatus.FAILED, event.getValue().getTransaction().getStatus());
+    }
+
+    @Test
+    void fundWalletAsync_GatewayTimesOut_PublishesPendingTransaction() {
+        AsyncFundingService service = newService(new SyncTaskExecutor());
+        when(paymentService.initiateFunding(1L, fundRequest, null)).thenReturn(pending);
+        when(paymentService.completeFunding(1L, 1L, fundRequest))
+                .thenThrow(new GatewayTimeoutException(PaymentGateway.FLUTTERWAVE, 2000));
+        when(transactionService.getTransaction(1L, 1L)).thenReturn(pending);
+
+        service.fundWalletAsync(1L, fundRequest);
+
+        ArgumentCaptor<FundingCompletedEvent> event = ArgumentCaptor.forClass(FundingCompletedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(TransactionStatus.PENDING, event.getValue().getTransaction().getStatus());
+    }
+
+    @Test
+    void fundWalletAsync_FailureCannotBeReloaded_StillPublishes() {
+        AsyncFundingService service = newService(new SyncTaskExecutor());
+        when(paymentService.initiateFunding(1L, fundRequest, null)).thenReturn(pending);
+        when(paymentService.completeFunding(1L, 1L, fundRequest))
+                .thenThrow(new PaymentProcessingException("Payment processing failed: connection refused"));
+        when(transactionService.getTransaction(1L, 1L))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"));
+
+        service.fundWalletAsync(1L, fundRequest);
+
+        ArgumentCaptor<FundingCompletedEvent> event = ArgumentCaptor.forClass(FundingCompletedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertSame(pending, event.getValue().getTransaction());
+    }
+
+    @Test
+    void fundWalletAsync_ExecutorSaturated_MarksFailedAndThrows() {
+        TaskExecutor saturated = task -> {
+            throw new TaskRejectedException("queue full");
+        };
+        AsyncFundingService service = newService(saturated);
+        when(paymentService.initiateFunding(1L, fundRequest, null)).thenReturn(pending);
+
+        assertThrows(FundingCapacityExceededException.class, () -> {
+            service.fundWalletAsync(1L, fundRequest);
+        });
+
+        verify(transactionService).completeTransaction(1L, TransactionStatus.FAILED);
+        verify(paymentService, never()).completeFunding(any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void fundWalletAsync_RepeatedIdempotencyKey_ReturnsPreviousTransactionWithoutScheduling() {
+        AsyncFundingService service = newService(task -> fail("No work should be scheduled"));
+        when(paymentService.findPreviousFunding(1L, fundRequest, "key-1")).thenReturn(Optional.of(completed));
+
+        TransactionResponse response = service.fundWalletAsync(1L, fundRequest, "key-1");
+
+        assertSame(completed, response);
+        verify(paymentService, never()).initiateFunding(any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private AsyncFundingService newService(TaskExecutor executor) {
+        return new AsyncFundingService(paymentService, transactionService, executor, eventPublisher);
+    }
+}
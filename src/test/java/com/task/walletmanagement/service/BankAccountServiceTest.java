@@ -7,14 +7,17 @@ import com.task.walletmanagement.entity.Wallet;
 import com.task.walletmanagement.exception.DuplicateBankAccountException;
 import com.task.walletmanagement.exception.WalletNotFoundException;
 import com.task.walletmanagement.repository.BankAccountRepository;
+import com.task.walletmanagement.util.Money;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
-import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -36,6 +39,9 @@ class BankAccountServiceTest {
     @Mock
     private WalletService walletService;
 
+    @Mock
+    private UniquenessFilters uniquenessFilters;
+
     @InjectMocks
     private BankAccountService bankAccountService;
 
@@ -49,7 +55,7 @@ class BankAccountServiceTest {
         wallet.setId(1L);
         wallet.setEmail("test@example.com");
         wallet.setPhoneNumber("+1234567890");
-        wallet.setBalance(BigDecimal.ZERO);
+        wallet.setBalance(Money.ZERO);
         wallet.setCreatedAt(LocalDateTime.now());
         wallet.setUpdatedAt(LocalDateTime.now());
 
@@ -66,10 +72,8 @@ class BankAccountServiceTest {
 
     @Test
     void linkBankAccount_Success() {
-        when(walletService.getWalletById(wallet.getId())).thenReturn(wallet);
-        when(bankAccountRepository.findByAccountNumberAndBank(validRequest.getAccountNumber(), validRequest.getBank()))
-                .thenReturn(Optional.empty());
-        when(bankAccountRepository.save(any(BankAccount.class))).thenReturn(bankAccount);
+        when(walletService.getWalletReference(wallet.getId())).thenReturn(wallet);
+        when(bankAccountRepository.saveAndFlush(any(BankAccount.class))).thenReturn(bankAccount);
 
         BankAccountResponse response = bankAccountService.linkBankAccount(wallet.getId(), validRequest);
 
@@ -79,29 +83,43 @@ class BankAccountServiceTest {
         assertEquals(bankAccount.getAccountName(), response.getAccountName());
         assertEquals(bankAccount.getBank(), response.getBank());
 
-        verify(walletService).getWalletById(wallet.getId());
-        verify(bankAccountRepository).findByAccountNumberAndBank(validRequest.getAccountNumber(),
-                validRequest.getBank());
-        verify(bankAccountRepository).save(any(BankAccount.class));
+        verify(walletService).getWalletReference(wallet.getId());
+        // The account filter has never seen the account, so no duplicate query is needed
+        verify(bankAccountRepository, never()).findByAccountNumberAndBank(any(), any());
+        verify(bankAccountRepository).saveAndFlush(any(BankAccount.class));
+        verify(uniquenessFilters).addBankAccount(validRequest.getAccountNumber(), validRequest.getBank());
+    }
+
+    @Test
+    void linkBankAccount_UniqueConstraintViolation_ThrowsDuplicateAccount() {
+        when(walletService.getWalletReference(wallet.getId())).thenReturn(wallet);
+        when(bankAccountRepository.saveAndFlush(any(BankAccount.class))).thenThrow(new DataIntegrityViolationException(
+                "duplicate", new ConstraintViolationException("duplicate", new SQLException("duplicate", "23505"),
+                        ConstraintViolationException.ConstraintKind.UNIQUE, "UK_ACCOUNT_BANK")));
+
+        assertThrows(DuplicateBankAccountException.class,
+                () -> bankAccountService.linkBankAccount(wallet.getId(), validRequest));
     }
 
     @Test
     void linkBankAccount_WalletNotFound_ThrowsException() {
         Long invalidWalletId = 999L;
-        when(walletService.getWalletById(invalidWalletId))
+        when(walletService.getWalletReference(invalidWalletId))
                 .thenThrow(new WalletNotFoundException("Wallet not found with ID: " + invalidWalletId));
 
         assertThrows(WalletNotFoundException.class, () -> {
             bankAccountService.linkBankAccount(invalidWalletId, validRequest);
         });
 
-        verify(walletService).getWalletById(invalidWalletId);
-        verify(bankAccountRepository, never()).save(any(BankAccount.class));
+        verify(walletService).getWalletReference(invalidWalletId);
+        verify(bankAccountRepository, never()).saveAndFlush(any(BankAccount.class));
     }
 
     @Test
     void linkBankAccount_DuplicateAccount_ThrowsException() {
-        when(walletService.getWalletById(wallet.getId())).thenReturn(wallet);
+        when(walletService.getWalletReference(wallet.getId())).thenReturn(wallet);
+        when(uniquenessFilters.mightContainBankAccount(validRequest.getAccountNumber(), validRequest.getBank()))
+                .thenReturn(true);
         when(bankAccountRepository.findByAccountNumberAndBank(validRequest.getAccountNumber(), validRequest.getBank()))
                 .thenReturn(Optional.of(bankAccount));
 
@@ -109,10 +127,10 @@ class BankAccountServiceTest {
             bankAccountService.linkBankAccount(wallet.getId(), validRequest);
         });
 
-        verify(walletService).getWalletById(wallet.getId());
+        verify(walletService).getWalletReference(wallet.getId());
         verify(bankAccountRepository).findByAccountNumberAndBank(validRequest.getAccountNumber(),
                 validRequest.getBank());
-        verify(bankAccountRepository, never()).save(any(BankAccount.class));
+        verify(bankAccountRepository, never()).saveAndFlush(any(BankAccount.class));
     }
 
     @Test
@@ -125,7 +143,6 @@ class BankAccountServiceTest {
         account2.setBank("Access Bank");
         account2.setCreatedAt(LocalDateTime.now());
 
-        when(walletService.getWalletById(wallet.getId())).thenReturn(wallet);
         when(bankAccountRepository.findByWalletId(wallet.getId()))
                 .thenReturn(Arrays.asList(bankAccount, account2));
 
@@ -136,13 +153,12 @@ class BankAccountServiceTest {
         assertEquals(bankAccount.getAccountNumber(), responses.get(0).getAccountNumber());
         assertEquals(account2.getAccountNumber(), responses.get(1).getAccountNumber());
 
-        verify(walletService).getWalletById(wallet.getId());
+        verify(walletService).ensureWalletExists(wallet.getId());
         verify(bankAccountRepository).findByWalletId(wallet.getId());
     }
 
     @Test
     void getBankAccountsByWalletId_EmptyList() {
-        when(walletService.getWalletById(wallet.getId())).thenReturn(wallet);
         when(bankAccountRepository.findByWalletId(wallet.getId())).thenReturn(Arrays.asList());
 
         List<BankAccountResponse> responses = bankAccountService.getBankAccountsByWalletId(wallet.getId());
@@ -150,7 +166,7 @@ class BankAccountServiceTest {
         assertNotNull(responses);
         assertTrue(responses.isEmpty());
 
-        verify(walletService).getWalletById(wallet.getId());
+        verify(walletService).ensureWalletExists(wallet.getId());
         verify(bankAccountRepository).findByWalletId(wallet.getId());
     }
 
@@ -176,4 +192,32 @@ class BankAccountServiceTest {
                 bankAccount.getBank(),
                 wallet.getId());
     }
+
+    @Test
+    void isBankAccountLinked_CachesAccountNumbersPerWallet() {
+        when(bankAccountRepository.findAccountNumbersByWalletId(wallet.getId()))
+                .thenReturn(Arrays.asList("1234567890", "0987654321"));
+
+        assertTrue(bankAccountService.isBankAccountLinked(wallet.getId(), "1234567890"));
+        assertTrue(bankAccountService.isBankAccountLinked(wallet.getId(), "0987654321"));
+        assertFalse(bankAccountService.isBankAccountLinked(wallet.getId(), "5555555555"));
+
+        verify(bankAccountRepository, times(1)).findAccountNumbersByWalletId(wallet.getId());
+    }
+
+    @Test
+    void isBankAccountLinked_InvalidatedByLinkBankAccount() {
+        when(bankAccountRepository.findAccountNumbersByWalletId(wallet.getId()))
+                .thenReturn(Arrays.asList())
+                .thenReturn(Arrays.asList(validRequest.getAccountNumber()));
+        when(walletService.getWalletReference(wallet.getId())).thenReturn(wallet);
+        when(bankAccountRepository.saveAndFlush(any(BankAccount.class))).thenReturn(bankAccount);
+
+        assertFalse(bankAccountService.isBankAccountLinked(wallet.getId(), validRequest.getAccountNumber()));
+
+        bankAccountService.linkBankAccount(wallet.getId(), validRequest);
+
+        assertTrue(bankAccountService.isBankAccountLinked(wallet.getId(), validRequest.getAccountNumber()));
+        verify(bankAccountRepository, times(2)).findAccountNumbersByWalletId(wallet.getId());
+    }
 }
@@ -0,0 +1,232 @@
+package com.task.walletmanagement.service;
+
+import com.task.walletmanagement.dto.BatchFundingItem;
+import com.task.walletmanagement.dto.BatchFundingResponse;
+import com.task.walletmanagement.entity.Transaction;
+import com.task.walletmanagement.entity.Wallet;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.enums.TransactionStatus;
+import com.task.walletmanagement.exception.GatewayTimeoutException;
+import com.task.walletmanagement.exception.PaymentProcessingException;
+import com.task.walletmanagement.repository.OutboxRepository;
+import com.task.walletmanagement.repository.TransactionBatchRepository;
+import com.task.walletmanagement.repository.TransactionSummaryRepository;
+import com.task.walletmanagement.repository.WalletRepository;
+import com.task.walletmanagement.service.balance.BalanceShards;
+import com.task.walletmanagement.service.balance.BalanceUpdateStrategy;
+import com.task.walletmanagement.service.journal.WalletJournal;
+import com.task.walletmanagement.service.payment.PaymentGatewayFactory;
+import com.task.walletmanagement.service.payment.PaymentGatewayStrategy;
+import com.task.walletmanagement.util.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BatchFundingService.
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchFundingServiceTest {
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private BankAccountService bankAccountService;
+
+    @Mock
+    private PaymentGatewayFactory paymentGatewayFactory;
+
+    @Mock
+    private PaymentGatewayStrategy paymentGatewayStrategy;
+
+    @Mock
+    private BalanceUpdateStrategy balanceUpdateStrategy;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private TransactionBatchRepository transactionBatchRepository;
+
+    @Mock
+    private TransactionSummaryRepository transactionSummaryRepository;
+
+    @Mock
+    private BalanceShards balanceShards;
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private WalletJournal walletJournal;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BatchFundingService batchFundingService;
+
+    private Wallet wallet1;
+    private Wallet wallet2;
+
+    @BeforeEach
+    void setUp() {
+        batchFundingService = new BatchFundingService(walletRepository, bankAccountService, paymentGatewayFactory,
+                balanceUpdateStrategy, transactionService, transactionBatchRepository, transactionSummaryRepository,
+                balanceShards, outboxRepository, walletJournal, transactionManager, 4);
+
+        wallet1 = new Wallet();
+        wallet1.setId(1L);
+        wallet2 = new Wallet();
+        wallet2.setId(2L);
+
+        AtomicLong ids = new AtomicLong();
+        lenient().doAnswer(invocation -> {
+            List<Transaction> transactions = invocation.getArgument(0);
+            transactions.forEach(transaction -> {
+                transaction.setId(ids.incrementAndGet());
+                transaction.setCreatedAt(LocalDateTime.now());
+            });
+            return transactions;
+        }).when(transactionService).createTransactions(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fundWallets_CreditsSuccessfulItemsSummedPerWallet() {
+        when(walletRepository.findAllById(any())).thenReturn(List.of(wallet1, wallet2));
+        when(bankAccountService.isBankAccountLinked(any(), any())).thenReturn(true);
+        when(paymentGatewayFactory.getStrategy(PaymentGateway.PAYSTACK)).thenReturn(paymentGatewayStrategy);
+        doAnswer(invocation -> {
+            if ("ACC2".equals(invocation.getArgument(0))) {
+                throw new PaymentProcessingException("Transaction declined by bank");
+            }
+            return null;
+        }).when(paymentGatewayStrategy).processPayment(any(), any());
+
+        BatchFundingResponse response = batchFundingService.fundWallets(List.of(
+                item(1L, "ACC1", "10.00"),
+                item(2L, "ACC2", "30.00"),
+                item(1L, "ACC1", "15.50")));
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertEquals(TransactionStatus.SUCCESS, response.getResults().get(0).getStatus());
+        assertEquals(TransactionStatus.FAILED, response.getResults().get(1).getStatus());
+        assertEquals("Transaction declined by bank", response.getResults().get(1).getError());
+        assertEquals(TransactionStatus.SUCCESS, response.getResults().get(2).getStatus());
+        assertNotNull(response.getResults().get(2).getTransaction().getId());
+
+        ArgumentCaptor<Map<Long, Money>> credits = ArgumentCaptor.forClass(Map.class);
+        verify(balanceUpdateStrategy).creditAll(credits.capture());
+        assertEquals(Map.of(1L, Money.ofMinor(2550)), credits.getValue());
+        verify(walletJournal).recordCredits(argThat(transactions -> transactions.size() == 2));
+        verify(transactionService).createTransactions(argThat(transactions -> transactions.size() == 3));
+        verify(transactionBatchRepository).updateStatus(argThat(transactions -> transactions.size() == 2),
+                eq(TransactionStatus.SUCCESS));
+        verify(transactionBatchRepository).updateStatus(argThat(transactions -> transactions.size() == 1),
+                eq(TransactionStatus.FAILED));
+    }
+
+    @Test
+    void fundWallets_InvalidItemsFailWithoutGatewayCall() {
+        when(walletRepository.findAllById(any())).thenReturn(List.of(wallet1));
+        when(bankAccountService.isBankAccountLinked(1L, "ACC9")).thenReturn(false);
+
+        BatchFundingResponse response = batchFundingService.fundWallets(List.of(
+                item(1L, "ACC9", "10.00"),
+                item(99L, "ACC99", "10.00")));
+
+        assertEquals(0, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        assertTrue(response.getResults().get(0).getError().contains("not linked to this wallet"));
+        assertEquals("Wallet not found with ID: 99", response.getResults().get(1).getError());
+        assertNull(response.getResults().get(1).getTransaction());
+        verify(paymentGatewayFactory, never()).getStrategy(any());
+        verify(transactionService).createTransactions(List.of());
+    }
+
+    @Test
+    void fundWallets_GatewayTimeout_LeavesItemPending() {
+        when(walletRepository.findAllById(any())).thenReturn(List.of(wallet1, wallet2));
+        when(bankAccountService.isBankAccountLinked(any(), any())).thenReturn(true);
+        when(paymentGatewayFactory.getStrategy(PaymentGateway.PAYSTACK)).thenReturn(paymentGatewayStrategy);
+        doAnswer(invocation -> {
+            if ("ACC2".equals(invocation.getArgument(0))) {
+                throw new GatewayTimeoutException(PaymentGateway.PAYSTACK, 100);
+            }
+            return null;
+        }).when(paymentGatewayStrategy).processPayment(any(), any());
+
+        BatchFundingResponse response = batchFundingService.fundWallets(List.of(
+                item(1L, "ACC1", "10.00"),
+                item(2L, "ACC2", "30.00")));
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertEquals(TransactionStatus.PENDING, response.getResults().get(1).getStatus());
+        assertNotNull(response.getResults().get(1).getTransaction());
+        assertTrue(response.getResults().get(1).getError().contains("outcome is unknown"));
+        verify(transactionBatchRepository).updateStatus(argThat(transactions -> transactions.size() == 1),
+                eq(TransactionStatus.SUCCESS));
+        verify(transactionBatchRepository).updateStatus(List.of(), TransactionStatus.FAILED);
+        // Persisted with the gateway it went to, for reconciliation
+        verify(transactionBatchRepository).updateStatus(argThat(transactions -> transactions.size() == 1
+                && transactions.get(0).getPaymentGateway() == PaymentGateway.PAYSTACK), eq(TransactionStatus.PENDING));
+    }
+
+    @Test
+    void fundWallets_BatchCompletionFails_CompletesEachItemOnItsOwn() {
+        when(walletRepository.findAllById(any())).thenReturn(List.of(wallet1, wallet2));
+        when(bankAccountService.isBankAccountLinked(any(), any())).thenReturn(true);
+        when(paymentGatewayFactory.getStrategy(PaymentGateway.PAYSTACK)).thenReturn(paymentGatewayStrategy);
+        // Any transaction that credits wallet 2 fails, as a balance overflow would
+        doAnswer(invocation -> {
+            Map<Long, Money> credits = invocation.getArgument(0);
+            if (credits.containsKey(2L)) {
+                throw new ArithmeticException("long overflow");
+            }
+            return null;
+        }).when(balanceUpdateStrategy).creditAll(any());
+
+        BatchFundingResponse response = batchFundingService.fundWallets(List.of(
+                item(1L, "ACC1", "10.00"),
+                item(2L, "ACC2", "30.00")));
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertEquals(TransactionStatus.SUCCESS, response.getResults().get(0).getStatus());
+        assertNull(response.getResults().get(0).getError());
+        assertEquals(TransactionStatus.PENDING, response.getResults().get(1).getStatus());
+        assertEquals("Payment taken but not yet credited: long overflow", response.getResults().get(1).getError());
+
+        // The batch attempt, then one transaction per item
+        verify(balanceUpdateStrategy, times(3)).creditAll(any());
+        verify(transactionBatchRepository).updateStatus(
+                argThat(transactions -> transactions.size() == 1 && transactions.get(0).getWallet() == wallet1),
+                eq(TransactionStatus.SUCCESS));
+        verify(transactionBatchRepository, never()).updateStatus(
+                argThat(transactions -> transactions.stream().anyMatch(t -> t.getWallet() == wallet2)),
+                eq(TransactionStatus.SUCCESS));
+    }
+
+    private BatchFundingItem item(Long walletId, String accountNumber, String amount) {
+        return new BatchFundingItem(walletId, accountNumber, new BigDecimal(amount), PaymentGateway.PAYSTACK);
+    }
+}
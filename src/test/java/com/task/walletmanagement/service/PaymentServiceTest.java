@@ -1,5 +1,7 @@
 package com.task.walletmanagement.service;
 
+import com.task.walletmanagement.config.GroupCommitProperties;
+import com.task.walletmanagement.config.LoggingProperties;
 import com.task.walletmanagement.dto.FundWalletRequest;
 import com.task.walletmanagement.dto.TransactionResponse;
 import com.task.walletmanagement.entity.BankAccount;
@@ -8,16 +10,29 @@ import com.task.walletmanagement.entity.Wallet;
 import com.task.walletmanagement.enums.PaymentGateway;
 import com.task.walletmanagement.enums.TransactionStatus;
 import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.exception.GatewayTimeoutException;
+import com.task.walletmanagement.exception.GatewayUnavailableException;
+import com.task.walletmanagement.exception.IdempotencyKeyConflictException;
 import com.task.walletmanagement.exception.PaymentProcessingException;
+import com.task.walletmanagement.repository.WalletBalanceRepository;
 import com.task.walletmanagement.repository.WalletRepository;
+import com.task.walletmanagement.service.balance.BalanceShards;
+import com.task.walletmanagement.service.balance.PessimisticBalanceUpdateStrategy;
+import com.task.walletmanagement.service.commit.GroupCommitWriter;
+import com.task.walletmanagement.service.journal.WalletJournal;
 import com.task.walletmanagement.service.payment.PaymentGatewayFactory;
 import com.task.walletmanagement.service.payment.PaymentGatewayStrategy;
+import com.task.walletmanagement.util.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.InOrder;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -26,6 +41,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -37,6 +53,9 @@ class PaymentServiceTest {
     @Mock
     private WalletRepository walletRepository;
 
+    @Mock
+    private WalletBalanceRepository walletBalanceRepository;
+
     @Mock
     private BankAccountService bankAccountService;
 
@@ -49,21 +68,36 @@ class PaymentServiceTest {
     @Mock
     private PaymentGatewayStrategy paymentGatewayStrategy;
 
-    @InjectMocks
+    @Mock
+    private WalletJournal walletJournal;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private PaymentService paymentService;
 
     private Wallet wallet;
     private BankAccount bankAccount;
     private FundWalletRequest fundRequest;
     private Transaction transaction;
+    private Transaction pendingTransaction;
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        paymentService = new PaymentService(walletRepository, bankAccountService, transactionService,
+                paymentGatewayFactory, new PessimisticBalanceUpdateStrategy(
+                walletBalanceRepository, new WalletCache(meterRegistry), mock(BalanceShards.class), meterRegistry),
+                walletJournal, new GroupCommitWriter(new GroupCommitProperties(false, 64, 500, 10_000),
+                transactionManager, meterRegistry), transactionManager, meterRegistry, new LoggingProperties(1.0));
+
         wallet = new Wallet();
         wallet.setId(1L);
         wallet.setEmail("test@example.com");
         wallet.setPhoneNumber("+1234567890");
-        wallet.setBalance(new BigDecimal("1000.00"));
+        wallet.setBalance(Money.of(new BigDecimal("1000.00")));
         wallet.setCreatedAt(LocalDateTime.now());
         wallet.setUpdatedAt(LocalDateTime.now());
 
@@ -83,36 +117,33 @@ class PaymentServiceTest {
         transaction = new Transaction();
         transaction.setId(1L);
         transaction.setWallet(wallet);
-        transaction.setAmount(new BigDecimal("5000.00"));
+        transaction.setAmount(Money.of(new BigDecimal("5000.00")));
         transaction.setType(TransactionType.CREDIT);
         transaction.setDescription("Wallet funding via FLUTTERWAVE");
         transaction.setPaymentGateway(PaymentGateway.FLUTTERWAVE);
         transaction.setStatus(TransactionStatus.SUCCESS);
         transaction.setCreatedAt(LocalDateTime.now());
+
+        pendingTransaction = new Transaction();
+        pendingTransaction.setId(1L);
+        pendingTransaction.setWallet(wallet);
+        pendingTransaction.setAmount(Money.of(new BigDecimal("5000.00")));
+        pendingTransaction.setType(TransactionType.CREDIT);
+        pendingTransaction.setPaymentGateway(PaymentGateway.FLUTTERWAVE);
+        pendingTransaction.setStatus(TransactionStatus.PENDING);
     }
 
     @Test
     void fundWallet_Success_FlutterwaveGateway() {
-        when(walletRepository.findByIdWithLock(wallet.getId())).thenReturn(Optional.of(wallet));
-        when(bankAccountService.getBankAccountsByWalletId(wallet.getId()))
-                .thenReturn(java.util.Arrays.asList(mapToBankAccountResponse(bankAccount)));
-        when(bankAccountService.getBankAccountByAccountNumberAndWallet(
-                bankAccount.getAccountNumber(),
-                bankAccount.getBank(),
-                wallet.getId()))
-                .thenReturn(bankAccount);
+        stubPendingTransaction();
+        when(bankAccountService.isBankAccountLinked(wallet.getId(), bankAccount.getAccountNumber()))
+                .thenReturn(true);
         when(paymentGatewayFactory.getStrategy(PaymentGateway.FLUTTERWAVE))
                 .thenReturn(paymentGatewayStrategy);
         doNothing().when(paymentGatewayStrategy).processPayment(fundRequest.getAccountNumber(),
                 fundRequest.getAmount());
-        when(walletRepository.save(any(Wallet.class))).thenReturn(wallet);
-        when(transactionService.createTransaction(
-                eq(wallet),
-                eq(fundRequest.getAmount()),
-                eq(TransactionType.CREDIT),
-                any(String.class),
-                eq(fundRequest.getPaymentGateway()),
-                eq(TransactionStatus.SUCCESS)))
+        stubCredit();
+        when(transactionService.completeTransaction(pendingTransaction.getId(), TransactionStatus.SUCCESS))
                 .thenReturn(transaction);
 
         TransactionResponse response = paymentService.fundWallet(wallet.getId(), fundRequest);
@@ -123,16 +154,43 @@ class PaymentServiceTest {
         assertEquals(TransactionType.CREDIT, response.getType());
         assertEquals(TransactionStatus.SUCCESS, response.getStatus());
 
-        verify(walletRepository).findByIdWithLock(wallet.getId());
-        verify(paymentGatewayStrategy).processPayment(fundRequest.getAccountNumber(), fundRequest.getAmount());
-        verify(walletRepository).save(any(Wallet.class));
         verify(transactionService).createTransaction(
                 eq(wallet),
-                eq(fundRequest.getAmount()),
+                eq(Money.of(fundRequest.getAmount())),
                 eq(TransactionType.CREDIT),
                 any(String.class),
                 eq(fundRequest.getPaymentGateway()),
-                eq(TransactionStatus.SUCCESS));
+                eq(TransactionStatus.PENDING),
+                isNull());
+        verify(paymentGatewayStrategy).processPayment(fundRequest.getAccountNumber(), fundRequest.getAmount());
+        verify(walletBalanceRepository).addToBalance(wallet.getId(), Money.of(fundRequest.getAmount()));
+        verify(walletRepository, never()).save(any(Wallet.class));
+        verify(transactionService).completeTransaction(pendingTransaction.getId(), TransactionStatus.SUCCESS);
+        assertEquals(1, meterRegistry.get("wallet.funding")
+                .tags("gateway", "FLUTTERWAVE", "outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("wallet.lock.wait").timer().count());
+    }
+
+    @Test
+    void fundWallet_WalletLockedOnlyAfterGatewayCall() {
+        stubPendingTransaction();
+        when(bankAccountService.isBankAccountLinked(wallet.getId(), bankAccount.getAccountNumber()))
+                .thenReturn(true);
+        when(paymentGatewayFactory.getStrategy(PaymentGateway.FLUTTERWAVE))
+                .thenReturn(paymentGatewayStrategy);
+        stubCredit();
+        when(transactionService.completeTransaction(pendingTransaction.getId(), TransactionStatus.SUCCESS))
+                .thenReturn(transaction);
+
+        paymentService.fundWallet(wallet.getId(), fundRequest);
+
+        InOrder inOrder = inOrder(transactionService, paymentGatewayStrategy, walletBalanceRepository);
+        inOrder.verify(transactionService).createTransaction(
+                eq(wallet), eq(Money.of(fundRequest.getAmount())), eq(TransactionType.CREDIT),
+                any(String.class), eq(fundRequest.getPaymentGateway()), eq(TransactionStatus.PENDING), isNull());
+        inOrder.verify(paymentGatewayStrategy).processPayment(fundRequest.getAccountNumber(), fundRequest.getAmount());
+        inOrder.verify(walletBalanceRepository).addToBalance(wallet.getId(), Money.of(fundRequest.getAmount()));
+        inOrder.verify(transactionService).completeTransaction(pendingTransaction.getId(), TransactionStatus.SUCCESS);
     }
 
     @Test
@@ -142,26 +200,15 @@ class PaymentServiceTest {
                 new BigDecimal("3000.00"),
                 PaymentGateway.PAYSTACK);
 
-        when(walletRepository.findByIdWithLock(wallet.getId())).thenReturn(Optional.of(wallet));
-        when(bankAccountService.getBankAccountsByWalletId(wallet.getId()))
-                .thenReturn(java.util.Arrays.asList(mapToBankAccountResponse(bankAccount)));
-        when(bankAccountService.getBankAccountByAccountNumberAndWallet(
-                bankAccount.getAccountNumber(),
-                bankAccount.getBank(),
-                wallet.getId()))
-                .thenReturn(bankAccount);
+        stubPendingTransaction();
+        when(bankAccountService.isBankAccountLinked(wallet.getId(), bankAccount.getAccountNumber()))
+                .thenReturn(true);
         when(paymentGatewayFactory.getStrategy(PaymentGateway.PAYSTACK))
                 .thenReturn(paymentGatewayStrategy);
         doNothing().when(paymentGatewayStrategy).processPayment(fundRequest.getAccountNumber(),
                 fundRequest.getAmount());
-        when(walletRepository.save(any(Wallet.class))).thenReturn(wallet);
-        when(transactionService.createTransaction(
-                eq(wallet),
-                eq(fundRequest.getAmount()),
-                eq(TransactionType.CREDIT),
-                any(String.class),
-                eq(fundRequest.getPaymentGateway()),
-                eq(TransactionStatus.SUCCESS)))
+        stubCredit();
+        when(transactionService.completeTransaction(pendingTransaction.getId(), TransactionStatus.SUCCESS))
                 .thenReturn(transaction);
 
         TransactionResponse response = paymentService.fundWallet(wallet.getId(), fundRequest);
@@ -174,44 +221,41 @@ class PaymentServiceTest {
     @Test
     void fundWallet_WalletNotFound_ThrowsException() {
         Long invalidWalletId = 999L;
-        when(walletRepository.findByIdWithLock(invalidWalletId)).thenReturn(Optional.empty());
+        when(walletRepository.findById(invalidWalletId)).thenReturn(Optional.empty());
 
         PaymentProcessingException exception = assertThrows(PaymentProcessingException.class, () -> {
             paymentService.fundWallet(invalidWalletId, fundRequest);
         });
 
         assertTrue(exception.getMessage().contains("Wallet not found"));
-        verify(walletRepository).findByIdWithLock(invalidWalletId);
+        verify(walletRepository).findById(invalidWalletId);
+        verify(walletBalanceRepository, never()).addToBalance(any(), any());
         verify(paymentGatewayStrategy, never()).processPayment(any(), any());
         verify(walletRepository, never()).save(any(Wallet.class));
     }
 
     @Test
     void fundWallet_BankAccountNotLinked_ThrowsException() {
-        when(walletRepository.findByIdWithLock(wallet.getId())).thenReturn(Optional.of(wallet));
-        when(bankAccountService.getBankAccountsByWalletId(wallet.getId()))
-                .thenReturn(java.util.Arrays.asList());
+        when(walletRepository.findById(wallet.getId())).thenReturn(Optional.of(wallet));
+        when(bankAccountService.isBankAccountLinked(wallet.getId(), fundRequest.getAccountNumber()))
+                .thenReturn(false);
 
         PaymentProcessingException exception = assertThrows(PaymentProcessingException.class, () -> {
             paymentService.fundWallet(wallet.getId(), fundRequest);
         });
 
         assertTrue(exception.getMessage().contains("not linked to this wallet"));
-        verify(walletRepository).findByIdWithLock(wallet.getId());
+        verify(walletBalanceRepository, never()).addToBalance(any(), any());
+        verify(transactionService, never()).createTransaction(any(), any(), any(), any(), any(), any(), any());
         verify(paymentGatewayStrategy, never()).processPayment(any(), any());
         verify(walletRepository, never()).save(any(Wallet.class));
     }
 
     @Test
     void fundWallet_PaymentGatewayFails_ThrowsException() {
-        when(walletRepository.findByIdWithLock(wallet.getId())).thenReturn(Optional.of(wallet));
-        when(bankAccountService.getBankAccountsByWalletId(wallet.getId()))
-                .thenReturn(java.util.Arrays.asList(mapToBankAccountResponse(bankAccount)));
-        when(bankAccountService.getBankAccountByAccountNumberAndWallet(
-                bankAccount.getAccountNumber(),
-                bankAccount.getBank(),
-                wallet.getId()))
-                .thenReturn(bankAccount);
+        stubPendingTransaction();
+        when(bankAccountService.isBankAccountLinked(wallet.getId(), bankAccount.getAccountNumber()))
+                .thenReturn(true);
         when(paymentGatewayFactory.getStrategy(PaymentGateway.FLUTTERWAVE))
                 .thenReturn(paymentGatewayStrategy);
         doThrow(new PaymentProcessingException("Insufficient funds"))
@@ -222,45 +266,121 @@ class PaymentServiceTest {
         });
 
         assertEquals("Insufficient funds", exception.getMessage());
-        verify(walletRepository).findByIdWithLock(wallet.getId());
         verify(paymentGatewayStrategy).processPayment(fundRequest.getAccountNumber(), fundRequest.getAmount());
-        verify(walletRepository, never()).save(any(Wallet.class));
+        verify(transactionService).completeTransaction(pendingTransaction.getId(), TransactionStatus.FAILED);
+        verify(walletBalanceRepository, never()).addToBalance(any(), any());
+        assertEquals(1, meterRegistry.get("wallet.funding")
+                .tags("gateway", "FLUTTERWAVE", "outcome", "failure").timer().count());
+    }
+
+    @Test
+    void fundWallet_GatewayUnavailable_FailsOverWhenAllowed() {
+        fundRequest.setAllowFailover(true);
+        PaymentGatewayStrategy paystackStrategy = mock(PaymentGatewayStrategy.class);
+        stubPendingTransaction();
+        when(bankAccountService.isBankAccountLinked(wallet.getId(), bankAccount.getAccountNumber()))
+                .thenReturn(true);
+        when(paymentGatewayFactory.getStrategy(PaymentGateway.FLUTTERWAVE)).thenReturn(paymentGatewayStrategy);
+        doThrow(new GatewayUnavailableException(PaymentGateway.FLUTTERWAVE, "circuit breaker is open"))
+                .when(paymentGatewayStrategy).processPayment(fundRequest.getAccountNumber(), fundRequest.getAmount());
+        when(paymentGatewayFactory.getFailover(PaymentGateway.FLUTTERWAVE)).thenReturn(Optional.of(PaymentGateway.PAYSTACK));
+        when(paymentGatewayFactory.getStrategy(PaymentGateway.PAYSTACK)).thenReturn(paystackStrategy);
+        stubCredit();
+        transaction.setPaymentGateway(PaymentGateway.PAYSTACK);
+        transaction.setDescription("Wallet funded via PAYSTACK from account 1234567890");
+        when(transactionService.completeTransaction(pendingTransaction.getId(), TransactionStatus.SUCCESS,
+                PaymentGateway.PAYSTACK, "Wallet funded via PAYSTACK from account 1234567890"))
+                .thenReturn(transaction);
+
+        TransactionResponse response = paymentService.fundWallet(wallet.getId(), fundRequest);
+
+        verify(paystackStrategy).processPayment(fundRequest.getAccountNumber(), fundRequest.getAmount());
+        assertEquals(PaymentGateway.PAYSTACK, response.getPaymentGateway());
+        assertEquals("Wallet funded via PAYSTACK from account 1234567890", response.getDescription());
+    }
+
+    @Test
+    void fundWallet_AutoGateway_RecordsSelectedGateway() {
+        fundRequest.setPaymentGateway(PaymentGateway.AUTO);
+        stubPendingTransaction();
+        when(bankAccountService.isBankAccountLinked(wallet.getId(), bankAccount.getAccountNumber()))
+                .thenReturn(true);
+        when(paymentGatewayFactory.selectGateway()).thenReturn(PaymentGateway.PAYSTACK);
+        when(paymentGatewayFactory.getStrategy(PaymentGateway.PAYSTACK)).thenReturn(paymentGatewayStrategy);
+        stubCredit();
+        transaction.setPaymentGateway(PaymentGateway.PAYSTACK);
+        transaction.setDescription("Wallet funded via PAYSTACK from account 1234567890");
+        when(transactionService.completeTransaction(pendingTransaction.getId(), TransactionStatus.SUCCESS,
+                PaymentGateway.PAYSTACK, "Wallet funded via PAYSTACK from account 1234567890"))
+                .thenReturn(transaction);
+
+        TransactionResponse response = paymentService.fundWallet(wallet.getId(), fundRequest);
+
+        verify(paymentGatewayStrategy).processPayment(fundRequest.getAccountNumber(), fundRequest.getAmount());
+        verify(paymentGatewayFactory, never()).getStrategy(PaymentGateway.AUTO);
+        assertEquals(PaymentGateway.PAYSTACK, response.getPaymentGateway());
+        assertEquals("Wallet funded via PAYSTACK from account 1234567890", response.getDescription());
+    }
+
+    @Test
+    void fundWallet_GatewayUnavailable_NoFailoverUnlessAllowed() {
+        stubPendingTransaction();
+        when(bankAccountService.isBankAccountLinked(wallet.getId(), bankAccount.getAccountNumber()))
+                .thenReturn(true);
+        when(paymentGatewayFactory.getStrategy(PaymentGateway.FLUTTERWAVE)).thenReturn(paymentGatewayStrategy);
+        doThrow(new GatewayUnavailableException(PaymentGateway.FLUTTERWAVE, "circuit breaker is open"))
+                .when(paymentGatewayStrategy).processPayment(fundRequest.getAccountNumber(), fundRequest.getAmount());
+
+        assertThrows(GatewayUnavailableException.class,
+                () -> paymentService.fundWallet(wallet.getId(), fundRequest));
+
+        verify(paymentGatewayFactory, never()).getFailover(any());
+        verify(transactionService).completeTransaction(pendingTransaction.getId(), TransactionStatus.FAILED);
+    }
+
+    @Test
+    void fundWallet_GatewayTimeout_LeavesTransactionPendingWithoutFailover() {
+        fundRequest.setAllowFailover(true);
+        stubPendingTransaction();
+        when(bankAccountService.isBankAccountLinked(wallet.getId(), bankAccount.getAccountNumber()))
+                .thenReturn(true);
+        when(paymentGatewayFactory.getStrategy(PaymentGateway.FLUTTERWAVE)).thenReturn(paymentGatewayStrategy);
+        doThrow(new GatewayTimeoutException(PaymentGateway.FLUTTERWAVE, 100))
+                .when(paymentGatewayStrategy).processPayment(fundRequest.getAccountNumber(), fundRequest.getAmount());
+
+        assertThrows(GatewayTimeoutException.class,
+                () -> paymentService.fundWallet(wallet.getId(), fundRequest, "key-3"));
+
+        // The call may still take the payment: no second charge, no FAILED status releasing the key
+        verify(paymentGatewayFactory, never()).getFailover(any());
+        verify(transactionService, never()).completeTransaction(any(), any());
+        verify(walletBalanceRepository, never()).addToBalance(any(), any());
     }
 
     @Test
     void fundWallet_BalanceUpdatedCorrectly() {
-        BigDecimal initialBalance = wallet.getBalance();
-        BigDecimal fundingAmount = fundRequest.getAmount();
-
-        when(walletRepository.findByIdWithLock(wallet.getId())).thenReturn(Optional.of(wallet));
-        when(bankAccountService.getBankAccountsByWalletId(wallet.getId()))
-                .thenReturn(java.util.Arrays.asList(mapToBankAccountResponse(bankAccount)));
-        when(bankAccountService.getBankAccountByAccountNumberAndWallet(
-                bankAccount.getAccountNumber(),
-                bankAccount.getBank(),
-                wallet.getId()))
-                .thenReturn(bankAccount);
+        Money initialBalance = wallet.getBalance();
+        Money fundingAmount = Money.of(fundRequest.getAmount());
+
+        stubPendingTransaction();
+        when(bankAccountService.isBankAccountLinked(wallet.getId(), bankAccount.getAccountNumber()))
+                .thenReturn(true);
         when(paymentGatewayFactory.getStrategy(PaymentGateway.FLUTTERWAVE))
                 .thenReturn(paymentGatewayStrategy);
         doNothing().when(paymentGatewayStrategy).processPayment(fundRequest.getAccountNumber(),
                 fundRequest.getAmount());
-        when(walletRepository.save(any(Wallet.class))).thenAnswer(invocation -> {
-            Wallet savedWallet = invocation.getArgument(0);
-            assertEquals(initialBalance.add(fundingAmount), savedWallet.getBalance());
-            return savedWallet;
-        });
-        when(transactionService.createTransaction(
-                eq(wallet),
-                eq(fundRequest.getAmount()),
-                eq(TransactionType.CREDIT),
-                any(String.class),
-                eq(fundRequest.getPaymentGateway()),
-                eq(TransactionStatus.SUCCESS)))
+        when(walletBalanceRepository.addToBalance(wallet.getId(), fundingAmount))
+                .thenReturn(Optional.of(initialBalance.plus(fundingAmount)));
+        when(transactionService.completeTransaction(pendingTransaction.getId(), TransactionStatus.SUCCESS))
                 .thenReturn(transaction);
 
         paymentService.fundWallet(wallet.getId(), fundRequest);
 
-        verify(walletRepository).save(argThat(w -> w.getBalance().compareTo(initialBalance.add(fundingAmount)) == 0));
+        // One atomic increment; the wallet is never loaded for update or saved
+        verify(walletBalanceRepository).addToBalance(wallet.getId(), fundingAmount);
+        verify(walletRepository, never()).findByIdWithLock(any());
+        verify(walletRepository, never()).save(any(Wallet.class));
+        verify(walletJournal).recordCredit(wallet.getId(), pendingTransaction.getId(), fundingAmount);
     }
 
     /**
@@ -276,28 +396,17 @@ class PaymentServiceTest {
                 new BigDecimal("2500.00"),
                 PaymentGateway.PAYSTACK); // Using Paystack as proxy for "new" gateway
 
-        when(walletRepository.findByIdWithLock(wallet.getId())).thenReturn(Optional.of(wallet));
-        when(bankAccountService.getBankAccountsByWalletId(wallet.getId()))
-                .thenReturn(java.util.Arrays.asList(mapToBankAccountResponse(bankAccount)));
-        when(bankAccountService.getBankAccountByAccountNumberAndWallet(
-                bankAccount.getAccountNumber(),
-                bankAccount.getBank(),
-                wallet.getId()))
-                .thenReturn(bankAccount);
+        stubPendingTransaction();
+        when(bankAccountService.isBankAccountLinked(wallet.getId(), bankAccount.getAccountNumber()))
+                .thenReturn(true);
 
         PaymentGatewayStrategy newGatewayStrategy = mock(PaymentGatewayStrategy.class);
         when(paymentGatewayFactory.getStrategy(PaymentGateway.PAYSTACK))
                 .thenReturn(newGatewayStrategy);
         doNothing().when(newGatewayStrategy).processPayment(fundRequest.getAccountNumber(), fundRequest.getAmount());
 
-        when(walletRepository.save(any(Wallet.class))).thenReturn(wallet);
-        when(transactionService.createTransaction(
-                eq(wallet),
-                eq(fundRequest.getAmount()),
-                eq(TransactionType.CREDIT),
-                any(String.class),
-                eq(fundRequest.getPaymentGateway()),
-                eq(TransactionStatus.SUCCESS)))
+        stubCredit();
+        when(transactionService.completeTransaction(pendingTransaction.getId(), TransactionStatus.SUCCESS))
                 .thenReturn(transaction);
 
         TransactionResponse response = paymentService.fundWallet(wallet.getId(), fundRequest);
@@ -306,16 +415,101 @@ class PaymentServiceTest {
         assertNotNull(response);
         verify(paymentGatewayFactory).getStrategy(PaymentGateway.PAYSTACK);
         verify(newGatewayStrategy).processPayment(fundRequest.getAccountNumber(), fundRequest.getAmount());
-        verify(walletRepository).save(any(Wallet.class));
+        verify(walletBalanceRepository).addToBalance(wallet.getId(), Money.of(fundRequest.getAmount()));
+    }
+
+    @Test
+    void fundWallet_RepeatedIdempotencyKey_ReturnsStoredTransactionWithoutGatewayCall() {
+        TransactionResponse stored = new TransactionResponse(7L, Money.of(fundRequest.getAmount()),
+                TransactionType.CREDIT, "Wallet funded via FLUTTERWAVE from account 1234567890",
+                PaymentGateway.FLUTTERWAVE, TransactionStatus.SUCCESS, LocalDateTime.now());
+        when(transactionService.findByIdempotencyKey(wallet.getId(), "key-1")).thenReturn(Optional.of(stored));
+
+        TransactionResponse first = paymentService.fundWallet(wallet.getId(), fundRequest, "key-1");
+        TransactionResponse second = paymentService.fundWallet(wallet.getId(), fundRequest, "key-1");
+
+        assertSame(stored, first);
+        assertSame(stored, second);
+        // The second replay is served from the cache
+        verify(transactionService, times(1)).findByIdempotencyKey(wallet.getId(), "key-1");
+        verify(transactionService, never()).createTransaction(any(), any(), any(), any(), any(), any(), any());
+        verify(paymentGatewayFactory, never()).getStrategy(any());
+        verify(walletBalanceRepository, never()).addToBalance(any(), any());
     }
 
-    private com.task.walletmanagement.dto.BankAccountResponse mapToBankAccountResponse(BankAccount account) {
-        com.task.walletmanagement.dto.BankAccountResponse response = new com.task.walletmanagement.dto.BankAccountResponse();
-        response.setId(account.getId());
-        response.setAccountNumber(account.getAccountNumber());
-        response.setAccountName(account.getAccountName());
-        response.setBank(account.getBank());
-        response.setCreatedAt(account.getCreatedAt());
-        return response;
+    @Test
+    void fundWallet_IdempotencyKeyReusedForDifferentRequest_ThrowsException() {
+        TransactionResponse stored = new TransactionResponse(7L, Money.of(new BigDecimal("10.00")),
+                TransactionType.CREDIT, "Wallet funded via FLUTTERWAVE from account 1234567890",
+                PaymentGateway.FLUTTERWAVE, TransactionStatus.SUCCESS, LocalDateTime.now());
+        when(transactionService.findByIdempotencyKey(wallet.getId(), "key-1")).thenReturn(Optional.of(stored));
+
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> paymentService.fundWallet(wallet.getId(), fundRequest, "key-1"));
+
+        verify(transactionService, never()).createTransaction(any(), any(), any(), any(), any(), any(), any());
+        verify(paymentGatewayFactory, never()).getStrategy(any());
+    }
+
+    @Test
+    void initiateFunding_IdempotencyKeyAlreadyRecorded_ThrowsConflict() {
+        when(walletRepository.findById(wallet.getId())).thenReturn(Optional.of(wallet));
+        when(bankAccountService.isBankAccountLinked(wallet.getId(), bankAccount.getAccountNumber()))
+                .thenReturn(true);
+        when(transactionService.createTransaction(any(), any(), any(), any(), any(), any(), eq("key-3")))
+                .thenThrow(new DuplicateKeyException("Unique index violation"));
+
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> paymentService.initiateFunding(wallet.getId(), fundRequest, "key-3"));
+    }
+
+    @Test
+    void initiateFunding_OtherIntegrityViolation_IsNotAConflict() {
+        when(walletRepository.findById(wallet.getId())).thenReturn(Optional.of(wallet));
+        when(bankAccountService.isBankAccountLinked(wallet.getId(), bankAccount.getAccountNumber()))
+                .thenReturn(true);
+        when(transactionService.createTransaction(any(), any(), any(), any(), any(), any(), eq("key-3")))
+                .thenThrow(new DataIntegrityViolationException("Value too long for column IDEMPOTENCY_KEY"));
+
+        assertThrows(PaymentProcessingException.class,
+                () -> paymentService.initiateFunding(wallet.getId(), fundRequest, "key-3"));
+    }
+
+    @Test
+    void fundWallet_NewIdempotencyKey_IsRecordedWithPendingTransaction() {
+        stubPendingTransaction();
+        when(transactionService.findByIdempotencyKey(wallet.getId(), "key-2")).thenReturn(Optional.empty());
+        when(bankAccountService.isBankAccountLinked(wallet.getId(), bankAccount.getAccountNumber()))
+                .thenReturn(true);
+        when(paymentGatewayFactory.getStrategy(PaymentGateway.FLUTTERWAVE))
+                .thenReturn(paymentGatewayStrategy);
+        stubCredit();
+        when(transactionService.completeTransaction(pendingTransaction.getId(), TransactionStatus.SUCCESS))
+                .thenReturn(transaction);
+
+        paymentService.fundWallet(wallet.getId(), fundRequest, "key-2");
+
+        verify(transactionService).createTransaction(
+                eq(wallet), eq(Money.of(fundRequest.getAmount())), eq(TransactionType.CREDIT),
+                any(String.class), eq(fundRequest.getPaymentGateway()), eq(TransactionStatus.PENDING), eq("key-2"));
+    }
+
+    private void stubCredit() {
+        Money amount = Money.of(fundRequest.getAmount());
+        when(walletBalanceRepository.addToBalance(wallet.getId(), amount))
+                .thenReturn(Optional.of(wallet.getBalance().plus(amount)));
+    }
+
+    private void stubPendingTransaction() {
+        when(walletRepository.findById(wallet.getId())).thenReturn(Optional.of(wallet));
+        when(transactionService.createTransaction(
+                eq(wallet),
+                eq(Money.of(fundRequest.getAmount())),
+                eq(TransactionType.CREDIT),
+                any(String.class),
+                eq(fundRequest.getPaymentGateway()),
+                eq(TransactionStatus.PENDING),
+                any()))
+                .thenReturn(pendingTransaction);
     }
 }
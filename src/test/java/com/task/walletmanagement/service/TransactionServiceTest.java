@@ -0,0 +1,287 @@
+package com.task.walletmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.task.walletmanagement.dto.TransactionPageResponse;
+import com.task.walletmanagement.dto.TransactionResponse;
+import com.task.walletmanagement.dto.TransactionSummaryEntry;
+import com.task.walletmanagement.dto.TransactionSummaryResponse;
+import com.task.walletmanagement.entity.Transaction;
+import com.task.walletmanagement.entity.Wallet;
+import com.task.walletmanagement.enums.OutboxEventType;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.enums.TransactionStatus;
+import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.exception.InvalidCursorException;
+import com.task.walletmanagement.repository.OutboxRepository;
+import com.task.walletmanagement.repository.TransactionExportRepository;
+import com.task.walletmanagement.repository.TransactionRepository;
+import com.task.walletmanagement.repository.TransactionSummaryRepository;
+import com.task.walletmanagement.repository.TransactionSummaryRepository.Delta;
+import com.task.walletmanagement.service.balance.BalanceShards;
+import com.task.walletmanagement.util.TransactionCursor;
+import com.task.walletmanagement.util.Money;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TransactionService.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionExportRepository transactionExportRepository;
+
+    @Mock
+    private TransactionSummaryRepository transactionSummaryRepository;
+
+    @Mock
+    private BalanceShards balanceShards;
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private WalletService walletService;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private TransactionService transactionService;
+
+    private Wallet wallet;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        transactionService = new TransactionService(transactionRepository, transactionExportRepository,
+                transactionSummaryRepository, balanceShards, outboxRepository, walletService, objectMapper, entityManager, 2);
+        wallet = new Wallet();
+        wallet.setId(1L);
+        wallet.setEmail("test@example.com");
+        wallet.setPhoneNumber("+1234567890");
+        wallet.setBalance(Money.ZERO);
+        now = LocalDateTime.of(2026, 1, 15, 10, 30, 0, 123456000);
+    }
+
+    @Test
+    void completeTransaction_Failed_ReleasesIdempotencyKey() {
+        Transaction transaction = new Transaction();
+        transaction.setId(5L);
+        transaction.setWallet(wallet);
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setIdempotencyKey("key-1");
+        transaction.setAmount(Money.ofMinor(1000));
+        transaction.setType(TransactionType.CREDIT);
+        transaction.setCreatedAt(now);
+        when(transactionRepository.findById(5L)).thenReturn(Optional.of(transaction));
+
+        Transaction failed = transactionService.completeTransaction(5L, TransactionStatus.FAILED);
+
+        assertEquals(TransactionStatus.FAILED, failed.getStatus());
+        assertNull(failed.getIdempotencyKey());
+        verify(outboxRepository).append(OutboxEventType.TRANSACTION_COMPLETED, transaction);
+    }
+
+    @Test
+    void createTransaction_AppendsCreatedEventToOutbox() {
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction saved = invocation.getArgument(0);
+            saved.setId(7L);
+            saved.setCreatedAt(now);
+            return saved;
+        });
+
+        Transaction created = transactionService.createTransaction(wallet, Money.ofMinor(2500), TransactionType.CREDIT,
+                "Wallet funded via PAYSTACK from account 1234567890", PaymentGateway.PAYSTACK,
+                TransactionStatus.PENDING, null);
+
+        verify(outboxRepository).append(OutboxEventType.TRANSACTION_CREATED, created);
+        verify(transactionSummaryRepository).apply(eq(List.of(Delta.added(created))), any());
+    }
+
+    @Test
+    void createTransactions_FlushesAndClearsEveryJdbcBatch() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setWallet(wallet);
+            transaction.setAmount(Money.ofMinor(1000));
+            transaction.setType(TransactionType.CREDIT);
+            transaction.setStatus(TransactionStatus.PENDING);
+            transaction.setCreatedAt(now);
+            transactions.add(transaction);
+        }
+
+        transactionService.createTransactions(transactions);
+
+        verify(entityManager, times(5)).persist(any(Transaction.class));
+        // After the 2nd and 4th insert, then once for the remainder
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        verify(transactionSummaryRepository).apply(argThat(deltas -> deltas.size() == 5), any());
+        verify(outboxRepository).appendAll(OutboxEventType.TRANSACTION_CREATED, transactions);
+    }
+
+    @Test
+    void completeTransaction_MovesSummaryToFinalGatewayAndStatus() {
+        Transaction transaction = new Transaction();
+        transaction.setId(5L);
+        transaction.setWallet(wallet);
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setPaymentGateway(PaymentGateway.AUTO);
+        transaction.setAmount(Money.ofMinor(1000));
+        transaction.setType(TransactionType.CREDIT);
+        transaction.setCreatedAt(now);
+        when(transactionRepository.findById(5L)).thenReturn(Optional.of(transaction));
+
+        transactionService.completeTransaction(5L, TransactionStatus.SUCCESS, PaymentGateway.PAYSTACK,
+                "Wallet funded via PAYSTACK from account 1234567890");
+
+        LocalDate day = now.toLocalDate();
+        verify(transactionSummaryRepository).apply(eq(List.of(
+                new Delta(wallet.getId(), day, PaymentGateway.AUTO, TransactionType.CREDIT,
+                        TransactionStatus.PENDING, -1, -1000),
+                new Delta(wallet.getId(), day, PaymentGateway.PAYSTACK, TransactionType.CREDIT,
+                        TransactionStatus.SUCCESS, 1, 1000))), any());
+        assertEquals(PaymentGateway.PAYSTACK, transaction.getPaymentGateway());
+    }
+
+    @Test
+    void getTransactionSummary_AddsUpDaysIntoTotals() {
+        LocalDate day = now.toLocalDate();
+        when(transactionSummaryRepository.findByWalletId(wallet.getId(), null, null)).thenReturn(List.of(
+                new TransactionSummaryEntry(day, PaymentGateway.PAYSTACK, TransactionType.CREDIT,
+                        TransactionStatus.SUCCESS, 2, Money.ofMinor(3000)),
+                new TransactionSummaryEntry(day, PaymentGateway.FLUTTERWAVE, TransactionType.CREDIT,
+                        TransactionStatus.SUCCESS, 1, Money.ofMinor(500)),
+                new TransactionSummaryEntry(day.minusDays(1), PaymentGateway.PAYSTACK, TransactionType.CREDIT,
+                        TransactionStatus.SUCCESS, 3, Money.ofMinor(4000))));
+
+        TransactionSummaryResponse summary = transactionService.getTransactionSummary(wallet.getId(), null, null);
+
+        verify(walletService).ensureWalletExists(wallet.getId());
+        assertEquals(3, summary.getDays().size());
+        assertEquals(List.of(
+                new TransactionSummaryEntry(null, PaymentGateway.PAYSTACK, TransactionType.CREDIT,
+                        TransactionStatus.SUCCESS, 5, Money.ofMinor(7000)),
+                new TransactionSummaryEntry(null, PaymentGateway.FLUTTERWAVE, TransactionType.CREDIT,
+                        TransactionStatus.SUCCESS, 1, Money.ofMinor(500))),
+                summary.getTotals());
+    }
+
+    @Test
+    void getTransactionsByWalletId_FirstPage_ReturnsCursorToLastItem() {
+        List<Transaction> rows = transactions(3);
+        when(transactionRepository.findPageByWalletId(wallet.getId(), Limit.of(3))).thenReturn(rows);
+
+        TransactionPageResponse page = transactionService.getTransactionsByWalletId(wallet.getId(), null, 2);
+
+        assertEquals(2, page.getTransactions().size());
+        assertTrue(page.isHasMore());
+        TransactionCursor cursor = TransactionCursor.decode(page.getNextCursor());
+        assertEquals(rows.get(1).getId(), cursor.getId());
+        assertEquals(rows.get(1).getCreatedAt(), cursor.getCreatedAt());
+    }
+
+    @Test
+    void getTransactionsByWalletId_WithCursor_ReadsAfterCursor() {
+        Transaction last = transactions(1).get(0);
+        String cursor = new TransactionCursor(now, 10L).encode();
+        when(transactionRepository.findPageByWalletIdAfter(wallet.getId(), now, 10L, Limit.of(51)))
+                .thenReturn(List.of(last));
+
+        TransactionPageResponse page = transactionService.getTransactionsByWalletId(
+                wallet.getId(), cursor, TransactionService.DEFAULT_PAGE_SIZE);
+
+        assertEquals(1, page.getTransactions().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        verify(transactionRepository, never()).findPageByWalletId(any(), any());
+    }
+
+    @Test
+    void getTransactionsByWalletId_LimitClampedToMaxPageSize() {
+        when(transactionRepository.findPageByWalletId(eq(wallet.getId()), any(Limit.class))).thenReturn(List.of());
+
+        transactionService.getTransactionsByWalletId(wallet.getId(), null, 100_000);
+
+        verify(transactionRepository).findPageByWalletId(wallet.getId(), Limit.of(TransactionService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void getTransactionsByWalletId_InvalidCursor_ThrowsException() {
+
+        assertThrows(InvalidCursorException.class, () -> {
+            transactionService.getTransactionsByWalletId(wallet.getId(), "not-a-cursor", 10);
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportTransactions_WritesOneJsonObjectPerLine() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        TransactionService service = new TransactionService(transactionRepository, transactionExportRepository,
+                transactionSummaryRepository, balanceShards, outboxRepository, walletService, mapper, entityManager, 2);
+        doAnswer(invocation -> {
+            Consumer<TransactionResponse> consumer = invocation.getArgument(1);
+            consumer.accept(new TransactionResponse(2L, Money.ofMinor(2000), TransactionType.CREDIT,
+                    "second", PaymentGateway.PAYSTACK, TransactionStatus.SUCCESS, now));
+            consumer.accept(new TransactionResponse(1L, Money.ofMinor(1000), TransactionType.CREDIT,
+                    "first", PaymentGateway.FLUTTERWAVE, TransactionStatus.FAILED, now.minusDays(1)));
+            return null;
+        }).when(transactionExportRepository).streamByWalletId(eq(wallet.getId()), any(Consumer.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportTransactions(wallet.getId(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertTrue(lines[1].startsWith("{"));
+        assertEquals(2, lines.length);
+        assertEquals(2L, mapper.readValue(lines[0], TransactionResponse.class).getId());
+        assertEquals(TransactionStatus.FAILED, mapper.readValue(lines[1], TransactionResponse.class).getStatus());
+    }
+
+    private List<Transaction> transactions(int count) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId((long) (100 - i));
+            transaction.setWallet(wallet);
+            transaction.setAmount(Money.ofMinor(1000));
+            transaction.setType(TransactionType.CREDIT);
+            transaction.setPaymentGateway(PaymentGateway.FLUTTERWAVE);
+            transaction.setStatus(TransactionStatus.SUCCESS);
+            transaction.setCreatedAt(now.minusMinutes(i));
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+}
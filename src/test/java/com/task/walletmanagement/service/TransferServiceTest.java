@@ -0,0 +1,140 @@
+package com.task.walletmanagement.service;
+
+import com.task.walletmanagement.dto.TransferRequest;
+import com.task.walletmanagement.dto.TransferResponse;
+import com.task.walletmanagement.entity.Transaction;
+import com.task.walletmanagement.entity.Wallet;
+import com.task.walletmanagement.enums.TransactionStatus;
+import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.exception.InsufficientFundsException;
+import com.task.walletmanagement.exception.PaymentProcessingException;
+import com.task.walletmanagement.repository.WalletRepository;
+import com.task.walletmanagement.service.balance.BalanceUpdateStrategy;
+import com.task.walletmanagement.service.journal.WalletJournal;
+import com.task.walletmanagement.util.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TransferService.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransferServiceTest {
+
+    private static final Money AMOUNT = Money.of(new BigDecimal("250.00"));
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private BalanceUpdateStrategy balanceUpdateStrategy;
+
+    @Mock
+    private WalletJournal walletJournal;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TransferService transferService;
+
+    private Wallet walletOne;
+    private Wallet walletTwo;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transferService = new TransferService(walletRepository, transactionService, balanceUpdateStrategy,
+                walletJournal, transactionManager, meterRegistry);
+        walletOne = wallet(1L);
+        walletTwo = wallet(2L);
+    }
+
+    @Test
+    void transfer_UpdatesEachWalletBeforeLockingTheNextAndRecordsPairedTransactions() {
+        when(walletRepository.findByIdWithLock(1L)).thenReturn(Optional.of(walletOne));
+        when(walletRepository.findByIdWithLock(2L)).thenReturn(Optional.of(walletTwo));
+        when(balanceUpdateStrategy.debit(2L, AMOUNT)).thenReturn(true);
+        when(transactionService.createTransaction(eq(walletTwo), eq(AMOUNT), eq(TransactionType.DEBIT), any(),
+                isNull(), eq(TransactionStatus.SUCCESS), isNull())).thenReturn(transaction(10L, walletTwo, TransactionType.DEBIT));
+        when(transactionService.createTransaction(eq(walletOne), eq(AMOUNT), eq(TransactionType.CREDIT), any(),
+                isNull(), eq(TransactionStatus.SUCCESS), isNull())).thenReturn(transaction(11L, walletOne, TransactionType.CREDIT));
+
+        // From the higher ID to the lower one
+        TransferResponse response = transferService.transfer(2L, new TransferRequest(1L, new BigDecimal("250.00")));
+
+        InOrder inOrder = inOrder(walletRepository, balanceUpdateStrategy);
+        inOrder.verify(walletRepository).findByIdWithLock(1L);
+        inOrder.verify(balanceUpdateStrategy).credit(1L, AMOUNT);
+        inOrder.verify(walletRepository).findByIdWithLock(2L);
+        inOrder.verify(balanceUpdateStrategy).debit(2L, AMOUNT);
+        verify(walletJournal).recordDebit(2L, 10L, AMOUNT);
+        verify(walletJournal).recordCredit(1L, 11L, AMOUNT);
+        assertEquals(10L, response.getDebit().getId());
+        assertEquals(TransactionType.CREDIT, response.getCredit().getType());
+        assertEquals(1, meterRegistry.get("wallet.transfer").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void transfer_InsufficientFunds_ThrowsAndRecordsNothing() {
+        when(walletRepository.findByIdWithLock(1L)).thenReturn(Optional.of(walletOne));
+        when(balanceUpdateStrategy.debit(1L, AMOUNT)).thenReturn(false);
+
+        assertThrows(InsufficientFundsException.class,
+                () -> transferService.transfer(1L, new TransferRequest(2L, new BigDecimal("250.00"))));
+
+        verify(balanceUpdateStrategy, never()).credit(anyLong(), any());
+        verify(walletRepository, never()).findByIdWithLock(2L);
+        verifyNoInteractions(transactionService, walletJournal);
+        assertEquals(1, meterRegistry.get("wallet.transfer").tag("outcome", "insufficient_funds").timer().count());
+    }
+
+    @Test
+    void transfer_ToSameWallet_IsRejectedBeforeLocking() {
+        assertThrows(PaymentProcessingException.class,
+                () -> transferService.transfer(1L, new TransferRequest(1L, new BigDecimal("250.00"))));
+
+        verifyNoInteractions(walletRepository, balanceUpdateStrategy);
+    }
+
+    private static Wallet wallet(Long id) {
+        Wallet wallet = new Wallet();
+        wallet.setId(id);
+        wallet.setEmail("wallet" + id + "@example.com");
+        wallet.setPhoneNumber("+1234567890");
+        wallet.setBalance(Money.of(new BigDecimal("1000.00")));
+        return wallet;
+    }
+
+    private static Transaction transaction(Long id, Wallet wallet, TransactionType type) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setWallet(wallet);
+        transaction.setAmount(AMOUNT);
+        transaction.setType(type);
+        transaction.setStatus(TransactionStatus.SUCCESS);
+        transaction.setCreatedAt(LocalDateTime.now());
+        return transaction;
+    }
+}
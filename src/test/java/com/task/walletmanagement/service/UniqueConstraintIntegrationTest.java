@@ -0,0 +1,56 @@
+package com.task.walletmanagement.service;
+
+import com.task.walletmanagement.dto.CreateWalletRequest;
+import com.task.walletmanagement.dto.LinkBankAccountRequest;
+import com.task.walletmanagement.dto.WalletResponse;
+import com.task.walletmanagement.exception.DuplicateBankAccountException;
+import com.task.walletmanagement.exception.DuplicateEmailException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the unique constraints behind wallet creation and
+ * bank account linking. Rows are inserted with plain SQL, as another instance
+ * would, so the in-memory pre-checks cannot see them and only the database
+ * constraint catches the duplicate.
+ */
+@SpringBootTest
+class UniqueConstraintIntegrationTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createWallet_EmailInsertedElsewhere_ThrowsDuplicateEmail() {
+        String email = UUID.randomUUID() + "@example.com";
+        jdbcTemplate.update("INSERT INTO wallets (email, phone_number, balance) VALUES (?, ?, 0)",
+                email, "+2348000000000");
+
+        assertThrows(DuplicateEmailException.class,
+                () -> walletService.createWallet(new CreateWalletRequest(email, "+2348000000001")));
+    }
+
+    @Test
+    void linkBankAccount_AccountInsertedElsewhere_ThrowsDuplicateBankAccount() {
+        WalletResponse wallet = walletService.createWallet(
+                new CreateWalletRequest(UUID.randomUUID() + "@example.com", "+2348000000002"));
+        String accountNumber = String.valueOf(Math.abs(UUID.randomUUID().getMostSignificantBits()) % 10_000_000_000L);
+        jdbcTemplate.update("INSERT INTO bank_accounts (wallet_id, account_number, account_name, bank) "
+                + "VALUES (?, ?, ?, ?)", wallet.getId(), accountNumber, "A B", "GTB");
+
+        assertThrows(DuplicateBankAccountException.class, () -> bankAccountService.linkBankAccount(wallet.getId(),
+                new LinkBankAccountRequest(accountNumber, "A B", "GTB")));
+    }
+}
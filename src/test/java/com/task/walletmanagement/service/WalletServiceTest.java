@@ -5,15 +5,23 @@ import com.task.walletmanagement.dto.WalletResponse;
 import com.task.walletmanagement.entity.Wallet;
 import com.task.walletmanagement.exception.DuplicateEmailException;
 import com.task.walletmanagement.exception.WalletNotFoundException;
+import com.task.walletmanagement.repository.WalletBalanceRepository;
 import com.task.walletmanagement.repository.WalletRepository;
+import com.task.walletmanagement.service.balance.BalanceShards;
+import com.task.walletmanagement.service.balance.PessimisticBalanceUpdateStrategy;
+import com.task.walletmanagement.util.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -30,7 +38,15 @@ class WalletServiceTest {
     @Mock
     private WalletRepository walletRepository;
 
-    @InjectMocks
+    @Mock
+    private WalletBalanceRepository walletBalanceRepository;
+
+    @Mock
+    private BalanceShards balanceShards;
+
+    private WalletCache walletCache;
+    private PessimisticBalanceUpdateStrategy balanceUpdateStrategy;
+    private UniquenessFilters uniquenessFilters;
     private WalletService walletService;
 
     private CreateWalletRequest validRequest;
@@ -38,21 +54,27 @@ class WalletServiceTest {
 
     @BeforeEach
     void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        walletCache = new WalletCache(meterRegistry);
+        balanceUpdateStrategy = new PessimisticBalanceUpdateStrategy(walletBalanceRepository, walletCache,
+                balanceShards, meterRegistry);
+        uniquenessFilters = new UniquenessFilters(mock(JdbcTemplate.class), 1_000, 0.01);
+        walletService = new WalletService(walletRepository, balanceUpdateStrategy, walletCache, uniquenessFilters);
+
         validRequest = new CreateWalletRequest("test@example.com", "+1234567890");
 
         wallet = new Wallet();
         wallet.setId(1L);
         wallet.setEmail("test@example.com");
         wallet.setPhoneNumber("+1234567890");
-        wallet.setBalance(BigDecimal.ZERO);
+        wallet.setBalance(Money.ZERO);
         wallet.setCreatedAt(LocalDateTime.now());
         wallet.setUpdatedAt(LocalDateTime.now());
     }
 
     @Test
     void createWallet_Success() {
-        when(walletRepository.existsByEmail(validRequest.getEmail())).thenReturn(false);
-        when(walletRepository.save(any(Wallet.class))).thenReturn(wallet);
+        when(walletRepository.saveAndFlush(any(Wallet.class))).thenReturn(wallet);
 
         WalletResponse response = walletService.createWallet(validRequest);
 
@@ -60,14 +82,26 @@ class WalletServiceTest {
         assertEquals(wallet.getId(), response.getId());
         assertEquals(wallet.getEmail(), response.getEmail());
         assertEquals(wallet.getPhoneNumber(), response.getPhoneNumber());
-        assertEquals(BigDecimal.ZERO, response.getBalance());
+        assertEquals(Money.ZERO, response.getBalance());
 
-        verify(walletRepository).existsByEmail(validRequest.getEmail());
-        verify(walletRepository).save(any(Wallet.class));
+        // The email filter has never seen the email, so no duplicate query is needed
+        verify(walletRepository, never()).existsByEmail(any());
+        verify(walletRepository).saveAndFlush(any(Wallet.class));
+        assertTrue(uniquenessFilters.mightContainEmail(validRequest.getEmail()));
+    }
+
+    @Test
+    void createWallet_UniqueConstraintViolation_ThrowsDuplicateEmail() {
+        when(walletRepository.saveAndFlush(any(Wallet.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException("duplicate", "23505"),
+                        ConstraintViolationException.ConstraintKind.UNIQUE, "UK_WALLETS_EMAIL")));
+
+        assertThrows(DuplicateEmailException.class, () -> walletService.createWallet(validRequest));
     }
 
     @Test
     void createWallet_DuplicateEmail_ThrowsException() {
+        uniquenessFilters.addEmail(validRequest.getEmail());
         when(walletRepository.existsByEmail(validRequest.getEmail())).thenReturn(true);
 
         assertThrows(DuplicateEmailException.class, () -> {
@@ -75,7 +109,7 @@ class WalletServiceTest {
         });
 
         verify(walletRepository).existsByEmail(validRequest.getEmail());
-        verify(walletRepository, never()).save(any(Wallet.class));
+        verify(walletRepository, never()).saveAndFlush(any(Wallet.class));
     }
 
     @Test
@@ -91,6 +125,17 @@ class WalletServiceTest {
         verify(walletRepository).findByEmail(wallet.getEmail());
     }
 
+    @Test
+    void getWalletByEmail_ShardedWallet_ReturnsTotalOfShards() {
+        when(walletRepository.findByEmail(wallet.getEmail())).thenReturn(Optional.of(wallet));
+        when(balanceShards.isSharded(wallet.getId())).thenReturn(true);
+        when(balanceShards.getBalance(wallet.getId())).thenReturn(Money.ofMinor(12_345));
+
+        WalletResponse response = walletService.getWalletByEmail(wallet.getEmail());
+
+        assertEquals(Money.ofMinor(12_345), response.getBalance());
+    }
+
     @Test
     void getWalletByEmail_NotFound_ThrowsException() {
         String email = "notfound@example.com";
@@ -126,4 +171,78 @@ class WalletServiceTest {
 
         verify(walletRepository).findById(walletId);
     }
+
+    @Test
+    void getWalletByEmail_RepeatedLookup_ServedFromCache() {
+        when(walletRepository.findByEmail(wallet.getEmail())).thenReturn(Optional.of(wallet));
+
+        walletService.getWalletByEmail(wallet.getEmail());
+        WalletResponse response = walletService.getWalletByEmail(wallet.getEmail());
+        Wallet byId = walletService.getWalletById(wallet.getId());
+
+        assertEquals(wallet.getId(), response.getId());
+        assertEquals(wallet.getEmail(), byId.getEmail());
+        verify(walletRepository, times(1)).findByEmail(wallet.getEmail());
+        verify(walletRepository, never()).findById(any());
+    }
+
+    @Test
+    void getWalletByEmail_AfterCredit_ReloadsBalance() {
+        Wallet credited = new Wallet();
+        credited.setId(wallet.getId());
+        credited.setEmail(wallet.getEmail());
+        credited.setPhoneNumber(wallet.getPhoneNumber());
+        credited.setBalance(Money.of(new BigDecimal("25.00")));
+        when(walletRepository.findByEmail(wallet.getEmail()))
+                .thenReturn(Optional.of(wallet))
+                .thenReturn(Optional.of(credited));
+        when(walletBalanceRepository.addToBalance(wallet.getId(), Money.of(new BigDecimal("25.00"))))
+                .thenReturn(Optional.of(Money.of(new BigDecimal("25.00"))));
+
+        walletService.getWalletByEmail(wallet.getEmail());
+        balanceUpdateStrategy.credit(wallet.getId(), Money.of(new BigDecimal("25.00")));
+        WalletResponse response = walletService.getWalletByEmail(wallet.getEmail());
+
+        assertEquals(Money.of(new BigDecimal("25.00")), response.getBalance());
+        verify(walletRepository, times(2)).findByEmail(wallet.getEmail());
+    }
+
+    @Test
+    void getWalletById_UpdateToOtherWalletDuringRead_StillCachesCopyWithVersion() {
+        wallet.setVersion(3L);
+        when(walletRepository.findById(wallet.getId())).thenAnswer(invocation -> {
+            walletCache.evictAfterCommit(2L);
+            return Optional.of(wallet);
+        });
+
+        walletService.getWalletById(wallet.getId());
+        Wallet cached = walletService.getWalletById(wallet.getId());
+
+        assertEquals(3L, cached.getVersion());
+        verify(walletRepository, times(1)).findById(wallet.getId());
+    }
+
+    @Test
+    void getWalletById_UpdateToSameWalletDuringRead_IsNotCached() {
+        when(walletRepository.findById(wallet.getId())).thenAnswer(invocation -> {
+            walletCache.evictAfterCommit(wallet.getId());
+            return Optional.of(wallet);
+        });
+
+        walletService.getWalletById(wallet.getId());
+        walletService.getWalletById(wallet.getId());
+
+        verify(walletRepository, times(2)).findById(wallet.getId());
+    }
+
+    @Test
+    void ensureWalletExists_QueriesOnlyUntilWalletIsKnown() {
+        when(walletRepository.existsById(wallet.getId())).thenReturn(true);
+
+        walletService.ensureWalletExists(wallet.getId());
+        walletService.ensureWalletExists(wallet.getId());
+
+        verify(walletRepository, times(1)).existsById(wallet.getId());
+        assertThrows(WalletNotFoundException.class, () -> walletService.ensureWalletExists(999L));
+    }
 }
@@ -0,0 +1,180 @@
+package com.task.walletmanagement.service.balance;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BalanceLedger.
+ */
+@ExtendWith(MockitoExtension.class)
+class BalanceLedgerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private BalanceLedger balanceLedger;
+
+    @BeforeEach
+    void setUp() {
+        balanceLedger = new BalanceLedger(jdbcTemplate, 4, 200, 2, 600_000);
+    }
+
+    @Test
+    void getBalance_LoadsFromSuccessfulTransactionsOnce() {
+        when(jdbcTemplate.queryForObject(BalanceLedger.LOAD_BALANCE_SQL, BigDecimal.class, 1L))
+                .thenReturn(new BigDecimal("150.25"));
+
+        assertEquals(15025L, balanceLedger.getBalance(1L));
+        assertEquals(15525L, balanceLedger.credit(1L, 500L));
+        assertEquals(15525L, balanceLedger.getBalance(1L));
+
+        verify(jdbcTemplate, times(1)).queryForObject(BalanceLedger.LOAD_BALANCE_SQL, BigDecimal.class, 1L);
+    }
+
+    @Test
+    void getBalance_SlowLoadDoesNotBlockOtherWallets() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.queryForObject(eq(BalanceLedger.LOAD_BALANCE_SQL), eq(BigDecimal.class), anyLong()))
+                .thenReturn(BigDecimal.ZERO);
+        when(jdbcTemplate.queryForObject(BalanceLedger.LOAD_BALANCE_SQL, BigDecimal.class, 1L))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    release.await();
+                    return new BigDecimal("1.00");
+                });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Long> slow = executor.submit(() -> balanceLedger.getBalance(1L));
+            loading.await();
+
+            // Every shard, including wallet 1's, stays usable while its load is running
+            Future<?> others = executor.submit(() -> {
+                for (long walletId = 2; walletId < 34; walletId++) {
+                    balanceLedger.credit(walletId, 1L);
+                }
+            });
+            others.get(5, TimeUnit.SECONDS);
+
+            release.countDown();
+            assertEquals(100L, slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void flush_EvictsIdleCleanAccountsButNotHeldOnes() {
+        balanceLedger = new BalanceLedger(jdbcTemplate, 4, 200, 2, 0);
+        when(jdbcTemplate.queryForObject(BalanceLedger.LOAD_BALANCE_SQL, BigDecimal.class, 1L))
+                .thenReturn(BigDecimal.ZERO, new BigDecimal("5.00"));
+        when(jdbcTemplate.queryForObject(BalanceLedger.LOAD_BALANCE_SQL, BigDecimal.class, 2L))
+                .thenReturn(BigDecimal.ZERO);
+        balanceLedger.credit(1L, 100L);
+        balanceLedger.load(2L);
+
+        // The first sweep only clears the used marks; the second finds wallet 1 idle
+        balanceLedger.flush();
+        balanceLedger.flush();
+
+        assertEquals(500L, balanceLedger.getBalance(1L));
+        assertEquals(0L, balanceLedger.getBalance(2L));
+        verify(jdbcTemplate, times(2)).queryForObject(BalanceLedger.LOAD_BALANCE_SQL, BigDecimal.class, 1L);
+        verify(jdbcTemplate, times(1)).queryForObject(BalanceLedger.LOAD_BALANCE_SQL, BigDecimal.class, 2L);
+    }
+
+    @Test
+    void tryDebit_RefusesToOverdraw() {
+        when(jdbcTemplate.queryForObject(BalanceLedger.LOAD_BALANCE_SQL, BigDecimal.class, 1L))
+                .thenReturn(new BigDecimal("10.00"));
+
+        assertTrue(balanceLedger.tryDebit(1L, 600L));
+        assertFalse(balanceLedger.tryDebit(1L, 600L));
+        assertEquals(400L, balanceLedger.getBalance(1L));
+    }
+
+    @Test
+    void credit_ConcurrentCreditsAreNotLost() throws Exception {
+        when(jdbcTemplate.queryForObject(eq(BalanceLedger.LOAD_BALANCE_SQL), eq(BigDecimal.class), anyLong()))
+                .thenReturn(BigDecimal.ZERO);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    balanceLedger.credit(i % 16, 1L);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        long total = 0;
+        for (long walletId = 0; walletId < 16; walletId++) {
+            total += balanceLedger.getBalance(walletId);
+        }
+        assertEquals(80_000L, total);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_WritesChangedBalancesInBatchesOnlyOnce() {
+        when(jdbcTemplate.queryForObject(eq(BalanceLedger.LOAD_BALANCE_SQL), eq(BigDecimal.class), anyLong()))
+                .thenReturn(BigDecimal.ZERO);
+        balanceLedger.credit(1L, 100L);
+        balanceLedger.credit(1L, 250L);
+        balanceLedger.credit(2L, 100L);
+        balanceLedger.credit(3L, 100L);
+        balanceLedger.getBalance(4L);
+
+        assertEquals(3, balanceLedger.flush());
+        assertEquals(0, balanceLedger.flush());
+
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(BalanceLedger.FLUSH_BALANCE_SQL), batches.capture());
+        List<Object[]> written = new ArrayList<>();
+        batches.getAllValues().forEach(written::addAll);
+        assertEquals(3, written.size());
+        Object[] wallet1 = written.stream().filter(args -> args[2].equals(1L)).findFirst().orElseThrow();
+        assertEquals(new BigDecimal("3.50"), wallet1[0]);
+    }
+
+    @Test
+    void flush_FailedBatchIsRetriedOnNextFlush() {
+        when(jdbcTemplate.queryForObject(eq(BalanceLedger.LOAD_BALANCE_SQL), eq(BigDecimal.class), anyLong()))
+                .thenReturn(BigDecimal.ZERO);
+        when(jdbcTemplate.batchUpdate(eq(BalanceLedger.FLUSH_BALANCE_SQL), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"))
+                .thenReturn(new int[] { 1 });
+        balanceLedger.credit(1L, 100L);
+
+        assertEquals(0, balanceLedger.flush());
+        assertEquals(1, balanceLedger.flush());
+        assertEquals(0, balanceLedger.flush());
+    }
+}
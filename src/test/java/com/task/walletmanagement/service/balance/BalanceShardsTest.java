@@ -0,0 +1,108 @@
+package com.task.walletmanagement.service.balance;
+
+import com.task.walletmanagement.config.BalanceShardingProperties;
+import com.task.walletmanagement.repository.WalletBalanceRepository;
+import com.task.walletmanagement.repository.WalletBalanceShardRepository;
+import com.task.walletmanagement.util.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.intThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BalanceShards.
+ */
+@ExtendWith(MockitoExtension.class)
+class BalanceShardsTest {
+
+    @Mock
+    private WalletBalanceShardRepository shardRepository;
+
+    @Mock
+    private WalletBalanceRepository walletBalanceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BalanceShards balanceShards;
+
+    @BeforeEach
+    void setUp() {
+        balanceShards = new BalanceShards(shardRepository, walletBalanceRepository,
+                new BalanceShardingProperties(Set.of(1L, 2L), 4, 60_000), transactionManager,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void start_FoldsOldShardsAndShardsConfiguredWallets() {
+        when(shardRepository.findShardedWallets()).thenReturn(List.of(5L));
+        when(shardRepository.lockShards(5L)).thenReturn(Money.ofMinor(700));
+        when(shardRepository.createShards(1L, 4)).thenReturn(true);
+        when(shardRepository.createShards(2L, 4)).thenReturn(false);
+
+        balanceShards.start();
+        balanceShards.stop();
+
+        InOrder inOrder = inOrder(shardRepository, walletBalanceRepository);
+        inOrder.verify(shardRepository).lockShards(5L);
+        inOrder.verify(walletBalanceRepository).addToBalance(5L, Money.ofMinor(700));
+        inOrder.verify(shardRepository).clearShards(5L);
+        inOrder.verify(shardRepository).deleteShards(5L);
+        assertTrue(balanceShards.isSharded(1L));
+        assertFalse(balanceShards.isSharded(2L));
+        assertFalse(balanceShards.isSharded(5L));
+    }
+
+    @Test
+    void credit_AddsToOneOfTheWalletsShards() {
+        Money amount = Money.ofMinor(1_000);
+        when(shardRepository.addToShard(eq(1L), intThat(shard -> shard >= 0 && shard < 4), eq(amount)))
+                .thenReturn(true);
+
+        for (int i = 0; i < 20; i++) {
+            balanceShards.credit(1L, amount);
+        }
+
+        verify(shardRepository, times(20)).addToShard(eq(1L), anyInt(), eq(amount));
+        verifyNoInteractions(walletBalanceRepository);
+    }
+
+    @Test
+    void summaryShard_SpreadsOnlyShardedWallets() {
+        when(shardRepository.createShards(1L, 4)).thenReturn(true);
+        assertTrue(balanceShards.shard(1L));
+
+        Set<Integer> used = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            used.add(balanceShards.summaryShard(1L));
+            assertEquals(0, balanceShards.summaryShard(2L));
+        }
+
+        assertEquals(Set.of(0, 1, 2, 3), used);
+    }
+
+    @Test
+    void fold_LeavesBalanceAloneWhenShardsAreEmpty() {
+        when(shardRepository.lockShards(1L)).thenReturn(Money.ZERO);
+
+        assertEquals(Money.ZERO, balanceShards.fold(1L));
+
+        verify(walletBalanceRepository, never()).addToBalance(anyLong(), any());
+        verify(shardRepository, never()).clearShards(anyLong());
+    }
+}
@@ -0,0 +1,94 @@
+package com.task.walletmanagement.service.balance;
+
+import com.task.walletmanagement.config.OptimisticBalanceProperties;
+import com.task.walletmanagement.repository.WalletBalanceRepository;
+import com.task.walletmanagement.repository.WalletBalanceRepository.VersionedBalance;
+import com.task.walletmanagement.service.WalletCache;
+import com.task.walletmanagement.util.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OptimisticBalanceUpdateStrategy.
+ */
+@ExtendWith(MockitoExtension.class)
+class OptimisticBalanceUpdateStrategyTest {
+
+    @Mock
+    private WalletBalanceRepository walletBalanceRepository;
+
+    @Mock
+    private WalletCache walletCache;
+
+    @Mock
+    private BalanceShards balanceShards;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticBalanceUpdateStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        strategy = new OptimisticBalanceUpdateStrategy(walletBalanceRepository, walletCache,
+                new OptimisticBalanceProperties(3, 0, 0, 2, 60_000), balanceShards, meterRegistry);
+    }
+
+    @Test
+    void credit_RetriesAfterVersionConflict() {
+        Money amount = Money.ofMinor(1_000);
+        when(walletBalanceRepository.findBalance(1L))
+                .thenReturn(Optional.of(new VersionedBalance(Money.ofMinor(500), 7)))
+                .thenReturn(Optional.of(new VersionedBalance(Money.ofMinor(800), 8)));
+        when(walletBalanceRepository.addToBalanceIfVersion(1L, amount, 7)).thenReturn(false);
+        when(walletBalanceRepository.addToBalanceIfVersion(1L, amount, 8)).thenReturn(true);
+
+        strategy.credit(1L, amount);
+
+        verify(walletBalanceRepository, never()).addToBalance(anyLong(), any());
+        verify(walletCache).evictAfterCommit(1L);
+        assertEquals(1.0, meterRegistry.get("wallet.balance.optimistic.conflicts").counter().count());
+        assertEquals(0.0, meterRegistry.get("wallet.balance.optimistic.locked").counter().count());
+    }
+
+    @Test
+    void credit_ContendedWalletUsesAtomicIncrement() {
+        Money amount = Money.ofMinor(1_000);
+        when(walletBalanceRepository.findBalance(1L))
+                .thenReturn(Optional.of(new VersionedBalance(Money.ofMinor(500), 7)));
+        when(walletBalanceRepository.addToBalanceIfVersion(eq(1L), eq(amount), anyLong())).thenReturn(false);
+        when(walletBalanceRepository.addToBalance(1L, amount)).thenReturn(Optional.of(Money.ofMinor(1_500)));
+
+        // Two conflicts make the wallet contended: this credit stops retrying and applies an atomic increment
+        strategy.credit(1L, amount);
+        // and the next one does so without trying the versioned update first
+        strategy.credit(1L, amount);
+
+        verify(walletBalanceRepository, times(2)).findBalance(1L);
+        verify(walletBalanceRepository, times(2)).addToBalance(1L, amount);
+        assertEquals(2.0, meterRegistry.get("wallet.balance.optimistic.conflicts").counter().count());
+        assertEquals(2.0, meterRegistry.get("wallet.balance.optimistic.locked").counter().count());
+    }
+
+    @Test
+    void debit_RefusesToOverdraw() {
+        when(walletBalanceRepository.findBalance(1L))
+                .thenReturn(Optional.of(new VersionedBalance(Money.ofMinor(500), 7)));
+
+        assertFalse(strategy.debit(1L, Money.ofMinor(1_000)));
+
+        verify(walletBalanceRepository, never()).addToBalanceIfVersion(anyLong(), any(), anyLong());
+        verify(walletCache, never()).evictAfterCommit(anyLong());
+    }
+}
@@ -0,0 +1,99 @@
+package com.task.walletmanagement.service.balance;
+
+import com.task.walletmanagement.exception.PaymentProcessingException;
+import com.task.walletmanagement.repository.WalletBalanceRepository;
+import com.task.walletmanagement.service.WalletCache;
+import com.task.walletmanagement.util.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PessimisticBalanceUpdateStrategy.
+ */
+@ExtendWith(MockitoExtension.class)
+class PessimisticBalanceUpdateStrategyTest {
+
+    @Mock
+    private WalletBalanceRepository walletBalanceRepository;
+
+    @Mock
+    private WalletCache walletCache;
+
+    @Mock
+    private BalanceShards balanceShards;
+
+    private PessimisticBalanceUpdateStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        strategy = new PessimisticBalanceUpdateStrategy(walletBalanceRepository, walletCache, balanceShards,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void credit_AppliesOneAtomicIncrement() {
+        Money amount = Money.ofMinor(1_000);
+        when(walletBalanceRepository.addToBalance(1L, amount)).thenReturn(Optional.of(Money.ofMinor(1_500)));
+
+        strategy.credit(1L, amount);
+
+        verify(walletBalanceRepository).addToBalance(1L, amount);
+        verifyNoMoreInteractions(walletBalanceRepository);
+        verify(walletCache).evictAfterCommit(1L);
+    }
+
+    @Test
+    void credit_UnknownWalletFails() {
+        Money amount = Money.ofMinor(1_000);
+        when(walletBalanceRepository.addToBalance(99L, amount)).thenReturn(Optional.empty());
+
+        assertThrows(PaymentProcessingException.class, () -> strategy.credit(99L, amount));
+
+        verify(walletCache, never()).evictAfterCommit(anyLong());
+    }
+
+    @Test
+    void credit_HotWalletGoesToShard() {
+        Money amount = Money.ofMinor(1_000);
+        when(balanceShards.isSharded(1L)).thenReturn(true);
+
+        strategy.credit(1L, amount);
+
+        verify(balanceShards).credit(1L, amount);
+        verifyNoInteractions(walletBalanceRepository);
+    }
+
+    @Test
+    void debit_HotWalletFoldsShardsFirst() {
+        Money amount = Money.ofMinor(1_000);
+        when(balanceShards.isSharded(1L)).thenReturn(true);
+        when(walletBalanceRepository.subtractFromBalance(1L, amount)).thenReturn(Optional.of(Money.ofMinor(500)));
+
+        assertTrue(strategy.debit(1L, amount));
+
+        InOrder inOrder = inOrder(balanceShards, walletBalanceRepository);
+        inOrder.verify(balanceShards).fold(1L);
+        inOrder.verify(walletBalanceRepository).subtractFromBalance(1L, amount);
+    }
+
+    @Test
+    void debit_ReturnsFalseWhenBalanceDoesNotCover() {
+        Money amount = Money.ofMinor(1_000);
+        when(walletBalanceRepository.subtractFromBalance(1L, amount)).thenReturn(Optional.empty());
+
+        assertFalse(strategy.debit(1L, amount));
+
+        verify(walletCache, never()).evictAfterCommit(anyLong());
+    }
+}
@@ -0,0 +1,145 @@
+package com.task.walletmanagement.service.commit;
+
+import com.task.walletmanagement.config.GroupCommitProperties;
+import com.task.walletmanagement.exception.PaymentProcessingException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GroupCommitWriter.
+ */
+@ExtendWith(MockitoExtension.class)
+class GroupCommitWriterTest {
+
+    // Long enough that a batch is only ever closed by reaching its size
+    private static final long WAIT_FOR_FULL_BATCH_MICROS = 10_000_000;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ExecutorService callers;
+
+    private GroupCommitWriter groupCommitWriter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        callers = Executors.newFixedThreadPool(4);
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (groupCommitWriter != null) {
+            groupCommitWriter.stop();
+        }
+        callers.shutdownNow();
+    }
+
+    @Test
+    void execute_Disabled_CommitsOnCallerThread() {
+        groupCommitWriter = writer(false, 4);
+        groupCommitWriter.start();
+
+        assertEquals("done", groupCommitWriter.execute(1L, () -> "done"));
+
+        assertFalse(groupCommitWriter.isRunning());
+        verify(transactionManager).getTransaction(any());
+        verify(transactionManager).commit(transactionStatus);
+    }
+
+    @Test
+    void execute_ConcurrentCallers_ShareOneCommitInWalletIdOrder() throws Exception {
+        groupCommitWriter = writer(true, 4);
+        groupCommitWriter.start();
+        List<Long> applied = new CopyOnWriteArrayList<>();
+
+        List<Future<Long>> results = submitAll(applied, null, 4L, 2L, 3L, 1L);
+
+        assertEquals(4L, results.get(0).get());
+        assertEquals(2L, results.get(1).get());
+        assertEquals(3L, results.get(2).get());
+        assertEquals(1L, results.get(3).get());
+        assertEquals(List.of(1L, 2L, 3L, 4L), applied);
+        verify(transactionManager).getTransaction(any());
+        verify(transactionManager).commit(transactionStatus);
+        DistributionSummary batchSize = meterRegistry.get("wallet.commit.batch.size").summary();
+        assertEquals(1, batchSize.count());
+        assertEquals(4.0, batchSize.totalAmount());
+    }
+
+    @Test
+    void execute_OneCallerFails_ReplaysEachCallerInItsOwnTransaction() throws Exception {
+        groupCommitWriter = writer(true, 3);
+        groupCommitWriter.start();
+        List<Long> applied = new CopyOnWriteArrayList<>();
+
+        List<Future<Long>> results = submitAll(applied, 2L, 1L, 2L, 3L);
+
+        assertEquals(1L, results.get(0).get());
+        Exception failure = assertThrows(Exception.class, () -> results.get(1).get());
+        assertInstanceOf(PaymentProcessingException.class, failure.getCause());
+        assertEquals(3L, results.get(2).get());
+        // Wallet 3 never ran in the shared transaction, which failed at wallet 2
+        assertEquals(List.of(1L, 2L, 1L, 2L, 3L), applied);
+        verify(transactionManager, times(4)).getTransaction(any());
+        verify(transactionManager, times(2)).commit(transactionStatus);
+        verify(transactionManager, times(2)).rollback(transactionStatus);
+        assertEquals(1.0, meterRegistry.get("wallet.commit.replays").counter().count());
+        assertEquals(0, meterRegistry.get("wallet.commit.batch.size").summary().count());
+    }
+
+    /**
+     * Release one caller per wallet at once. Each records its wallet ID when
+     * its work runs; the work for {@code failingWalletId} then throws.
+     */
+    private List<Future<Long>> submitAll(List<Long> applied, Long failingWalletId, Long... walletIds) {
+        CompletableFuture<Void> go = new CompletableFuture<>();
+        List<Future<Long>> results = new ArrayList<>();
+        for (Long walletId : walletIds) {
+            results.add(callers.submit(() -> {
+                go.join();
+                return groupCommitWriter.execute(walletId, () -> {
+                    applied.add(walletId);
+                    if (walletId.equals(failingWalletId)) {
+                        throw new PaymentProcessingException("Wallet not found with ID: " + walletId);
+                    }
+                    return walletId;
+                });
+            }));
+        }
+        go.complete(null);
+        return results;
+    }
+
+    private GroupCommitWriter writer(boolean enabled, int maxBatchSize) {
+        return new GroupCommitWriter(
+                new GroupCommitProperties(enabled, maxBatchSize, WAIT_FOR_FULL_BATCH_MICROS, 100),
+                transactionManager, meterRegistry);
+    }
+}
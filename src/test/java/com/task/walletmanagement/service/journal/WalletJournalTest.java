@@ -0,0 +1,124 @@
+package com.task.walletmanagement.service.journal;
+
+import com.task.walletmanagement.config.WalletJournalProperties;
+import com.task.walletmanagement.repository.WalletJournalRepository;
+import com.task.walletmanagement.repository.WalletJournalRepository.Snapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WalletJournal.
+ */
+@ExtendWith(MockitoExtension.class)
+class WalletJournalTest {
+
+    @Mock
+    private WalletJournalRepository walletJournalRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private WalletJournal walletJournal;
+
+    @BeforeEach
+    void setUp() {
+        walletJournal = new WalletJournal(walletJournalRepository,
+                new WalletJournalProperties(100, 10_000, 5_000, true, false), transactionManager,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_AddsEventsAfterLatestSnapshot() {
+        when(walletJournalRepository.findLatestSnapshot()).thenReturn(Optional.of(new Snapshot(3, 500)));
+        doAnswer(invocation -> {
+            Map<Long, Long> balances = invocation.getArgument(1);
+            balances.put(1L, 10_000L);
+            balances.put(2L, 2_500L);
+            return null;
+        }).when(walletJournalRepository).loadSnapshot(eq(3L), anyMap());
+        doAnswer(invocation -> {
+            Map<Long, Long> balances = invocation.getArgument(2);
+            balances.merge(2L, 500L, Math::addExact);
+            balances.merge(3L, 700L, Math::addExact);
+            return null;
+        }).when(walletJournalRepository).addEvents(eq(500L), eq(Long.MAX_VALUE), anyMap());
+
+        WalletJournal.Rebuild rebuild = walletJournal.rebuild();
+
+        assertEquals(Map.of(1L, 10_000L, 2L, 3_000L, 3L, 700L), rebuild.balances());
+        assertEquals(500L, rebuild.lastEventId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void verify_ReportsWalletsWhoseStoredBalanceDiffers() {
+        when(walletJournalRepository.findLatestSnapshot()).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            Map<Long, Long> balances = invocation.getArgument(2);
+            balances.put(1L, 1_000L);
+            balances.put(2L, 2_000L);
+            return null;
+        }).when(walletJournalRepository).addEvents(eq(0L), eq(Long.MAX_VALUE), anyMap());
+        doAnswer(invocation -> {
+            BiConsumer<Long, Long> consumer = invocation.getArgument(0);
+            consumer.accept(1L, 1_000L);
+            consumer.accept(2L, 1_500L);
+            consumer.accept(3L, 0L);
+            return null;
+        }).when(walletJournalRepository).forEachWalletBalance(any());
+
+        WalletJournal.Verification verification = walletJournal.verify();
+
+        assertEquals(3, verification.walletsChecked());
+        assertEquals(Map.of(2L, 2_000L), verification.mismatches());
+    }
+
+    @Test
+    void snapshotIfDue_SkipsShortTail() {
+        when(walletJournalRepository.findLatestSnapshot()).thenReturn(Optional.of(new Snapshot(3, 500)));
+        when(walletJournalRepository.findSnapshotBoundary(eq(500L), any())).thenReturn(599L);
+
+        assertFalse(walletJournal.snapshotIfDue());
+
+        verify(walletJournalRepository, never()).insertSnapshot(anyLong(), anyMap());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void snapshotIfDue_BuildsFromLatestSnapshotAndTailUpToBoundary() {
+        when(walletJournalRepository.findLatestSnapshot()).thenReturn(Optional.of(new Snapshot(3, 500)));
+        when(walletJournalRepository.findSnapshotBoundary(eq(500L), any())).thenReturn(650L);
+        doAnswer(invocation -> {
+            Map<Long, Long> balances = invocation.getArgument(1);
+            balances.put(1L, 10_000L);
+            return null;
+        }).when(walletJournalRepository).loadSnapshot(eq(3L), anyMap());
+        doAnswer(invocation -> {
+            Map<Long, Long> balances = invocation.getArgument(2);
+            balances.merge(1L, 250L, Math::addExact);
+            return null;
+        }).when(walletJournalRepository).addEvents(eq(500L), eq(650L), anyMap());
+
+        assertTrue(walletJournal.snapshotIfDue());
+
+        verify(walletJournalRepository).insertSnapshot(650L, Map.of(1L, 10_250L));
+        verify(walletJournalRepository).deleteSnapshotsBefore(3L);
+    }
+}
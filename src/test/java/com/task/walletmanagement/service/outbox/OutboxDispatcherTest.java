@@ -0,0 +1,87 @@
+package com.task.walletmanagement.service.outbox;
+
+import com.task.walletmanagement.config.OutboxProperties;
+import com.task.walletmanagement.enums.OutboxEventType;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.enums.TransactionStatus;
+import com.task.walletmanagement.enums.TransactionType;
+import com.task.walletmanagement.event.OutboxEvent;
+import com.task.walletmanagement.repository.OutboxRepository;
+import com.task.walletmanagement.util.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OutboxDispatcher.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private OutboxSink outboxSink;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OutboxDispatcher outboxDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxDispatcher = new OutboxDispatcher(outboxRepository, outboxSink,
+                new OutboxProperties(2, 50, 1000, "unused"), meterRegistry);
+    }
+
+    @Test
+    void dispatchBatch_PublishesOldestEventsThenDeletesThem() {
+        List<OutboxEvent> events = List.of(event(1, OutboxEventType.TRANSACTION_CREATED, TransactionStatus.PENDING),
+                event(2, OutboxEventType.TRANSACTION_COMPLETED, TransactionStatus.SUCCESS));
+        when(outboxRepository.findBatch(2)).thenReturn(events);
+
+        assertEquals(2, outboxDispatcher.dispatchBatch());
+
+        InOrder inOrder = inOrder(outboxSink, outboxRepository);
+        inOrder.verify(outboxSink).publish(events);
+        inOrder.verify(outboxRepository).deleteAll(events);
+        assertEquals(2.0, meterRegistry.get("wallet.outbox.dispatched").counter().count());
+    }
+
+    @Test
+    void dispatchBatch_SinkFailure_KeepsEventsForRetry() {
+        List<OutboxEvent> events = List.of(event(1, OutboxEventType.TRANSACTION_CREATED, TransactionStatus.PENDING));
+        when(outboxRepository.findBatch(2)).thenReturn(events);
+        doThrow(new IllegalStateException("sink unavailable")).when(outboxSink).publish(events);
+
+        assertThrows(IllegalStateException.class, () -> outboxDispatcher.dispatchBatch());
+
+        verify(outboxRepository, never()).deleteAll(any());
+    }
+
+    @Test
+    void dispatchBatch_EmptyOutbox_DoesNotCallSink() {
+        when(outboxRepository.findBatch(2)).thenReturn(List.of());
+
+        assertEquals(0, outboxDispatcher.dispatchBatch());
+
+        verifyNoInteractions(outboxSink);
+    }
+
+    private static OutboxEvent event(long id, OutboxEventType eventType, TransactionStatus status) {
+        return new OutboxEvent(id, eventType, 1L, 10L, Money.ofMinor(5000), TransactionType.CREDIT, status,
+                PaymentGateway.PAYSTACK, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,229 @@
+package com.task.walletmanagement.service.payment;
+
+import com.task.walletmanagement.config.GatewayResilienceProperties;
+import com.task.walletmanagement.config.GatewayRoutingProperties;
+import com.task.walletmanagement.enums.PaymentGateway;
+import com.task.walletmanagement.exception.GatewayTimeoutException;
+import com.task.walletmanagement.exception.GatewayUnavailableException;
+import com.task.walletmanagement.exception.PaymentProcessingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PaymentGatewayFactory and the resilience layer around its
+ * strategies, run against in-process fake gateways.
+ */
+class PaymentGatewayFactoryTest {
+
+    // 2 concurrent calls, 10 ms bulkhead wait, 100 ms timeout, open at 50% of 4 calls for 1 s, 1 trial call
+    private static final GatewayResilienceProperties PROPERTIES =
+            new GatewayResilienceProperties(2, 10, 100, 50, 4, 4, 1000, 1);
+    // Fast-moving averages and no exploration, so routing is deterministic
+    private static final GatewayRoutingProperties ROUTING = new GatewayRoutingProperties(0.5, 0);
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private FakeGateway flutterwave;
+    private FakeGateway paystack;
+    private PaymentGatewayFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        flutterwave = new FakeGateway();
+        paystack = new FakeGateway();
+        factory = new PaymentGatewayFactory(
+                Map.of(PaymentGateway.FLUTTERWAVE, flutterwave, PaymentGateway.PAYSTACK, paystack),
+                PROPERTIES, ROUTING, meterRegistry, clock::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.shutdown();
+    }
+
+    @Test
+    void processPayment_SlowGateway_TimesOut() {
+        flutterwave.latencyMillis = 2_000;
+
+        long start = System.nanoTime();
+        assertThrows(GatewayTimeoutException.class, () -> pay(PaymentGateway.FLUTTERWAVE));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 1_000, "caller waited " + elapsedMillis + " ms");
+        assertEquals(1, meterRegistry.get("payment.gateway.rejections")
+                .tags("gateway", "FLUTTERWAVE", "reason", "timeout").counter().count());
+    }
+
+    @Test
+    void processPayment_FailingGateway_OpensCircuitAndFailsFast() {
+        flutterwave.fail = true;
+        for (int i = 0; i < 4; i++) {
+            assertThrows(PaymentProcessingException.class, () -> pay(PaymentGateway.FLUTTERWAVE));
+        }
+
+        GatewayUnavailableException exception = assertThrows(GatewayUnavailableException.class,
+                () -> pay(PaymentGateway.FLUTTERWAVE));
+
+        assertTrue(exception.getMessage().contains("circuit breaker is open"));
+        assertEquals(4, flutterwave.calls.get());
+        assertEquals(Optional.of(PaymentGateway.PAYSTACK), factory.getFailover(PaymentGateway.FLUTTERWAVE));
+        assertEquals(Optional.empty(), factory.getFailover(PaymentGateway.PAYSTACK));
+    }
+
+    @Test
+    void processPayment_Declines_DoNotOpenCircuit() {
+        flutterwave.decline = true;
+        for (int i = 0; i < 8; i++) {
+            PaymentProcessingException exception = assertThrows(PaymentProcessingException.class,
+                    () -> pay(PaymentGateway.FLUTTERWAVE));
+            assertEquals("Transaction declined by bank", exception.getMessage());
+        }
+
+        assertEquals(8, flutterwave.calls.get());
+        assertEquals(0.0, meterRegistry.get("payment.gateway.circuit.state").tag("gateway", "FLUTTERWAVE")
+                .gauge().value());
+    }
+
+    @Test
+    void processPayment_OpenCircuit_ClosesAfterSuccessfulTrialCall() {
+        flutterwave.fail = true;
+        for (int i = 0; i < 4; i++) {
+            assertThrows(PaymentProcessingException.class, () -> pay(PaymentGateway.FLUTTERWAVE));
+        }
+        flutterwave.fail = false;
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_000));
+
+        pay(PaymentGateway.FLUTTERWAVE);
+        pay(PaymentGateway.FLUTTERWAVE);
+
+        assertEquals(6, flutterwave.calls.get());
+        assertEquals(0.0, meterRegistry.get("payment.gateway.circuit.state").tag("gateway", "FLUTTERWAVE")
+                .gauge().value());
+    }
+
+    @Test
+    void processPayment_BulkheadFull_RejectsExtraCalls() throws Exception {
+        factory.shutdown();
+        factory = new PaymentGatewayFactory(Map.of(PaymentGateway.PAYSTACK, paystack),
+                new GatewayResilienceProperties(2, 10, 5_000, 50, 4, 4, 1000, 1), ROUTING, meterRegistry, clock::get);
+        paystack.blocker = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = callers.submit(() -> pay(PaymentGateway.PAYSTACK));
+            Future<?> second = callers.submit(() -> pay(PaymentGateway.PAYSTACK));
+            while (paystack.calls.get() < 2) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(GatewayUnavailableException.class, () -> pay(PaymentGateway.PAYSTACK));
+
+            paystack.blocker.countDown();
+            first.get();
+            second.get();
+        } finally {
+            callers.shutdown();
+        }
+        assertEquals(1, meterRegistry.get("payment.gateway.rejections")
+                .tags("gateway", "PAYSTACK", "reason", "bulkhead_full").counter().count());
+    }
+
+    @Test
+    void selectGateway_PrefersLowerLatency() {
+        flutterwave.latencyMillis = 40;
+        for (int i = 0; i < 3; i++) {
+            pay(PaymentGateway.FLUTTERWAVE);
+            pay(PaymentGateway.PAYSTACK);
+        }
+
+        assertEquals(PaymentGateway.PAYSTACK, factory.selectGateway());
+
+        flutterwave.latencyMillis = 0;
+        paystack.latencyMillis = 40;
+        for (int i = 0; i < 5; i++) {
+            pay(PaymentGateway.FLUTTERWAVE);
+            pay(PaymentGateway.PAYSTACK);
+        }
+
+        assertEquals(PaymentGateway.FLUTTERWAVE, factory.selectGateway());
+    }
+
+    @Test
+    void selectGateway_PrefersHigherSuccessRate() {
+        flutterwave.latencyMillis = 5;
+        paystack.latencyMillis = 5;
+        paystack.fail = true;
+        pay(PaymentGateway.FLUTTERWAVE);
+        assertThrows(PaymentProcessingException.class, () -> pay(PaymentGateway.PAYSTACK));
+
+        assertEquals(PaymentGateway.FLUTTERWAVE, factory.selectGateway());
+        assertEquals(PaymentGateway.FLUTTERWAVE, factory.getFailover(PaymentGateway.AUTO).orElseThrow());
+    }
+
+    @Test
+    void getStrategy_Auto_SkipsOpenCircuit() {
+        flutterwave.fail = true;
+        for (int i = 0; i < 4; i++) {
+            assertThrows(PaymentProcessingException.class, () -> pay(PaymentGateway.FLUTTERWAVE));
+        }
+        // Make the open gateway look fastest; it must still be skipped
+        paystack.latencyMillis = 30;
+        pay(PaymentGateway.PAYSTACK);
+
+        pay(PaymentGateway.AUTO);
+
+        assertEquals(2, paystack.calls.get());
+        assertEquals(4, flutterwave.calls.get());
+    }
+
+    private void pay(PaymentGateway gateway) {
+        factory.getStrategy(gateway).processPayment("1234567890", new BigDecimal("10.00"));
+    }
+
+    /**
+     * Gateway with injected latency, failures, declines and an optional latch that
+     * holds calls in flight.
+     */
+    private static final class FakeGateway implements PaymentGatewayStrategy {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile long latencyMillis;
+        private volatile boolean fail;
+        private volatile boolean decline;
+        private volatile CountDownLatch blocker;
+
+        @Override
+        public void processPayment(String accountNumber, BigDecimal amount) {
+            calls.incrementAndGet();
+            try {
+                if (blocker != null) {
+                    blocker.await();
+                }
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PaymentProcessingException("Interrupted");
+            }
+            if (fail) {
+                throw new IllegalStateException("Gateway unreachable");
+            }
+            if (decline) {
+                throw new PaymentProcessingException("Transaction declined by bank");
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.task.walletmanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BloomFilter.
+ */
+class BloomFilterTest {
+
+    @Test
+    void testAddedKeysAreNeverReportedAbsent() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"), "key " + i);
+        }
+    }
+
+    @Test
+    void testConcurrentAddsAreNeverLost() throws Exception {
+        BloomFilter filter = BloomFilter.create(40_000, 0.01);
+        List<Future<?>> writers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        filter.put(thread + ":" + i);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        }
+
+        for (int t = 0; t < 4; t++) {
+            for (int i = 0; i < 10_000; i++) {
+                assertTrue(filter.mightContain(t + ":" + i), "key " + t + ":" + i);
+            }
+        }
+    }
+
+    @Test
+    void testFalsePositiveRateAtConfiguredSize() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("present-" + i);
+        }
+
+        int falsePositives = 0;
+        int lookups = 100_000;
+        for (int i = 0; i < lookups; i++) {
+            if (filter.mightContain("absent-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        double rate = (double) falsePositives / lookups;
+        assertTrue(rate < 0.02, "false-positive rate " + rate);
+    }
+
+    @Test
+    void testCreateRejectsFiltersTooLarge() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(1_000_000_000_000L, 0.01));
+        assertFalse(BloomFilter.create(0, 0.01).mightContain("anything"));
+    }
+}
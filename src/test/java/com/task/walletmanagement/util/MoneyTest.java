@@ -0,0 +1,53 @@
+package com.task.walletmanagement.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Money.
+ */
+class MoneyTest {
+
+    @Test
+    void testExactConversionFromBigDecimal() {
+        assertEquals(100050L, Money.of(new BigDecimal("1000.50")).getMinorUnits());
+        assertEquals(500L, Money.of(new BigDecimal("5")).getMinorUnits());
+        assertEquals(500L, Money.of(new BigDecimal("5.000")).getMinorUnits());
+        assertEquals(new BigDecimal("1000.50"), Money.ofMinor(100050L).toBigDecimal());
+    }
+
+    @Test
+    void testRejectsAmountsThatWouldRound() {
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.005")));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1E+30")));
+    }
+
+    @Test
+    void testArithmeticOverflowThrows() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1L)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).minus(Money.ofMinor(1L)));
+        assertEquals(Money.ofMinor(250L), Money.ofMinor(100L).plus(Money.ofMinor(150L)));
+    }
+
+    @Test
+    void testToString() {
+        assertEquals("0.00", Money.ZERO.toString());
+        assertEquals("1000.05", Money.ofMinor(100005L).toString());
+        assertEquals("-0.05", Money.ofMinor(-5L).toString());
+        assertEquals("-12.30", Money.ofMinor(-1230L).toString());
+        assertEquals(BigDecimal.valueOf(Long.MAX_VALUE, 2).toPlainString(), Money.ofMinor(Long.MAX_VALUE).toString());
+    }
+
+    @Test
+    void testJsonRoundTrip() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertEquals("1000.50", objectMapper.writeValueAsString(Money.ofMinor(100050L)));
+        assertEquals(Money.ofMinor(100050L), objectMapper.readValue("1000.5", Money.class));
+    }
+}